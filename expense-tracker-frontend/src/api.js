@@ -13,6 +13,10 @@ const API = axios.create({
   },
 });
 
+// Time of our last write, as the server reported it; sent back so reads right after a write
+// see it, whichever backend instance serves them
+let lastWrite = null;
+
 // Attach JWT token (if available) before every request
 API.interceptors.request.use(
   (req) => {
@@ -21,6 +25,9 @@ API.interceptors.request.use(
       req.headers.Authorization = `Bearer ${user.token}`;
       console.log('🛡 JWT token attached');
     }
+    if (lastWrite) {
+      req.headers['Last-Write'] = lastWrite;
+    }
     return req;
   },
   (error) => {
@@ -31,7 +38,12 @@ API.interceptors.request.use(
 
 // Add response error logging & JWT expiry handling
 API.interceptors.response.use(
-  (res) => res,
+  (res) => {
+    if (res.headers['last-write']) {
+      lastWrite = res.headers['last-write'];
+    }
+    return res;
+  },
   (error) => {
     const { config, response } = error;
     const status = response?.status;
@@ -45,14 +57,25 @@ API.interceptors.response.use(
       response: response?.data,
     });
 
-    // Handle expired JWT token
-    if (errorMsg.includes('JWT expired')) {
+    // Handle expired or rejected JWT token (the API answers 401 without a valid one)
+    if (errorMsg.includes('JWT expired') || (status === 401 && !config?.url?.includes('/auth/'))) {
       localStorage.removeItem('user');
       alert('⚠️ Session expired. Please log in again.');
       window.location.href = '/login';
       return Promise.reject(error);
     }
 
+    // Rate limited: retry a read once after the server's Retry-After (writes are left to the user)
+    if (status === 429 && config?.method === 'get' && !config._rateLimitRetried) {
+      const waitSeconds = Math.min(Number(response.headers['retry-after']) || 1, 10);
+      config._rateLimitRetried = true;
+      return new Promise((resolve) => setTimeout(resolve, waitSeconds * 1000)).then(() => API(config));
+    }
+    if (status === 429) {
+      alert('⏳ Too many requests. Please wait a moment and try again.');
+      return Promise.reject(error);
+    }
+
     if (error.message === 'Network Error') {
       alert('⚠️ Backend not reachable. Make sure Spring Boot is running at http://localhost:8181/api');
     } else if (status === 404) {
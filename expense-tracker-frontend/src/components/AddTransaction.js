@@ -1,9 +1,9 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import API from '../api';
 import { toast } from 'react-toastify';
 
 export default function AddTransaction({ onAdd }) {
-  const [form, setForm] = useState({ title: '', amount: '', date: '', categoryId: '' });
+  const [form, setForm] = useState({ title: '', amount: '', date: '', categoryId: '', currency: '' });
   const [categories, setCategories] = useState([]);
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [isAddingCategory, setIsAddingCategory] = useState(false);
@@ -12,6 +12,7 @@ export default function AddTransaction({ onAdd }) {
   const [editingCategory, setEditingCategory] = useState({ name: '', type: 'EXPENSE' });
   const [loadingCategories, setLoadingCategories] = useState(false);
   const [categorySearch, setCategorySearch] = useState('');
+  const pendingKey = useRef(null);
 
   useEffect(() => {
     fetchCategories();
@@ -47,10 +48,17 @@ export default function AddTransaction({ onAdd }) {
     }
 
     setIsSubmitting(true);
+    // Reused if the user resubmits the same form after a failed attempt, so a retry cannot duplicate
+    const body = { ...form, amount, currency: form.currency || undefined };
+    const fingerprint = JSON.stringify(body);
+    if (!pendingKey.current || pendingKey.current.fingerprint !== fingerprint) {
+      pendingKey.current = { fingerprint, key: crypto.randomUUID() };
+    }
     try {
-      await API.post('/transactions', { ...form, amount });
+      await API.post('/transactions', body, { headers: { 'Idempotency-Key': pendingKey.current.key } });
+      pendingKey.current = null;
       toast.success('Transaction added successfully');
-      setForm({ title: '', amount: '', date: '', categoryId: '' });
+      setForm({ title: '', amount: '', date: '', categoryId: '', currency: '' });
       onAdd();
     } catch (err) {
       console.error('Error adding transaction:', err);
@@ -161,6 +169,14 @@ export default function AddTransaction({ onAdd }) {
           required
           className="border rounded-lg p-3 focus:outline-none focus:ring-2 focus:ring-blue-500"
         />
+        <input
+          type="text"
+          placeholder="Currency (default: your base)"
+          maxLength={3}
+          value={form.currency}
+          onChange={(e) => setForm({ ...form, currency: e.target.value.toUpperCase() })}
+          className="border rounded-lg p-3 focus:outline-none focus:ring-2 focus:ring-blue-500"
+        />
         <input
           type="date"
           value={form.date}
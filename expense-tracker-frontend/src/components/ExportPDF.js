@@ -1,9 +1,9 @@
-import jsPDF from 'jspdf';
-import 'jspdf-autotable';
 import * as XLSX from 'xlsx';
 import { useState } from 'react';
+import { toast } from 'react-toastify';
+import API from '../api';
 
-export default function ExportPDF({ data = [], chartRef = null }) {
+export default function ExportPDF({ data = [] }) {
   const [startDate, setStartDate] = useState('');
   const [endDate, setEndDate] = useState('');
 
@@ -17,48 +17,25 @@ export default function ExportPDF({ data = [], chartRef = null }) {
     });
   };
 
-  const formatAmount = (amount) => `₹${parseFloat(amount).toFixed(2)}`;
-
-  const exportToPDF = async () => {
-    const doc = new jsPDF();
-    const filteredData = filterByDateRange(data);
-
-    const tableRows = filteredData.map((t) => [
-      t.date,
-      t.title,
-      formatAmount(t.amount),
-      t.category?.name || 'N/A',
-      t.category?.type || 'N/A',
-    ]);
-
-    const totalIncome = filteredData
-      .filter((t) => t.category?.type === 'INCOME')
-      .reduce((sum, t) => sum + t.amount, 0);
-    const totalExpense = filteredData
-      .filter((t) => t.category?.type === 'EXPENSE')
-      .reduce((sum, t) => sum + t.amount, 0);
-
-    doc.text('Transaction Report', 14, 10);
-    doc.autoTable({
-      head: [['Date', 'Title', 'Amount', 'Category', 'Type']],
-      body: tableRows,
-      startY: 20,
-    });
-
-    doc.text(`Total Income: ${formatAmount(totalIncome)}`, 14, doc.lastAutoTable.finalY + 10);
-    doc.text(`Total Expense: ${formatAmount(totalExpense)}`, 14, doc.lastAutoTable.finalY + 20);
-
-    if (chartRef?.current) {
-      const chartCanvas = chartRef.current.querySelector('canvas');
-      if (chartCanvas) {
-        const chartImage = chartCanvas.toDataURL('image/png');
-        doc.addPage();
-        doc.text('Expense Chart', 14, 15);
-        doc.addImage(chartImage, 'PNG', 15, 25, 180, 100);
-      }
+  // Report is built and streamed by the backend, so the full history never loads in the tab
+  const downloadFromServer = async (format) => {
+    try {
+      const res = await API.get('/transactions/export', {
+        params: { format, from: startDate || undefined, to: endDate || undefined },
+        responseType: 'blob',
+      });
+      const url = window.URL.createObjectURL(res.data);
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `transactions_report.${format}`;
+      document.body.appendChild(link);
+      link.click();
+      link.remove();
+      window.URL.revokeObjectURL(url);
+    } catch (err) {
+      console.error('Export failed:', err);
+      toast.error('Export failed.');
     }
-
-    doc.save('transactions_report.pdf');
   };
 
   const exportToExcel = () => {
@@ -99,11 +76,17 @@ export default function ExportPDF({ data = [], chartRef = null }) {
       </div>
       <div className="flex gap-2">
         <button
-          onClick={exportToPDF}
+          onClick={() => downloadFromServer('pdf')}
           className="bg-purple-600 text-white px-4 py-2 rounded"
         >
           Export PDF
         </button>
+        <button
+          onClick={() => downloadFromServer('csv')}
+          className="bg-blue-600 text-white px-4 py-2 rounded"
+        >
+          Export Full CSV
+        </button>
         <button
           onClick={exportToExcel}
           className="bg-green-600 text-white px-4 py-2 rounded"
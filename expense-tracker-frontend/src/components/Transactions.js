@@ -1,4 +1,4 @@
-import { useState } from 'react';
+import { useState, useEffect } from 'react';
 import API from '../api';
 import { CSVLink } from 'react-csv';
 import ExportPDF from './ExportPDF';
@@ -8,6 +8,25 @@ export default function Transactions({ selectedCategory, transactions = [], fetc
   const [editing, setEditing] = useState(null);
   const [form, setForm] = useState({ title: '', amount: '', date: '' });
   const [isLoading, setIsLoading] = useState(false);  // Optional: Loading state
+  const [query, setQuery] = useState('');
+  const [results, setResults] = useState(null);
+
+  // Server-side title search (prefix and typo tolerant), debounced while typing
+  useEffect(() => {
+    if (!query.trim()) {
+      setResults(null);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const res = await API.get('/transactions/search', { params: { q: query, limit: 50 } });
+        setResults(res?.data || []);
+      } catch (err) {
+        console.error('Error searching transactions:', err);
+      }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [query, transactions]);
 
   // Handle Deleting a Transaction
   const handleDelete = async (id) => {
@@ -27,7 +46,7 @@ export default function Transactions({ selectedCategory, transactions = [], fetc
   // Handle Editing a Transaction
   const handleEdit = (txn) => {
     setEditing(txn.id);
-    setForm({ title: txn.title, amount: txn.amount, date: txn.date });
+    setForm({ title: txn.title, amount: txn.amount, date: txn.date, version: txn.version });
   };
 
   // Handle Saving the Updated Transaction
@@ -39,27 +58,41 @@ export default function Transactions({ selectedCategory, transactions = [], fetc
 
     setIsLoading(true);  // Optional: Show loading state during update
     try {
-      await API.put(`/transactions/${editing}`, form);
+      // PATCH keeps the category; the version makes a concurrent edit fail with 409 instead of being lost
+      await API.patch(`/transactions/${editing}`, form);
       setEditing(null);
       setForm({ title: '', amount: '', date: '' });
       fetchTransactions();
     } catch (err) {
       console.error('Error updating transaction:', err);
-      toast.error('Failed to update transaction.');
+      if (err.response?.status === 409) {
+        toast.warn('This transaction was changed elsewhere. Reloaded the latest version.');
+        setEditing(null);
+        fetchTransactions();
+      } else {
+        toast.error('Failed to update transaction.');
+      }
     } finally {
       setIsLoading(false);  // Optional: Hide loading state
     }
   };
 
   // Optional: Filter transactions based on selected category
+  const source = results ?? transactions;
   const filtered = selectedCategory
-    ? transactions.filter((t) => t.category?.name === selectedCategory)
-    : transactions;
+    ? source.filter((t) => t.category?.name === selectedCategory)
+    : source;
 
   return (
     <div className="overflow-x-auto mt-6">
       <div className="flex justify-between items-center mb-2">
         <h2 className="text-lg font-bold">Transactions</h2>
+        <input
+          value={query}
+          onChange={(e) => setQuery(e.target.value)}
+          placeholder="Search titles..."
+          className="border p-1 rounded flex-1 mx-4"
+        />
         <div className="flex space-x-2">
           <CSVLink
             data={filtered}
@@ -1,132 +1,218 @@
-import { useState, useEffect, useCallback, useMemo } from 'react';
-import API from '../api';
-import AddTransaction from '../components/AddTransaction';
-import Transactions from '../components/Transactions';
-import Charts from '../components/Charts';
-import { checkBudgetLimit } from '../utils/budget';
-import { useAuth } from '../context/AuthContext';
-import { ToastContainer, toast } from 'react-toastify';
-import 'react-toastify/dist/ReactToastify.css';
-
-export default function Dashboard() {
-  const [transactions, setTransactions] = useState([]);
-  const [categories, setCategories] = useState([]);
-  const [selectedCategory, setSelectedCategory] = useState('');
-  const [budgetLimit] = useState(100000);
-
-  const { logout } = useAuth();
-
-  const fetchTransactions = useCallback(async () => {
-    const user = JSON.parse(localStorage.getItem('user'));
-    if (!user?.token) return;
-
-    try {
-      const res = await API.get('/transactions');
-      setTransactions(res?.data || []);
-    } catch (err) {
-      toast.error('Failed to load transactions.');
-      console.error('Error:', err);
-    }
-  }, []);
-
-  const fetchCategories = useCallback(async () => {
-    const user = JSON.parse(localStorage.getItem('user'));
-    if (!user?.token) return;
-
-    try {
-      const res = await API.get('/categories');
-      setCategories(res?.data || []);
-    } catch (err) {
-      toast.error('Failed to load categories.');
-      console.error('Error:', err);
-    }
-  }, []);
-
-  useEffect(() => {
-    fetchCategories();
-    fetchTransactions();
-  }, [fetchCategories, fetchTransactions]);
-
-  const filteredTransactions = useMemo(() => {
-    return selectedCategory
-      ? transactions.filter((t) => t.category?.name === selectedCategory)
-      : transactions;
-  }, [transactions, selectedCategory]);
-
-  const totalSpent = useMemo(() => {
-    return filteredTransactions.reduce((sum, t) => sum + (t.amount || 0), 0);
-  }, [filteredTransactions]);
-
-  const percentUsed = Math.min((totalSpent / budgetLimit) * 100, 100);
-
-  const handleLogout = () => {
-    logout();
-    setSelectedCategory('');
-    toast.success('Logged out successfully');
-  };
-
-  return (
-    <div className="p-6 max-w-5xl mx-auto">
-      <ToastContainer />
-
-      {/* Logout */}
-      <div className="flex justify-end mb-4">
-        <button
-          onClick={handleLogout}
-          className="bg-red-500 hover:bg-red-600 text-white px-4 py-2 rounded"
-        >
-          Logout
-        </button>
-      </div>
-
-      {/* Budget warning */}
-      {checkBudgetLimit(filteredTransactions, budgetLimit) && (
-        <div className="bg-red-100 text-red-700 p-3 rounded mb-4">
-          {checkBudgetLimit(filteredTransactions, budgetLimit)}
-        </div>
-      )}
-
-      {/* Budget progress */}
-      <div className="mb-4">
-        <div className="flex justify-between mb-1 text-sm font-medium text-gray-700">
-          <span>Budget Used:</span>
-          <span>
-            ₹{totalSpent.toFixed(2)} / ₹{budgetLimit}
-          </span>
-        </div>
-        <div className="w-full bg-gray-200 h-4 rounded">
-          <div
-            className={`h-4 rounded ${percentUsed >= 100 ? 'bg-red-600' : 'bg-green-500'}`}
-            style={{ width: `${percentUsed}%` }}
-          />
-        </div>
-      </div>
-
-      {/* Category Filter */}
-      <div className="mb-4">
-        <label className="font-semibold">Filter by Category:</label>
-        <select
-          value={selectedCategory}
-          onChange={(e) => setSelectedCategory(e.target.value)}
-          className="ml-2 p-1 border rounded"
-        >
-          <option value="">All</option>
-          {categories.map((c) => (
-            <option key={c.id} value={c.name}>
-              {c.name}
-            </option>
-          ))}
-        </select>
-      </div>
-
-      {/* Transaction Form & Data */}
-      <AddTransaction onAdd={fetchTransactions} />
-      <Transactions
-        selectedCategory={selectedCategory}
-        transactions={filteredTransactions}
-        fetchTransactions={fetchTransactions}
-      />
-      <Charts selectedCategory={selectedCategory} />
-    </div>
-  );
-}
+import { useState, useEffect, useCallback, useMemo } from 'react';
+import API from '../api';
+import AddTransaction from '../components/AddTransaction';
+import Transactions from '../components/Transactions';
+import Charts from '../components/Charts';
+import { checkBudgetLimit } from '../utils/budget';
+import { subscribeToChanges } from '../utils/changeFeed';
+import { useAuth } from '../context/AuthContext';
+import { ToastContainer, toast } from 'react-toastify';
+import 'react-toastify/dist/ReactToastify.css';
+
+export default function Dashboard() {
+  const [transactions, setTransactions] = useState([]);
+  const [categories, setCategories] = useState([]);
+  const [expenseTotals, setExpenseTotals] = useState([]);
+  const [selectedCategory, setSelectedCategory] = useState('');
+  const [budgets, setBudgets] = useState([]);
+  const [live, setLive] = useState(false);
+
+  const { logout } = useAuth();
+
+  const fetchTransactions = useCallback(async () => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user?.token) return;
+
+    try {
+      const res = await API.get('/transactions');
+      setTransactions(res?.data?.items || []);
+    } catch (err) {
+      toast.error('Failed to load transactions.');
+      console.error('Error:', err);
+    }
+  }, []);
+
+  const fetchCategories = useCallback(async () => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user?.token) return;
+
+    try {
+      const res = await API.get('/categories');
+      setCategories(res?.data || []);
+    } catch (err) {
+      toast.error('Failed to load categories.');
+      console.error('Error:', err);
+    }
+  }, []);
+
+  const fetchSummary = useCallback(async () => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user?.token) return;
+
+    try {
+      const res = await API.get('/summary/categories', { params: { type: 'EXPENSE' } });
+      setExpenseTotals(res?.data || []);
+    } catch (err) {
+      toast.error('Failed to load totals.');
+      console.error('Error:', err);
+    }
+  }, []);
+
+  const fetchBudgets = useCallback(async () => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user?.token) return;
+
+    try {
+      const [statusRes, alertRes] = await Promise.all([
+        API.get('/budgets'),
+        API.get('/budgets/alerts'),
+      ]);
+      setBudgets(statusRes?.data || []);
+      (alertRes?.data || []).forEach((a) =>
+        toast.warn(`Budget ${a.thresholdPercent}% reached: ₹${a.spent.toFixed(2)} of ₹${a.limit}`)
+      );
+    } catch (err) {
+      console.error('Error:', err);
+    }
+  }, []);
+
+  const refresh = useCallback(() => {
+    fetchTransactions();
+    fetchSummary();
+    fetchBudgets();
+  }, [fetchTransactions, fetchSummary, fetchBudgets]);
+
+  useEffect(() => {
+    fetchCategories();
+    refresh();
+  }, [fetchCategories, refresh]);
+
+  // Live updates: apply pushed deltas instead of refetching the list after every write
+  useEffect(() => {
+    const byNewest = (a, b) => (a.date === b.date ? b.id - a.id : a.date < b.date ? 1 : -1);
+    return subscribeToChanges({
+      open: () => setLive(true),
+      close: () => setLive(false),
+      transaction: (e) => {
+        if (e.op === 'REFRESH') {
+          fetchTransactions();
+        } else if (e.op === 'DELETED') {
+          setTransactions((prev) => prev.filter((t) => t.id !== e.transactionId));
+        } else {
+          setTransactions((prev) =>
+            [e.transaction, ...prev.filter((t) => t.id !== e.transactionId)].sort(byNewest)
+          );
+        }
+      },
+      totals: (t) => {
+        setExpenseTotals(t.expenseByCategory || []);
+        fetchBudgets();
+      },
+      // Missed more changes than the server keeps: reload everything
+      reset: () => refresh(),
+    });
+  }, [fetchTransactions, fetchBudgets, refresh]);
+
+  // While the feed is connected, writes show up through it
+  const afterWrite = useCallback(() => {
+    if (!live) refresh();
+  }, [live, refresh]);
+
+  const filteredTransactions = useMemo(() => {
+    return selectedCategory
+      ? transactions.filter((t) => t.category?.name === selectedCategory)
+      : transactions;
+  }, [transactions, selectedCategory]);
+
+  // Server-side monthly budget for the selected category (or the overall one)
+  const activeBudget = useMemo(() => {
+    const categoryId = selectedCategory
+      ? categories.find((c) => c.name === selectedCategory)?.id
+      : null;
+    return budgets.find(
+      (b) => b.period === 'MONTHLY' && (b.categoryId ?? null) === (categoryId ?? null)
+    );
+  }, [budgets, categories, selectedCategory]);
+
+  const budgetLimit = activeBudget ? activeBudget.limit : 100000;
+
+  const totalSpent = useMemo(() => {
+    if (activeBudget) return activeBudget.spent;
+    return expenseTotals
+      .filter((c) => !selectedCategory || c.categoryName === selectedCategory)
+      .reduce((sum, c) => sum + (c.total || 0), 0);
+  }, [activeBudget, expenseTotals, selectedCategory]);
+
+  const percentUsed = Math.min((totalSpent / budgetLimit) * 100, 100);
+
+  const handleLogout = () => {
+    logout();
+    setSelectedCategory('');
+    toast.success('Logged out successfully');
+  };
+
+  return (
+    <div className="p-6 max-w-5xl mx-auto">
+      <ToastContainer />
+
+      {/* Logout */}
+      <div className="flex justify-end mb-4">
+        <button
+          onClick={handleLogout}
+          className="bg-red-500 hover:bg-red-600 text-white px-4 py-2 rounded"
+        >
+          Logout
+        </button>
+      </div>
+
+      {/* Budget warning */}
+      {checkBudgetLimit(totalSpent, budgetLimit) && (
+        <div className="bg-red-100 text-red-700 p-3 rounded mb-4">
+          {checkBudgetLimit(totalSpent, budgetLimit)}
+        </div>
+      )}
+
+      {/* Budget progress */}
+      <div className="mb-4">
+        <div className="flex justify-between mb-1 text-sm font-medium text-gray-700">
+          <span>Budget Used:</span>
+          <span>
+            ₹{totalSpent.toFixed(2)} / ₹{budgetLimit}
+          </span>
+        </div>
+        <div className="w-full bg-gray-200 h-4 rounded">
+          <div
+            className={`h-4 rounded ${percentUsed >= 100 ? 'bg-red-600' : 'bg-green-500'}`}
+            style={{ width: `${percentUsed}%` }}
+          />
+        </div>
+      </div>
+
+      {/* Category Filter */}
+      <div className="mb-4">
+        <label className="font-semibold">Filter by Category:</label>
+        <select
+          value={selectedCategory}
+          onChange={(e) => setSelectedCategory(e.target.value)}
+          className="ml-2 p-1 border rounded"
+        >
+          <option value="">All</option>
+          {categories.map((c) => (
+            <option key={c.id} value={c.name}>
+              {c.name}
+            </option>
+          ))}
+        </select>
+      </div>
+
+      {/* Transaction Form & Data */}
+      <AddTransaction onAdd={afterWrite} />
+      <Transactions
+        selectedCategory={selectedCategory}
+        transactions={filteredTransactions}
+        fetchTransactions={afterWrite}
+      />
+      <Charts selectedCategory={selectedCategory} totals={expenseTotals} />
+    </div>
+  );
+}
@@ -1,4 +1,4 @@
-export const checkBudgetLimit = (transactions, limit) => {
-  const total = transactions.reduce((sum, t) => sum + t.amount, 0);
+// total comes pre-aggregated from /api/summary
+export const checkBudgetLimit = (total, limit) => {
   return total > limit ? `⚠️ Budget exceeded by ₹${total - limit}` : null;
 };
\ No newline at end of file
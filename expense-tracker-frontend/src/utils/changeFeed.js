@@ -0,0 +1,75 @@
+import API from '../api';
+
+// Subscribes to /transactions/changes (Server-Sent Events). fetch is used rather than EventSource
+// so the JWT goes in the Authorization header instead of the URL. Reconnects with Last-Event-ID,
+// so the server replays what was missed. Returns a function that closes the stream.
+export const subscribeToChanges = (handlers) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+  let retryDelay = 1000;
+
+  const dispatch = (name, data) => {
+    const handler = handlers[name];
+    if (!handler) return;
+    try {
+      handler(data ? JSON.parse(data) : null);
+    } catch (err) {
+      console.error(`Bad ${name} event:`, err);
+    }
+  };
+
+  const connect = async () => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user?.token) return;
+
+    const headers = { Authorization: `Bearer ${user.token}`, Accept: 'text/event-stream' };
+    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+    const res = await fetch(`${API.defaults.baseURL}transactions/changes`, {
+      headers,
+      signal: controller.signal,
+    });
+    if (!res.ok || !res.body) throw new Error(`Change feed failed: ${res.status}`);
+    handlers.open?.();
+    retryDelay = 1000;
+
+    const reader = res.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) break;
+      buffer += decoder.decode(value, { stream: true });
+      // Events are separated by a blank line; keep the trailing partial one
+      const events = buffer.split('\n\n');
+      buffer = events.pop();
+      events.forEach((raw) => {
+        let name = 'message';
+        const data = [];
+        raw.split('\n').forEach((line) => {
+          if (line.startsWith('id:')) lastEventId = line.slice(3).trim();
+          else if (line.startsWith('event:')) name = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5));
+        });
+        dispatch(name, data.join('\n'));
+      });
+    }
+  };
+
+  const run = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        await connect();
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.warn('Change feed disconnected:', err.message);
+      }
+      handlers.close?.();
+      await new Promise((resolve) => setTimeout(resolve, retryDelay));
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  run();
+  return () => controller.abort();
+};
@@ -0,0 +1,112 @@
+package com.example.expense.benchmark;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expense.dto.AnalyticsSeries;
+import com.example.expense.dto.CategoryMonthChanges;
+import com.example.expense.dto.RollingPoint;
+import com.example.expense.dto.TrendPoint;
+import com.example.expense.services.AnalyticsService;
+
+/**
+ * Analytics queries over the in-memory columns against the equivalent GROUP BY in the embedded
+ * MySQL-mode H2 database, over the three seeded years. The seeded rows are all in the base
+ * currency, so the SQL needs no conversion. coldLoad drops the user's columns first and so
+ * includes loading them; the other columnar benchmarks measure the loaded state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class AnalyticsBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2022, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+    private static final String SPENDING = " from transaction t left join category c on c.id = t.category_id"
+            + " where t.user_id = ? and t.date between ? and ? and (c.type is null or c.type <> 'INCOME')";
+
+    @Param({"10000", "100000", "1000000"})
+    public int transactions;
+
+    private ConfigurableApplicationContext ctx;
+    private AnalyticsService analyticsService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start();
+        userId = BenchmarkContext.seed(ctx, transactions);
+        analyticsService = ctx.getBean(AnalyticsService.class);
+        jdbcTemplate = ctx.getBean(JdbcTemplate.class);
+        // Otherwise H2 hands back the previous result of an identical query on unchanged data
+        jdbcTemplate.execute("SET OPTIMIZE_REUSE_RESULTS FALSE");
+        columnarMonthly();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public AnalyticsSeries<TrendPoint> columnarMonthly() {
+        return analyticsService.trend(userId, FROM, TO, AnalyticsService.Interval.MONTH, null, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlMonthly() {
+        return jdbcTemplate.queryForList("select year(t.date), month(t.date), sum(t.amount), count(*)" + SPENDING
+                + " group by year(t.date), month(t.date) order by 1, 2", userId, Date.valueOf(FROM), Date.valueOf(TO));
+    }
+
+    @Benchmark
+    public List<CategoryMonthChanges> columnarMonthlyByCategory() {
+        return analyticsService.monthOverMonth(userId, YearMonth.from(FROM), YearMonth.from(TO), null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlMonthlyByCategory() {
+        return jdbcTemplate.queryForList("select t.category_id, year(t.date), month(t.date), sum(t.amount), count(*)"
+                + SPENDING + " group by t.category_id, year(t.date), month(t.date) order by 1, 2, 3",
+                userId, Date.valueOf(FROM), Date.valueOf(TO));
+    }
+
+    // The SQL side returns the daily totals only; the rolling window would still be computed in Java
+    @Benchmark
+    public AnalyticsSeries<RollingPoint> columnarRolling30() {
+        return analyticsService.rolling(userId, FROM.plusDays(29), TO, 30, null, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlDaily() {
+        return jdbcTemplate.queryForList("select t.date, sum(t.amount)" + SPENDING + " group by t.date order by 1",
+                userId, Date.valueOf(FROM), Date.valueOf(TO));
+    }
+
+    @Benchmark
+    public AnalyticsSeries<TrendPoint> coldLoad() {
+        analyticsService.invalidateAfterCommit(userId);
+        return columnarMonthly();
+    }
+}
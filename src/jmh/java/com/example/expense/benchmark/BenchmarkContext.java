@@ -0,0 +1,77 @@
+package com.example.expense.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expense.ExpenseTrackerApplication;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.User;
+import com.example.expense.repository.CategoryRepository;
+import com.example.expense.repository.UserRepository;
+import com.example.expense.services.SummaryService;
+
+/**
+ * Boots the application on a random port against a private in-memory H2 database
+ * (MySQL mode, from the test resources) and seeds benchmark data. The servlet context is
+ * needed because the security configuration relies on Spring MVC request matchers.
+ */
+final class BenchmarkContext {
+
+    static final String EMAIL = "bench@example.com";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return builder().run();
+    }
+
+    static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN");
+    }
+
+    /**
+     * Creates the benchmark user with the given number of transactions spread over
+     * three years and five categories, then builds their summaries. Returns the user id.
+     */
+    static Long seed(ConfigurableApplicationContext ctx, int transactions) {
+        UserRepository users = ctx.getBean(UserRepository.class);
+        CategoryRepository categories = ctx.getBean(CategoryRepository.class);
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+
+        Long userId = users.save(new User(null, EMAIL, "bench", "hash", null, null)).getId();
+        List<Long> categoryIds = new ArrayList<>();
+        String[] names = {"Food", "Travel", "Health", "Rent", "Salary"};
+        for (String name : names) {
+            categoryIds.add(categories.save(new Category(null, name, "Salary".equals(name) ? "INCOME" : "EXPENSE")).getId());
+        }
+
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        List<Object[]> rows = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            rows.add(new Object[] {
+                    BigDecimal.valueOf(10 + (i % 500)), Date.valueOf(start.plusDays(i % 1095)), "Transaction " + i,
+                    userId, categoryIds.get(i % categoryIds.size())});
+        }
+        jdbc.batchUpdate("insert into transaction (amount, date, title, user_id, category_id) values (?, ?, ?, ?, ?)", rows);
+
+        ctx.getBean(SummaryService.class).rebuild(userId);
+        return userId;
+    }
+}
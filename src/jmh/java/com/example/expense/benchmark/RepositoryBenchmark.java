@@ -0,0 +1,82 @@
+package com.example.expense.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.expense.dto.MonthlyBucketView;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.dto.TransactionPage;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.repository.TransactionRepository;
+import com.example.expense.services.SummaryService;
+import com.example.expense.services.TransactionService;
+
+/**
+ * List and aggregate queries against an embedded MySQL-mode H2 database.
+ * summaryTotals reads pre-aggregated buckets; rawAggregate is the equivalent group-by over all rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class RepositoryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int transactions;
+
+    private ConfigurableApplicationContext ctx;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private SummaryService summaryService;
+    private Long userId;
+    private String secondPageCursor;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start();
+        userId = BenchmarkContext.seed(ctx, transactions);
+        transactionService = ctx.getBean(TransactionService.class);
+        transactionRepository = ctx.getBean(TransactionRepository.class);
+        summaryService = ctx.getBean(SummaryService.class);
+        secondPageCursor = firstPage().getNextCursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public TransactionPage<TransactionView> firstPage() {
+        return transactionService.listTransactions(userId, null, null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public TransactionPage<TransactionView> secondPage() {
+        return transactionService.listTransactions(userId, null, null, null, null, secondPageCursor, 50);
+    }
+
+    @Benchmark
+    public SummaryTotals summaryTotals() {
+        return summaryService.getTotals(userId, null, null);
+    }
+
+    @Benchmark
+    public List<MonthlyBucketView> rawAggregate() {
+        return transactionRepository.aggregateMonthly(userId);
+    }
+}
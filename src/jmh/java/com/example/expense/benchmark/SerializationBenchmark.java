@@ -0,0 +1,69 @@
+package com.example.expense.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson cost of a transaction list response, as entities and as the TransactionView DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Transaction> entities;
+    private List<TransactionView> views;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC applies to its ObjectMapper
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        User user = new User(1L, "user@example.com", "user", "hash", null, null);
+        Category category = new Category(1L, "Food", "EXPENSE");
+        entities = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction t = new Transaction((long) i, BigDecimal.valueOf(10 + i), LocalDate.of(2024, 1, 1).plusDays(i),
+                    "Transaction " + i, user, category, "INR", null, 0);
+            entities.add(t);
+            views.add(TransactionView.from(t));
+        }
+    }
+
+    @Benchmark
+    public byte[] entityList() throws Exception {
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] viewList() throws Exception {
+        return mapper.writeValueAsBytes(views);
+    }
+}
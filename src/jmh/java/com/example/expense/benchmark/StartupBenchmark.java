@@ -0,0 +1,180 @@
+package com.example.expense.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Cold-start time of the packaged application, each run in a fresh JVM against an in-memory H2
+ * database. The jar is first extracted (java -Djarmode=tools ... extract), the layout CDS needs.
+ * Variants: eager bean creation, lazy, lazy with a dynamic CDS archive from a training run and,
+ * with startup.aot=true (jar built with -Paot), AOT mode on top of that.
+ * Reports the "process running for" time Spring Boot logs at startup, and resident memory where
+ * /proc is available. Settings: startup.jar, startup.runs, startup.aot, startup.work-dir, startup.result-file.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED =
+            Pattern.compile("Started \\S+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+    private static final Pattern RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar"));
+        int runs = Integer.getInteger("startup.runs", 5);
+        boolean aot = Boolean.getBoolean("startup.aot");
+        Path workDir = Path.of(System.getProperty("startup.work-dir", "target/startup"));
+        String resultFile = System.getProperty("startup.result-file", "target/startup-result.json");
+
+        Path extracted = workDir.resolve("app");
+        exec(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                "--destination", extracted.toString()));
+        // H2 is not packaged; the application jar's manifest puts lib/ on the class path
+        String classpath = extracted.resolve(jar.getFileName()) + File.pathSeparator
+                + Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("eager", List.of("-Dspring.main.lazy-initialization=false"));
+        variants.put("lazy", List.of());
+        variants.put("lazy+cds", cds(classpath, workDir.resolve("lazy.jsa"), List.of()));
+        if (aot) {
+            variants.put("lazy+cds+aot", cds(classpath, workDir.resolve("aot.jsa"),
+                    List.of("-Dspring.aot.enabled=true")));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        variants.forEach((name, jvmArgs) -> {
+            double[] seconds = new double[runs];
+            long[] rssKb = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] result = startOnce(classpath, jvmArgs);
+                seconds[i] = result[0] / 1000.0;
+                rssKb[i] = result[1];
+            }
+            Arrays.sort(seconds);
+            Arrays.sort(rssKb);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("runs", runs);
+            summary.put("medianSeconds", seconds[runs / 2]);
+            summary.put("minSeconds", seconds[0]);
+            summary.put("maxSeconds", seconds[runs - 1]);
+            summary.put("medianRssMiB", rssKb[runs / 2] / 1024);
+            report.put(name, summary);
+            System.out.printf("%-14s median %.2fs  min %.2fs  rss %d MiB%n", name, seconds[runs / 2], seconds[0],
+                    rssKb[runs / 2] / 1024);
+        });
+        report.put("javaVersion", Runtime.version().feature());
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(mapper.writeValueAsString(report));
+        mapper.writeValue(new File(resultFile), report);
+    }
+
+    // Training run: refresh the context, then exit, recording the loaded classes in the archive
+    private static List<String> cds(String classpath, Path archive, List<String> jvmArgs) {
+        List<String> training = new ArrayList<>(jvmArgs);
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-Dspring.context.exit=onRefresh");
+        try {
+            Files.deleteIfExists(archive);
+            exec(command(classpath, training));
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException("CDS training run failed", e);
+        }
+        List<String> using = new ArrayList<>(jvmArgs);
+        using.add("-XX:SharedArchiveFile=" + archive);
+        return using;
+    }
+
+    /**
+     * Starts the application and stops it once it logs that it has started.
+     * Returns {milliseconds since JVM start, resident set size in kB or 0}.
+     */
+    private static long[] startOnce(String classpath, List<String> jvmArgs) {
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command(classpath, jvmArgs)).redirectErrorStream(true).start();
+            List<String> output = new ArrayList<>();
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    output.add(line);
+                    Matcher m = STARTED.matcher(line);
+                    if (m.find()) {
+                        return new long[] {(long) (Double.parseDouble(m.group(2)) * 1000), rssKb(process.pid())};
+                    }
+                }
+            }
+            throw new IllegalStateException("Application exited before starting:\n"
+                    + String.join("\n", output.subList(Math.max(0, output.size() - 30), output.size())));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (process != null) {
+                process.destroy();
+                try {
+                    process.waitFor(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static List<String> command(String classpath, List<String> jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, "com.example.expense.ExpenseTrackerApplication",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.expense.ExpenseTrackerApplication=INFO"));
+        return command;
+    }
+
+    private static void exec(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Failed (exit " + process.exitValue() + "): " + String.join(" ", command));
+        }
+    }
+
+    private static long rssKb(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return 0;
+        }
+        try {
+            Matcher m = RSS.matcher(Files.readString(status));
+            return m.find() ? Long.parseLong(m.group(1)) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
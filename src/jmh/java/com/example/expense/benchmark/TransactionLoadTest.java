@@ -0,0 +1,192 @@
+package com.example.expense.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.expense.dto.TransactionView;
+import com.example.expense.repository.TransactionRepository;
+import com.example.expense.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Closed-loop load test of the TransactionController endpoints against H2 with an injected
+ * per-statement delay, reporting throughput and latency percentiles per endpoint.
+ * Compare -Dload.virtual-threads=false and true (the latter needs a JDK 21+ runtime).
+ * Settings: load.concurrency, load.db-delay-ms, load.duration-seconds, load.result-file.
+ */
+public final class TransactionLoadTest {
+
+    private static final String[] ENDPOINTS = {"list", "get", "create"};
+
+    private TransactionLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        long delayMillis = Long.getLong("load.db-delay-ms", 20);
+        int seconds = Integer.getInteger("load.duration-seconds", 20);
+        boolean virtualThreads = Boolean.getBoolean("load.virtual-threads");
+        String resultFile = System.getProperty("load.result-file", "target/load-test-result.json");
+
+        LatencyInjectingDataSource[] delayed = new LatencyInjectingDataSource[1];
+        ConfigurableApplicationContext ctx = BenchmarkContext.builder()
+                .properties("spring.threads.virtual.enabled=" + virtualThreads)
+                .initializers(c -> c.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        if (bean instanceof DataSource && delayed[0] == null) {
+                            delayed[0] = new LatencyInjectingDataSource((DataSource) bean);
+                            return delayed[0];
+                        }
+                        return bean;
+                    }
+                }))
+                .run();
+        try {
+            Long userId = BenchmarkContext.seed(ctx, 5_000);
+            long[] ids = ctx.getBean(TransactionRepository.class)
+                    .findPage(userId, null, null, null, null, null, null, PageRequest.of(0, 5_000)).stream()
+                    .mapToLong(TransactionView::getId).toArray();
+            String token = ctx.getBean(JwtUtil.class).generateToken(BenchmarkContext.EMAIL);
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/api/transactions";
+            delayed[0].setDelayMillis(delayMillis);
+
+            Map<String, Object> report = run(base, token, ids, concurrency, seconds);
+            report.put("concurrency", concurrency);
+            report.put("dbDelayMillis", delayMillis);
+            report.put("durationSeconds", seconds);
+            report.put("virtualThreadsRequested", virtualThreads);
+            report.put("javaVersion", Runtime.version().feature());
+
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            System.out.println(mapper.writeValueAsString(report));
+            mapper.writeValue(new File(resultFile), report);
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private static Map<String, Object> run(String base, String token, long[] ids, int concurrency, int seconds)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Recorder[] recorders = new Recorder[ENDPOINTS.length];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int endpoint = random.nextInt(10) < 6 ? 0 : random.nextInt(10) < 7 ? 1 : 2;
+                    HttpRequest request = request(base, token, ids, endpoint, random);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    recorders[endpoint].record(System.nanoTime() - start, ok);
+                }
+            }, "load-" + w);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            report.put(ENDPOINTS[i], recorders[i].summary(seconds));
+        }
+        return report;
+    }
+
+    private static HttpRequest request(String base, String token, long[] ids, int endpoint, ThreadLocalRandom random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30));
+        switch (endpoint) {
+            case 0:
+                return builder.uri(URI.create(base + "?limit=50")).GET().build();
+            case 1:
+                return builder.uri(URI.create(base + "/" + ids[random.nextInt(ids.length)])).GET().build();
+            default:
+                String body = "{\"title\":\"Load\",\"amount\":12.5,\"date\":\"2024-06-01\"}";
+                return builder.uri(URI.create(base)).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+
+    private static final class Recorder {
+        private final List<long[]> chunks = new ArrayList<>();
+        private long[] current = new long[4096];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+            if (size == current.length) {
+                chunks.add(current);
+                current = new long[4096];
+                size = 0;
+            }
+            current[size++] = nanos;
+        }
+
+        synchronized Map<String, Object> summary(int seconds) {
+            long[] all = new long[chunks.size() * 4096 + size];
+            int pos = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, pos, chunk.length);
+                pos += chunk.length;
+            }
+            System.arraycopy(current, 0, all, pos, size);
+            Arrays.sort(all);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", all.length);
+            summary.put("errors", errors.get());
+            summary.put("throughputPerSecond", all.length / (double) seconds);
+            summary.put("p50Millis", percentile(all, 0.50));
+            summary.put("p99Millis", percentile(all, 0.99));
+            summary.put("maxMillis", all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -23,6 +23,8 @@ public class CorsConfig {
                         )
                         .allowedMethods("*")
                         .allowedHeaders("*")
+                        // Echoed back by the frontend to read its own writes from the primary
+                        .exposedHeaders("Last-Write")
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,25 @@
+package com.example.expense.config;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With spring.main.lazy-initialization, beans are created on first use instead of at startup.
+ * The exceptions here stay eager: migrating and validating the schema, and bootstrapping
+ * Hibernate, are the slow parts that must fail startup rather than the first request.
+ * Beans with @Scheduled methods are kept eager by Spring Boot itself.
+ */
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistence() {
+        return (beanName, definition, type) -> FlywayMigrationInitializer.class.isAssignableFrom(type)
+                || EntityManagerFactory.class.isAssignableFrom(type)
+                || "entityManagerFactory".equals(beanName);
+    }
+}
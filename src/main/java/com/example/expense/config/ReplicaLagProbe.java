@@ -0,0 +1,31 @@
+package com.example.expense.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Re-measures replica lag on a fixed delay. Replicas start out of rotation, so the first
+ * probe runs as soon as the application is ready.
+ */
+@Component
+@ConditionalOnProperty("app.datasource.replica.enabled")
+@RequiredArgsConstructor
+public class ReplicaLagProbe {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void probeOnStartup() {
+        routingDataSource.probeReplicas();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.probe-ms:5000}")
+    public void probe() {
+        routingDataSource.probeReplicas();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.expense.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.expense.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * The route is decided when the transaction first touches the database, so this must sit
+ * behind a LazyConnectionDataSourceProxy (see ReplicaRoutingConfig). A user whose write
+ * committed less than the stickiness window ago reads from the primary, so they see their own
+ * change even if the replicas have not applied it yet. The response to a write carries the
+ * commit time in a {@code Last-Write} header; a client that sends it back on its next requests
+ * is routed that way by whichever instance serves them. Clients that do not echo it are only
+ * recognized by the instance that took the write, so behind a load balancer they need session
+ * affinity to read their own writes. Replicas whose lag exceeds the limit, or
+ * that cannot be reached, are skipped until the next probe finds them caught up; with none
+ * healthy, reads go to the primary. Routes are counted as {@code db.routing{route=...}}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String LAST_WRITE_HEADER = "Last-Write";
+
+    private final List<HikariDataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    // Replaced wholesale by each probe
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Cache<Long, Boolean> recentWriters;
+    private final long stickyMillis;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, String lagQuery,
+                                    long maxLagSeconds, long stickyMillis, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthy = new boolean[replicas.size()];
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.stickyMillis = stickyMillis;
+        this.meterRegistry = meterRegistry;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(userId);
+            return route(PRIMARY, "primary");
+        }
+        if ((userId != null && recentWriters.getIfPresent(userId) != null) || clientWroteRecently()) {
+            return route(PRIMARY, "sticky");
+        }
+        boolean[] usable = healthy;
+        int count = usable.length;
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int candidate = (start + i) % count;
+            if (usable[candidate]) {
+                return route(candidate, "replica");
+            }
+        }
+        return route(PRIMARY, "fallback");
+    }
+
+    private Object route(Object key, String route) {
+        meterRegistry.counter("db.routing", "route", route).increment();
+        return key;
+    }
+
+    // Only committed writes start the window; a rolled-back write changed nothing to read back
+    private void rememberWriteOnCommit(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+                HttpServletResponse response = currentResponse();
+                if (response != null && !response.isCommitted()) {
+                    response.setHeader(LAST_WRITE_HEADER, Long.toString(System.currentTimeMillis()));
+                }
+            }
+        });
+    }
+
+    // The Last-Write time the client echoed, if within the window. Only moves its own reads to the primary
+    private boolean clientWroteRecently() {
+        HttpServletRequest request = currentRequest();
+        String header = request == null ? null : request.getHeader(LAST_WRITE_HEADER);
+        if (header == null) {
+            return false;
+        }
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(header.trim());
+            return age >= 0 && age < stickyMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getResponse() : null;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : null;
+    }
+
+    /**
+     * Measures each replica's lag and marks it usable when within the limit.
+     */
+    public void probeReplicas() {
+        boolean[] previous = healthy;
+        boolean[] current = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            Long lag = null;
+            String problem = null;
+            try {
+                lag = lagSeconds(replica);
+                if (lag == null) {
+                    problem = "replication is not running";
+                }
+            } catch (SQLException | RuntimeException e) {
+                problem = e.getMessage();
+            }
+            boolean usable = lag != null && lag <= maxLagSeconds;
+            if (usable != previous[i]) {
+                if (usable) {
+                    log.info("Replica {} is in use again (lag {}s)", replica.getPoolName(), lag);
+                } else {
+                    log.warn("Replica {} taken out of rotation: {}", replica.getPoolName(),
+                            problem != null ? problem : "lag " + lag + "s exceeds " + maxLagSeconds + "s");
+                }
+            }
+            current[i] = usable;
+        }
+        healthy = current;
+    }
+
+    boolean isHealthy(int replica) {
+        return healthy[replica];
+    }
+
+    /**
+     * Runs the configured lag query (first column of the first row, in seconds) or, by default,
+     * MySQL's SHOW REPLICA STATUS. Null means replication is stopped or not configured.
+     */
+    private Long lagSeconds(DataSource replica) throws SQLException {
+        try (Connection c = replica.getConnection(); Statement st = c.createStatement()) {
+            if (lagQuery != null && !lagQuery.isBlank()) {
+                try (ResultSet rs = st.executeQuery(lagQuery)) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    long lag = rs.getLong(1);
+                    return rs.wasNull() ? null : lag;
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return null;
+                }
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int col = 1; col <= meta.getColumnCount(); col++) {
+                    String name = meta.getColumnLabel(col);
+                    if (name.equalsIgnoreCase("Seconds_Behind_Source") || name.equalsIgnoreCase("Seconds_Behind_Master")) {
+                        long lag = rs.getLong(col);
+                        return rs.wasNull() ? null : lag;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
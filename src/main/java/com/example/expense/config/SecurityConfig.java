@@ -1,53 +1,88 @@
 package com.example.expense.config;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.example.expense.security.BCryptCalibration;
 import com.example.expense.security.CustomUserDetailsService;
 import com.example.expense.security.JwtFilter;
+import com.example.expense.security.RateLimitFilter;
+import com.example.expense.security.RateLimiter;
 
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
-public class SecurityConfig extends WebSecurityConfigurerAdapter {
+public class SecurityConfig {
 
 	private final CustomUserDetailsService userDetailsService;
 	private final JwtFilter jwtFilter;
+	private final RateLimiter rateLimiter;
+
+	// 0 = pick the cost that takes about target-millis on this machine
+	@Value("${app.security.bcrypt.strength:0}")
+	private int bcryptStrength;
 
+	@Value("${app.security.bcrypt.target-millis:100}")
+	private long bcryptTargetMillis;
+
+	/**
+	 * Stored hashes with a lower cost than this encoder are upgraded on the next successful
+	 * login (see CustomUserDetailsService#updatePassword).
+	 */
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		int strength = bcryptStrength > 0 ? bcryptStrength : BCryptCalibration.strengthFor(bcryptTargetMillis);
+		return new BCryptPasswordEncoder(strength);
 	}
 
-	@Override
-	protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-		auth.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder());
+	@Bean
+	public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(userDetailsService);
+		provider.setUserDetailsPasswordService(userDetailsService);
+		provider.setPasswordEncoder(passwordEncoder);
+		return new ProviderManager(provider);
 	}
 
-	@Override
-	protected void configure(HttpSecurity http) throws Exception {
-		http.cors().and().csrf().disable().authorizeRequests()
-				.antMatchers("/api/auth/**", "/api/users/register", "/api/categories/**", "/api/transactions/**")
-				.permitAll().anyRequest().authenticated().and().sessionManagement()
-				.sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+	@Bean
+	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+		http.cors(Customizer.withDefaults()).csrf(AbstractHttpConfigurer::disable)
+				.authorizeHttpRequests(auth -> auth
+						// Completion of async responses (the change feed) and error pages were authorized on the original request
+						.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+						.requestMatchers("/api/auth/**", "/api/users/register").permitAll()
+						// Probes and the Prometheus scraper carry no JWT; the other actuator endpoints stay protected
+						.requestMatchers("/actuator/health/**", "/actuator/info", "/actuator/prometheus").permitAll()
+						// The FX rate table is shared by every user's summaries
+						.requestMatchers(HttpMethod.POST, "/api/currencies/rates").hasRole("ADMIN")
+						.anyRequest().authenticated())
+				// Missing or invalid token: 401, so clients know to log in again
+				.exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
 		http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
-	}
-
-	@Bean
-	@Override
-	public AuthenticationManager authenticationManagerBean() throws Exception {
-		return super.authenticationManagerBean();
+		// After authentication, so limits apply per user rather than per IP where possible
+		http.addFilterAfter(new RateLimitFilter(rateLimiter), JwtFilter.class);
+		return http.build();
 	}
 }
\ No newline at end of file
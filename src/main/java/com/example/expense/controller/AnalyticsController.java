@@ -0,0 +1,94 @@
+package com.example.expense.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.AnalyticsSeries;
+import com.example.expense.dto.CategoryForecast;
+import com.example.expense.dto.CategoryMonthChanges;
+import com.example.expense.dto.RollingPoint;
+import com.example.expense.dto.TrendPoint;
+import com.example.expense.services.AnalyticsService;
+import com.example.expense.services.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Trend and forecast queries for the authenticated user, in their base currency.
+ * type is EXPENSE (the default) or INCOME; dates are ISO yyyy-MM-dd, months yyyy-MM.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final UserService userService;
+
+    // Totals per day, week or month; categoryId=0 selects uncategorized transactions
+    @GetMapping("/trend")
+    public AnalyticsSeries<TrendPoint> trend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String interval,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String type) {
+        AnalyticsService.Interval parsed;
+        try {
+            parsed = AnalyticsService.Interval.valueOf(interval.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "interval must be day, week or month");
+        }
+        return analyticsService.trend(userService.getCurrentUserId(), from, to, parsed, categoryId, type);
+    }
+
+    // Daily totals with the average per day over the trailing window
+    @GetMapping("/rolling")
+    public AnalyticsSeries<RollingPoint> rolling(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") int window,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String type) {
+        return analyticsService.rolling(userService.getCurrentUserId(), from, to, window, categoryId, type);
+    }
+
+    // Per category, each month's total and its change from the month before
+    @GetMapping("/month-over-month")
+    public List<CategoryMonthChanges> monthOverMonth(@RequestParam(required = false) String from,
+                                                     @RequestParam(required = false) String to,
+                                                     @RequestParam(required = false) String type) {
+        return analyticsService.monthOverMonth(userService.getCurrentUserId(), parseMonth(from), parseMonth(to), type);
+    }
+
+    // Per category, the linear trend of the last history months projected months ahead
+    @GetMapping("/forecast")
+    public List<CategoryForecast> forecast(@RequestParam(defaultValue = "12") int history,
+                                           @RequestParam(defaultValue = "3") int months,
+                                           @RequestParam(required = false) String type) {
+        return analyticsService.forecast(userService.getCurrentUserId(), history, months, type);
+    }
+
+    private static YearMonth parseMonth(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Month must be formatted as yyyy-MM");
+        }
+    }
+}
@@ -1,17 +1,18 @@
 package com.example.expense.controller;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,19 +24,22 @@ import com.example.expense.dto.AuthResponse;
 import com.example.expense.dto.RegisterRequest;
 import com.example.expense.entity.User;
 import com.example.expense.repository.UserRepository;
-import com.example.expense.security.CustomUserDetailsService;
 import com.example.expense.security.JwtUtil;
+import com.example.expense.security.PasswordHashingService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Login and registration. BCrypt work runs on PasswordHashingService's bounded pool and the
+ * servlet thread is released while it runs; a saturated pool is answered with 429.
+ */
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authManager;
-
-    @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private PasswordHashingService passwordHashing;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -44,7 +48,7 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private MeterRegistry meterRegistry;
 
 
     // ============ LOGIN ============
@@ -54,28 +58,31 @@ public class AuthController {
      * Returns a JWT token if credentials are valid, or error if not.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody AuthRequest authRequest) {
         try {
-            // Attempt authentication
-            authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    authRequest.getEmail(), 
-                    authRequest.getPassword()
-                )
-            );
-        } catch (AuthenticationException e) {
-            // Authentication failed
-            return ResponseEntity
-                .status(HttpStatus.UNAUTHORIZED)
-                .body(Collections.singletonMap("error", "Invalid email or password"));
+            // Attempt authentication; the resulting principal is the loaded user, so no second lookup
+            return passwordHashing.authenticate(authRequest.getEmail(), authRequest.getPassword())
+                .<ResponseEntity<?>>thenApply(authentication -> {
+                    String jwt = jwtUtil.generateToken(((UserDetails) authentication.getPrincipal()).getUsername());
+                    countAttempt("login", "success");
+                    // Return token in response body
+                    return ResponseEntity.ok(new AuthResponse(jwt));
+                })
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (!(cause instanceof AuthenticationException)) {
+                        throw new CompletionException(cause);
+                    }
+                    // Authentication failed
+                    countAttempt("login", "failure");
+                    return ResponseEntity
+                        .status(HttpStatus.UNAUTHORIZED)
+                        .body(Collections.singletonMap("error", "Invalid email or password"));
+                });
+        } catch (RejectedExecutionException e) {
+            countAttempt("login", "throttled");
+            return CompletableFuture.completedFuture(tooManyRequests());
         }
-
-        // Generate JWT token after successful authentication
-        UserDetails userDetails = userDetailsService.loadUserByUsername(authRequest.getEmail());
-        String jwt = jwtUtil.generateToken(userDetails.getUsername());
-
-        // Return token in response body
-        return ResponseEntity.ok(new AuthResponse(jwt));
     }
 
     // ============ REGISTER ============
@@ -85,24 +92,45 @@ public class AuthController {
      * Returns a success message or error.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        // Check for duplicate email
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        // Check for duplicate email before spending a hash on it
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            return ResponseEntity
+            countAttempt("register", "conflict");
+            return CompletableFuture.completedFuture(ResponseEntity
                 .status(HttpStatus.CONFLICT)
-                .body(Collections.singletonMap("error", "Email already registered"));
+                .body(Collections.singletonMap("error", "Email already registered")));
         }
 
-        // Create new user and hash password
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        try {
+            return passwordHashing.encode(request.getPassword()).thenApply(hash -> {
+                // Create new user with the hashed password and save it
+                User user = new User();
+                user.setEmail(request.getEmail());
+                user.setUsername(request.getUsername());
+                user.setPassword(hash);
+                userRepository.save(user);
+                countAttempt("register", "success");
+
+                // Return success response
+                return ResponseEntity.ok(Collections.singletonMap("message", "User registered successfully"));
+            });
+        } catch (RejectedExecutionException e) {
+            countAttempt("register", "throttled");
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+    }
 
-        // Save user in database
-        userRepository.save(user);
+    private static ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Collections.singletonMap("error", "Too many authentication requests, please retry shortly"));
+    }
 
-        // Return success response
-        return ResponseEntity.ok(Collections.singletonMap("message", "User registered successfully"));
+    /**
+     * Counts auth outcomes as auth.attempts{action, outcome}; latency comes from http.server.requests.
+     */
+    private void countAttempt(String action, String outcome) {
+        meterRegistry.counter("auth.attempts", "action", action, "outcome", outcome).increment();
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.expense.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.expense.dto.BudgetAlert;
+import com.example.expense.dto.BudgetStatus;
+import com.example.expense.entity.Budget;
+import com.example.expense.services.BudgetService;
+import com.example.expense.services.InMemoryBudgetAlertSink;
+import com.example.expense.services.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Budgets of the authenticated user with their current-period spend.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+    private final InMemoryBudgetAlertSink alertSink;
+    private final UserService userService;
+
+    @GetMapping
+    public List<BudgetStatus> getBudgets() {
+        return budgetService.getStatuses(userService.getCurrentUserId(), LocalDate.now());
+    }
+
+    // Body: {"categoryId": 3 (omit for all expenses), "period": "MONTHLY" | "YEARLY", "limit": 500}
+    @PostMapping
+    public ResponseEntity<BudgetStatus> createBudget(@RequestBody Budget budget) {
+        BudgetStatus created = budgetService.create(userService.getCurrentUserId(), budget, LocalDate.now());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @PutMapping("/{id}")
+    public BudgetStatus updateBudget(@PathVariable Long id, @RequestBody Budget budget) {
+        return budgetService.updateLimit(userService.getCurrentUserId(), id, budget.getLimit(), LocalDate.now());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        budgetService.delete(userService.getCurrentUserId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Alerts raised since the last call, oldest first
+    @GetMapping("/alerts")
+    public List<BudgetAlert> collectAlerts() {
+        return alertSink.drain(userService.getCurrentUserId());
+    }
+}
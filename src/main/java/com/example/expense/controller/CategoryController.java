@@ -3,6 +3,7 @@ package com.example.expense.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,9 +13,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.expense.entity.Category;
-import com.example.expense.repository.CategoryRepository;
+import com.example.expense.services.CategoryService;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -22,26 +24,32 @@ import com.example.expense.repository.CategoryRepository;
 public class CategoryController {
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
 
-    // GET all categories
+    // GET all categories (304 when the client's If-None-Match still matches)
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest request) {
+        CategoryService.Snapshot snapshot = categoryService.getSnapshot();
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.getAll());
     }
 
     // POST new category
     @PostMapping
     public ResponseEntity<Category> createCategory(@RequestBody Category category) {
-        Category savedCategory = categoryRepository.save(category);
+        Category savedCategory = categoryService.create(category);
         return ResponseEntity.ok(savedCategory);
     }
 
     // DELETE category by ID
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
-        categoryRepository.deleteById(id);
+        categoryService.deleteById(id);
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,62 @@
+package com.example.expense.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.expense.dto.ImportResult;
+import com.example.expense.services.CurrencyService;
+import com.example.expense.services.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Known currencies, the FX rate table and the authenticated user's base currency.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/currencies")
+@RequiredArgsConstructor
+public class CurrencyController {
+
+    private final CurrencyService currencyService;
+    private final UserService userService;
+
+    // Currencies amounts can be entered in
+    @GetMapping
+    public Set<String> getCurrencies() {
+        return currencyService.getCurrencies();
+    }
+
+    /**
+     * Upserts rates from a CSV body with the header date,currency,rate
+     * (units of the currency per one unit of app.fx.pivot, effective from that date).
+     * Admins only (app.security.admin-emails): the table is shared by all users.
+     */
+    @PostMapping(value = "/rates", consumes = "text/csv")
+    public ImportResult importRates(InputStream body) throws IOException {
+        return currencyService.importRates(body);
+    }
+
+    @GetMapping("/base")
+    public Map<String, String> getBaseCurrency() {
+        return Map.of("currency", currencyService.baseCurrency(userService.getCurrentUserId()));
+    }
+
+    // Body: {"currency": "EUR"}
+    @PutMapping("/base")
+    public Map<String, String> setBaseCurrency(@RequestBody Map<String, String> body) {
+        Long userId = userService.getCurrentUserId();
+        userService.changeBaseCurrency(userId, body.get("currency"));
+        return Map.of("currency", currencyService.baseCurrency(userId));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expense.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.expense.entity.RecurringRule;
+import com.example.expense.services.RecurringTransactionService;
+import com.example.expense.services.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Recurring transactions (salary, rent, ...) of the authenticated user.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/recurring")
+@RequiredArgsConstructor
+public class RecurringRuleController {
+
+    private final RecurringTransactionService recurringService;
+    private final UserService userService;
+
+    @GetMapping
+    public List<RecurringRule> getRules() {
+        return recurringService.getRules(userService.getCurrentUserId());
+    }
+
+    // Body: {"title": "Rent", "amount": 900, "categoryId": 2, "frequency": "MONTHLY",
+    //        "interval": 1, "startDate": "2024-01-01", "endDate": null}
+    @PostMapping
+    public ResponseEntity<RecurringRule> createRule(@RequestBody RecurringRule rule) {
+        Long userId = userService.getCurrentUserId();
+        RecurringRule created = recurringService.create(userId, rule);
+        // Post what is already due (including a backdated start) without waiting for the job, up to a cap
+        recurringService.materialize(created.getId(), LocalDate.now());
+        return ResponseEntity.status(HttpStatus.CREATED).body(recurringService.getRule(userId, created.getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        recurringService.delete(userService.getCurrentUserId(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.expense.controller;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.CategoryTotal;
+import com.example.expense.dto.MonthlyTotals;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.services.SummaryService;
+import com.example.expense.services.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Totals for the authenticated user, served from pre-aggregated monthly buckets.
+ * Month ranges are inclusive and written as yyyy-MM; omit them for all time.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/summary")
+@RequiredArgsConstructor
+public class SummaryController {
+
+    private final SummaryService summaryService;
+    private final UserService userService;
+
+    // Income, expense and balance over the range
+    @GetMapping
+    public SummaryTotals getTotals(@RequestParam(required = false) String from,
+                                   @RequestParam(required = false) String to) {
+        return summaryService.getTotals(currentUserId(), parseMonth(from), parseMonth(to));
+    }
+
+    // One row per month that has transactions
+    @GetMapping("/monthly")
+    public List<MonthlyTotals> getMonthly(@RequestParam(required = false) String from,
+                                          @RequestParam(required = false) String to) {
+        return summaryService.getMonthly(currentUserId(), parseMonth(from), parseMonth(to));
+    }
+
+    // Totals per category, optionally limited to INCOME or EXPENSE
+    @GetMapping("/categories")
+    public List<CategoryTotal> getByCategory(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @RequestParam(required = false) String type) {
+        return summaryService.getByCategory(currentUserId(), parseMonth(from), parseMonth(to), type);
+    }
+
+    // Reconciles the caller's aggregates with their raw transactions
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        int corrected = summaryService.rebuild(currentUserId());
+        return ResponseEntity.ok(Collections.singletonMap("corrected", corrected));
+    }
+
+    private Long currentUserId() {
+        return userService.getCurrentUserId();
+    }
+
+    private static YearMonth parseMonth(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Month must be formatted as yyyy-MM");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.expense.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.SyncPage;
+import com.example.expense.dto.SyncUpload;
+import com.example.expense.dto.SyncUploadResult;
+import com.example.expense.services.IdempotencyStore;
+import com.example.expense.services.SyncService;
+import com.example.expense.services.TransactionService;
+import com.example.expense.services.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Offline-first clients keep a local copy of the user's transactions and exchange only deltas:
+ * GET pulls what changed since the client's token, POST pushes the changes it made meanwhile.
+ */
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+    private final TransactionService transactionService;
+    private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Changed rows and deleted ids since the token returned by the previous call (omit it the first
+     * time). Keep calling with the returned version while hasMore is true.
+     */
+    @GetMapping
+    public SyncPage pull(@RequestParam(required = false) String since,
+                         @RequestParam(required = false) Integer limit) {
+        return syncService.pull(userService.getCurrentUserId(), since, limit);
+    }
+
+    /**
+     * Applies a batch of offline changes all-or-nothing. Send an Idempotency-Key so a retry after
+     * a lost response does not create the batch's new transactions twice.
+     */
+    @PostMapping
+    public SyncUploadResult push(@RequestBody SyncUpload upload,
+                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Long userId = userService.getCurrentUserId();
+        return idempotencyStore.execute(userId, idempotencyKey, fingerprint(upload), SyncUploadResult.class,
+                () -> transactionService.applySyncUpload(userId, userService.getCurrentUserReference(), upload));
+    }
+
+    // Serialized before any entity is attached, so only what the client sent counts
+    private String fingerprint(SyncUpload upload) {
+        try {
+            return objectMapper.writeValueAsString(upload);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable upload", e);
+        }
+    }
+}
@@ -1,22 +1,51 @@
 package com.example.expense.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.expense.dto.DataVersion;
+import com.example.expense.dto.ImportResult;
+import com.example.expense.dto.TransactionColumns;
+import com.example.expense.dto.TransactionPage;
+import com.example.expense.dto.TransactionView;
 import com.example.expense.entity.Transaction;
-import com.example.expense.repository.TransactionRepository;
+import com.example.expense.services.ChangeFeedService;
+import com.example.expense.services.DataVersionService;
+import com.example.expense.services.IdempotencyStore;
+import com.example.expense.services.TransactionExportService;
+import com.example.expense.services.TransactionImportService;
+import com.example.expense.services.TransactionSearchService;
 import com.example.expense.services.TransactionService;
+import com.example.expense.services.UserService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,40 +55,190 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionController {
 	
-	private final TransactionService transactionService;
+	private static final int MAX_SEARCH_RESULTS = 200;
 
-	 @Autowired
-	    private TransactionRepository transactionRepository;
+	private final TransactionService transactionService;
+	private final UserService userService;
+	private final TransactionImportService importService;
+	private final TransactionExportService exportService;
+	private final TransactionSearchService searchService;
+	private final IdempotencyStore idempotencyStore;
+	private final ChangeFeedService changeFeed;
+	private final DataVersionService dataVersionService;
 
+	    /**
+	     * Lists the authenticated user's transactions, newest first, one bounded page at a time.
+	     * Pass the returned nextCursor back as cursor to fetch the following page.
+	     * <p>
+	     * Responses carry an ETag and Last-Modified derived from the user's data version; a request
+	     * whose If-None-Match still matches gets 304 without the page query running. view=columnar
+	     * returns parallel arrays (TransactionColumns), and Accept: application/cbor a binary encoding.
+	     */
 	    @GetMapping
-	    public List<Transaction> getAllTransactions() {
-	        return transactionRepository.findAll();
+	    public ResponseEntity<?> getAllTransactions(
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+	            @RequestParam(required = false) Long categoryId,
+	            @RequestParam(required = false) String type,
+	            @RequestParam(required = false) String cursor,
+	            @RequestParam(required = false) Integer limit,
+	            @RequestParam(required = false) String view,
+	            WebRequest request) {
+	        Long userId = userService.getCurrentUserId();
+	        DataVersion seen = dataVersionService.current(userId);
+	        if (request.checkNotModified(entityTag(seen, request), seen.modifiedAt().toEpochMilli())) {
+	            return null;
+	        }
+	        TransactionPage<TransactionView> page =
+	                transactionService.listTransactions(userId, from, to, categoryId, type, cursor, limit);
+	        DataVersion served = page.getDataVersion();
+	        return ResponseEntity.ok()
+	                .eTag(entityTag(served, request))
+	                .lastModified(served.modifiedAt())
+	                .cacheControl(CacheControl.noCache().cachePrivate())
+	                .varyBy(HttpHeaders.ACCEPT)
+	                .body("columnar".equalsIgnoreCase(view) ? TransactionColumns.from(page) : page);
+	    }
+
+	    // Weak: the same rows may be encoded as JSON or CBOR. The query and Accept pick which rows and encoding
+	    private static String entityTag(DataVersion version, WebRequest request) {
+	        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+	        StringBuilder key = new StringBuilder();
+	        params.forEach((name, values) -> key.append(name).append('=').append(String.join(",", values)).append('&'));
+	        key.append(request.getHeader(HttpHeaders.ACCEPT));
+	        return "W/\"" + version.version() + "-" + Integer.toHexString(key.toString().hashCode()) + "\"";
+	    }
+
+	    /**
+	     * Downloads the user's transactions as CSV or PDF, optionally limited to a date range.
+	     * Rows are streamed from the database to the response; totals are appended at the end.
+	     */
+	    @GetMapping("/export")
+	    public ResponseEntity<StreamingResponseBody> exportTransactions(
+	            @RequestParam(defaultValue = "csv") String format,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+	        TransactionExportService.Format exportFormat;
+	        try {
+	            exportFormat = TransactionExportService.Format.valueOf(format.toUpperCase());
+	        } catch (IllegalArgumentException e) {
+	            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or pdf");
+	        }
+	        Long userId = userService.getCurrentUserId();
+	        boolean pdf = exportFormat == TransactionExportService.Format.PDF;
+
+	        StreamingResponseBody body = out -> exportService.export(userId, from, to, exportFormat, out);
+	        return ResponseEntity.ok()
+	                .contentType(pdf ? MediaType.APPLICATION_PDF : new MediaType("text", "csv"))
+	                .header(HttpHeaders.CONTENT_DISPOSITION,
+	                        "attachment; filename=\"transactions_report." + (pdf ? "pdf" : "csv") + "\"")
+	                .body(body);
+	    }
+
+	    /**
+	     * Ranked title search with prefix and typo tolerance, e.g. ?q=groc&minAmount=10&from=2024-01-01.
+	     * Served from an in-memory per-user index; without q, returns the newest matches of the filters.
+	     */
+	    @GetMapping("/search")
+	    public List<TransactionView> searchTransactions(
+	            @RequestParam(required = false) String q,
+	            @RequestParam(required = false) BigDecimal minAmount,
+	            @RequestParam(required = false) BigDecimal maxAmount,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+	            @RequestParam(defaultValue = "20") int limit) {
+	        return searchService.search(userService.getCurrentUserId(), q, minAmount, maxAmount, from, to,
+	                Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+	    }
+
+	    /**
+	     * Server-Sent Events stream of the user's committed changes: "transaction" events with the
+	     * changed row (or its id when deleted), then a "totals" event with the updated summaries.
+	     * Reconnect with Last-Event-ID to resume; a "reset" event means the client must reload.
+	     */
+	    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+	        return changeFeed.subscribe(userService.getCurrentUserId(), lastEventId);
 	    }
 
 	    @GetMapping("/{id}")
-	    public Optional<Transaction> getTransaction(@PathVariable Long id) {
-	        return transactionRepository.findById(id);
+	    public Optional<TransactionView> getTransaction(@PathVariable Long id) {
+	        return transactionService.getTransaction(userService.getCurrentUserId(), id);
 	    }
 
+	    /**
+	     * Creates a transaction. Clients that may retry should send an Idempotency-Key header:
+	     * a repeat with the same key and body returns the original transaction instead of a duplicate.
+	     */
 	    @PostMapping
-	    public Transaction createTransaction(@RequestBody Transaction transaction) {
-	        return transactionRepository.save(transaction);
+	    public TransactionView createTransaction(@RequestBody Transaction transaction,
+	                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+	        Long userId = userService.getCurrentUserId();
+	        transaction.setUser(userService.getCurrentUserReference());
+	        return idempotencyStore.execute(userId, idempotencyKey, fingerprint(transaction), TransactionView.class,
+	                () -> TransactionView.from(transactionService.addTransaction(transaction)));
+	    }
+
+	    /**
+	     * Bulk import from a CSV (header: date,title,amount,category[,currency]) or NDJSON request body.
+	     * The body is streamed, never buffered; the response lists per-row errors and throughput.
+	     */
+	    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+	    public ImportResult importTransactions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+	                                           InputStream body) throws IOException {
+	        TransactionImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+	                ? TransactionImportService.Format.NDJSON
+	                : TransactionImportService.Format.CSV;
+	        return importService.importTransactions(userService.getCurrentUserId(), body, format);
 	    }
 
+	    /**
+	     * Replaces a transaction. Send the version last read (in the body or as If-Match);
+	     * if someone else saved in between, the response is 409 and nothing is overwritten.
+	     */
 	    @PutMapping("/{id}")
-	    public Transaction updateTransaction(@PathVariable Long id, @RequestBody Transaction updated) {
-	        return transactionRepository.findById(id)
-	            .map(txn -> {
-	                txn.setDate(updated.getDate());
-	                txn.setAmount(updated.getAmount());
-	                txn.setDate(updated.getDate());
-	                txn.setCategory(updated.getCategory());
-	                return transactionRepository.save(txn);
-	            }).orElseThrow(() -> new RuntimeException("Transaction not found"));
+	    public TransactionView updateTransaction(@PathVariable Long id, @RequestBody Transaction updated,
+	                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+	        applyIfMatch(updated, ifMatch);
+	        return TransactionView.from(transactionService.updateTransaction(userService.getCurrentUserId(), id, updated));
+	    }
+
+	    /**
+	     * Partial update: only the fields present in the body change. Versioning works as for PUT.
+	     */
+	    @PatchMapping("/{id}")
+	    public TransactionView patchTransaction(@PathVariable Long id, @RequestBody Transaction changes,
+	                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+	        applyIfMatch(changes, ifMatch);
+	        return TransactionView.from(transactionService.patchTransaction(userService.getCurrentUserId(), id, changes));
 	    }
 
 	    @DeleteMapping("/{id}")
 	    public void deleteTransaction(@PathVariable Long id) {
-	        transactionRepository.deleteById(id);
+	        transactionService.deleteTransaction(userService.getCurrentUserId(), id);
+	    }
+
+	    // If-Match carries the version as an entity tag, e.g. "3" or W/"3"; it wins over the body
+	    private static void applyIfMatch(Transaction body, String ifMatch) {
+	        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+	            return;
+	        }
+	        String tag = ifMatch.trim();
+	        if (tag.startsWith("W/")) {
+	            tag = tag.substring(2);
+	        }
+	        try {
+	            body.setVersion(Long.valueOf(tag.replace("\"", "")));
+	        } catch (NumberFormatException e) {
+	            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must carry a transaction version");
+	        }
+	    }
+
+	    // Identifies the payload of a create so a reused Idempotency-Key with a different body is caught
+	    private static String fingerprint(Transaction t) {
+	        return String.join("|", String.valueOf(t.getTitle()),
+	                t.getAmount() == null ? "null" : t.getAmount().stripTrailingZeros().toPlainString(),
+	                String.valueOf(t.getDate()), String.valueOf(t.getCurrency()),
+	                String.valueOf(t.getCategory() == null ? null : t.getCategory().getId()));
 	    }
 	}
\ No newline at end of file
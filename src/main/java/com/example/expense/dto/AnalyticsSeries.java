@@ -0,0 +1,17 @@
+package com.example.expense.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A time series of analytics points, with amounts in the given (the user's base) currency.
+ */
+@Data
+@AllArgsConstructor
+public class AnalyticsSeries<T> {
+
+    private String currency;
+    private List<T> points;
+}
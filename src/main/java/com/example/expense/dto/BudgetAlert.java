@@ -0,0 +1,31 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.example.expense.entity.BudgetPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Emitted once when a budget's spend in a period first reaches an alert threshold.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+
+    private Long budgetId;
+    private Long userId;
+    private Long categoryId;
+    private BudgetPeriod period;
+    private LocalDate periodStart;
+    private BigDecimal limit;
+    private BigDecimal spent;
+    private int thresholdPercent;
+    private Instant createdAt;
+
+}
@@ -0,0 +1,31 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.expense.entity.BudgetPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A budget together with its spend in the current period.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatus {
+
+    private Long id;
+    private Long categoryId; // null for an all-expenses budget
+    private BudgetPeriod period;
+    private BigDecimal limit;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private double percentUsed;
+    private String currency;
+
+}
@@ -0,0 +1,31 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryForecast {
+
+    private Long categoryId; // null for uncategorized transactions
+    private String categoryName;
+    private String type;
+    private String currency;
+    private BigDecimal monthlyAverage;
+    // Slope of the fitted line: change per month
+    private BigDecimal monthlyTrend;
+    private List<Month> forecast;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Month {
+        private String month; // yyyy-MM
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMonthChanges {
+
+    private Long categoryId; // null for uncategorized transactions
+    private String categoryName;
+    private String type;
+    private String currency;
+    private List<MonthChange> months;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthChange {
+        private String month; // yyyy-MM
+        private BigDecimal total;
+        // Against the month before
+        private BigDecimal change;
+        private BigDecimal changePercent; // null when the month before had nothing
+    }
+}
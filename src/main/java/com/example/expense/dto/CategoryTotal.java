@@ -0,0 +1,21 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTotal {
+
+    private Long categoryId; // null for uncategorized transactions
+    private String categoryName;
+    private String type;
+    private BigDecimal total;
+    private long count;
+    private String currency;
+
+}
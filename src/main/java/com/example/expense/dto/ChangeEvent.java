@@ -0,0 +1,23 @@
+package com.example.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a user's change feed. CREATED and UPDATED carry the row as it was committed,
+ * DELETED only its id; REFRESH means many rows changed at once (import, recurring postings)
+ * and the client should reload its list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+
+    public enum Op { CREATED, UPDATED, DELETED, REFRESH }
+
+    private Op op;
+    private Long transactionId;
+    private TransactionView transaction;
+
+}
@@ -0,0 +1,10 @@
+package com.example.expense.dto;
+
+import java.time.Instant;
+
+/**
+ * How many writes a user's transaction data has seen, and when the last one happened.
+ * Used as the validator for conditional GETs.
+ */
+public record DataVersion(long version, Instant modifiedAt) {
+}
@@ -0,0 +1,21 @@
+package com.example.expense.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals pushed on the change feed after a burst of changes, so dashboards can redraw
+ * without refetching: the overall totals plus the expense breakdown used by the chart.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedTotals {
+
+    private SummaryTotals totals;
+    private List<CategoryTotal> expenseByCategory;
+
+}
@@ -0,0 +1,25 @@
+package com.example.expense.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of a bulk import. Only the first errors are listed; failed has the full count.
+ */
+@Data
+public class ImportResult {
+
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private long durationMs;
+    private double rowsPerSecond;
+
+    @Data
+    public static class RowError {
+        private final long row; // 1-based data row, header excluded
+        private final String message;
+    }
+}
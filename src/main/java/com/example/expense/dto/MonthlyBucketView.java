@@ -0,0 +1,24 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Raw (month, category, type, currency) aggregate computed straight from the transaction table.
+ * Used to rebuild and reconcile the pre-aggregated summaries.
+ */
+public interface MonthlyBucketView {
+
+    Integer getPeriodYear();
+
+    Integer getPeriodMonth();
+
+    Long getCategoryId();
+
+    String getCategoryType();
+
+    String getCurrency();
+
+    BigDecimal getTotal();
+
+    Long getTxnCount();
+}
@@ -0,0 +1,20 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyTotals {
+
+    private String month; // yyyy-MM
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal balance;
+    private String currency;
+
+}
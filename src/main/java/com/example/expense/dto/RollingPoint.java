@@ -0,0 +1,20 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollingPoint {
+
+    private LocalDate date;
+    private BigDecimal total;
+    // Daily average over the window ending on date, days without transactions counting as zero
+    private BigDecimal average;
+
+}
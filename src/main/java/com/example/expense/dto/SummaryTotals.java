@@ -0,0 +1,20 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryTotals {
+
+    private BigDecimal income = BigDecimal.ZERO;
+    private BigDecimal expense = BigDecimal.ZERO;
+    private BigDecimal balance = BigDecimal.ZERO;
+    private long count;
+    private String currency; // all amounts are in this (the user's base) currency
+
+}
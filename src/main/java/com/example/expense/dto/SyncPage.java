@@ -0,0 +1,23 @@
+package com.example.expense.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of a user's changes since a sync token. Clients upsert changed by id, drop the ids in
+ * deleted, and store version as the token for the next call; while hasMore is set they call again
+ * straight away. reset means the token was too old (or unknown): the client must clear its copy
+ * before applying this page, which starts from the beginning.
+ */
+@Data
+@AllArgsConstructor
+public class SyncPage {
+
+    private List<TransactionView> changed;
+    private List<Long> deleted;
+    private String version;
+    private boolean hasMore;
+    private boolean reset;
+}
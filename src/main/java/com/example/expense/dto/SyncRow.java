@@ -0,0 +1,25 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A changed row as read by the sync query: the transaction and the data version that last wrote it.
+ */
+@Data
+@AllArgsConstructor
+public class SyncRow {
+
+    private TransactionView transaction;
+    private long changeSeq;
+
+    // Used by "select new" queries
+    public SyncRow(Long id, String title, BigDecimal amount, String currency, LocalDate date,
+                   Long categoryId, String categoryName, String categoryType, Long version, long changeSeq) {
+        this(new TransactionView(id, title, amount, currency, date, categoryId, categoryName, categoryType, version),
+                changeSeq);
+    }
+}
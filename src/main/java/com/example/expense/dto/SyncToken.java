@@ -0,0 +1,42 @@
+package com.example.expense.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Position in a user's change stream: everything up to data version seq has been seen and,
+ * when a page ended in the middle of that version's rows, those up to afterId as well.
+ * Sent to clients as an opaque URL-safe token.
+ */
+@Data
+@AllArgsConstructor
+public class SyncToken {
+
+    private long seq;
+    // Null once every row of seq has been sent
+    private Long afterId;
+
+    public String encode() {
+        String raw = afterId == null ? Long.toString(seq) : seq + ":" + afterId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     * Throws IllegalArgumentException if the token is malformed.
+     */
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return sep < 0
+                    ? new SyncToken(Long.parseLong(raw), null)
+                    : new SyncToken(Long.parseLong(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+}
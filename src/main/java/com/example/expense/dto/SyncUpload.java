@@ -0,0 +1,21 @@
+package com.example.expense.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.expense.entity.Transaction;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes a client made while offline, applied all-or-nothing. An upsert without an id creates
+ * a transaction; one with an id is a PATCH of that transaction, checked against its version.
+ */
+@Data
+@NoArgsConstructor
+public class SyncUpload {
+
+    private List<Transaction> upserts = new ArrayList<>();
+    private List<Long> deletes = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.example.expense.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The stored upserts, in request order (so new ids can be matched to the client's local rows),
+ * and the ids that were deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncUploadResult {
+
+    private List<TransactionView> saved;
+    private List<Long> deleted;
+}
@@ -0,0 +1,64 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.expense.entity.Category;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A page of transactions as parallel arrays (?view=columnar): the i-th entry of each array
+ * belongs to the i-th transaction. Field names appear once instead of once per row, and each
+ * category is sent once in categories and referenced by id, which roughly halves the payload
+ * of a full page compared with the row-per-object shape.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionColumns {
+
+    private Long[] id;
+    private String[] title;
+    private BigDecimal[] amount;
+    private String[] currency;
+    private LocalDate[] date;
+    // Null for uncategorized rows
+    private Long[] categoryId;
+    private Long[] version;
+    private List<Category> categories;
+    private String nextCursor;
+
+    public static TransactionColumns from(TransactionPage<TransactionView> page) {
+        List<TransactionView> rows = page.getItems();
+        int n = rows.size();
+        Long[] id = new Long[n];
+        String[] title = new String[n];
+        BigDecimal[] amount = new BigDecimal[n];
+        String[] currency = new String[n];
+        LocalDate[] date = new LocalDate[n];
+        Long[] categoryId = new Long[n];
+        Long[] version = new Long[n];
+        Map<Long, Category> categories = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            TransactionView row = rows.get(i);
+            id[i] = row.getId();
+            title[i] = row.getTitle();
+            amount[i] = row.getAmount();
+            currency[i] = row.getCurrency();
+            date[i] = row.getDate();
+            version[i] = row.getVersion();
+            Category c = row.getCategory();
+            if (c != null) {
+                categoryId[i] = c.getId();
+                categories.putIfAbsent(c.getId(), c);
+            }
+        }
+        return new TransactionColumns(id, title, amount, currency, date, categoryId, version,
+                new ArrayList<>(categories.values()), page.getNextCursor());
+    }
+}
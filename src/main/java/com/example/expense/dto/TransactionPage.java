@@ -0,0 +1,29 @@
+package com.example.expense.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One bounded page of a user's transactions.
+ * nextCursor is null when there are no more rows.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    // Read in the same transaction as items, so an ETag built from it describes exactly these rows
+    @JsonIgnore
+    private DataVersion dataVersion;
+
+    public TransactionPage(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-side shape of a transaction: its own columns plus the category, never the owning user.
+ * Built directly by JPQL constructor expressions so list queries hydrate no entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionView {
+
+    private Long id;
+    private String title;
+    private BigDecimal amount;
+    private String currency;
+    private LocalDate date;
+    private Category category;
+    // Echo back on PUT/PATCH (or as If-Match) to detect concurrent edits
+    private Long version;
+
+    // Used by "select new" queries; the category arrives as flat columns of the left join
+    public TransactionView(Long id, String title, BigDecimal amount, String currency, LocalDate date,
+                           Long categoryId, String categoryName, String categoryType, Long version) {
+        this(id, title, amount, currency, date,
+                categoryId == null ? null : new Category(categoryId, categoryName, categoryType), version);
+    }
+
+    public static TransactionView from(Transaction t) {
+        Category c = t.getCategory();
+        return new TransactionView(t.getId(), t.getTitle(), t.getAmount(), t.getCurrency(), t.getDate(),
+                c == null ? null : new Category(c.getId(), c.getName(), c.getType()), t.getVersion());
+    }
+}
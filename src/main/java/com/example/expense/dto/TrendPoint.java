@@ -0,0 +1,18 @@
+package com.example.expense.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendPoint {
+
+    private String period; // yyyy-MM-dd (day, or first day of the week), or yyyy-MM
+    private BigDecimal total;
+    private long count;
+
+}
@@ -0,0 +1,20 @@
+package com.example.expense.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Budget window. Spend counters are keyed by the first day of the window.
+ */
+public enum BudgetPeriod {
+
+    MONTHLY,
+    YEARLY;
+
+    public LocalDate start(LocalDate date) {
+        return this == MONTHLY ? date.withDayOfMonth(1) : date.withDayOfYear(1);
+    }
+
+    public LocalDate end(LocalDate start) {
+        return this == MONTHLY ? start.plusMonths(1).minusDays(1) : start.plusYears(1).minusDays(1);
+    }
+}
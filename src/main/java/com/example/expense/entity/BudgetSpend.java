@@ -0,0 +1,47 @@
+package com.example.expense.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running spend of one budget in one period, maintained by BudgetService on every
+ * transaction write. notifiedPercent is the highest alert threshold already sent.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "budget_spend", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_budget_spend_period", columnNames = {"budget_id", "period_start"})
+})
+public class BudgetSpend {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    // In the owner's base currency
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal spent;
+
+    @Column(name = "notified_percent", nullable = false)
+    private Integer notifiedPercent;
+}
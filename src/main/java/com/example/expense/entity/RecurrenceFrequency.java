@@ -0,0 +1,28 @@
+package com.example.expense.entity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Repeat unit of a {@link RecurringRule}, as in the iCalendar RRULE FREQ part.
+ */
+public enum RecurrenceFrequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Date of the index-th occurrence (0 is the start date). Always counted from the start,
+     * so a rule starting on the 31st falls on the last day of shorter months without drifting.
+     */
+    public LocalDate occurrence(LocalDate start, int interval, long index) {
+        return start.plus(index * interval, unit);
+    }
+}
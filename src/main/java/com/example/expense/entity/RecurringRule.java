@@ -0,0 +1,85 @@
+package com.example.expense.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A transaction that repeats every {@code interval} {@code frequency} units from
+ * {@code startDate}, optionally until {@code endDate} (RRULE FREQ / INTERVAL / UNTIL).
+ * Occurrences are materialized into the transaction table by RecurringTransactionService;
+ * {@code nextRun} is the first occurrence not yet posted, null once the rule has ended.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "recurring_rule")
+public class RecurringRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    private String title;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    // ISO 4217 code; defaults to the owner's base currency
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RecurrenceFrequency frequency;
+
+    // "interval" is reserved in MySQL
+    @Column(name = "interval_count", nullable = false)
+    private Integer interval;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "next_run")
+    private LocalDate nextRun;
+
+    // Index of nextRun in the occurrence sequence
+    @JsonIgnore
+    @Column(name = "occurrence_index", nullable = false)
+    private Long occurrenceIndex;
+
+    // Lease held by the instance currently materializing this rule
+    @JsonIgnore
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    // Lease expiry, epoch millis
+    @JsonIgnore
+    @Column(name = "claimed_until")
+    private Long claimedUntil;
+}
@@ -1,40 +1,90 @@
 package com.example.expense.entity;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
-import javax.persistence.ManyToOne;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
+
+import com.example.expense.security.CurrentUserIdResolver;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
+// Edits write only the columns that changed, so a PATCH of the title leaves amount and date alone
+@DynamicUpdate
+// In a signed-in request every HQL/criteria read of transactions is also limited to the caller's rows.
+// Hibernate does not filter loads by primary key, so TransactionRepository offers none
+@FilterDef(name = Transaction.OWNER_FILTER, autoEnabled = true,
+        defaultCondition = "(:userId = 0 or user_id = :userId)",
+        parameters = @ParamDef(name = "userId", type = Long.class, resolver = CurrentUserIdResolver.class))
+@Filter(name = Transaction.OWNER_FILTER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    public static final String OWNER_FILTER = "transactionOwner";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private Double amount;
+    @Column(precision = 19, scale = 4)
+    private BigDecimal amount;
+    // Part of the primary key: the table is range-partitioned by date (see db/migration)
+    @Column(nullable = false)
     private LocalDate date;
    // private String description;
     private String title;
 
-    @ManyToOne
-    @JsonIgnoreProperties({"transactions"}) // Prevents infinite recursion if needed
+    // Lazy: reads go through TransactionView projections, and the owner is set server-side
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne
-    @JsonIgnoreProperties({"transactions"})
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnoreProperties({"transactions", "hibernateLazyInitializer", "handler"})
     private Category category;
+
+    // ISO 4217 code; null on input means the owner's base currency
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    // Bumped on every update; a stale version on write is rejected with 409
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // The owner's data version as of the last write to this row; GET /api/sync pages by it
+    @JsonIgnore
+    @Column(nullable = false)
+    private long changeSeq;
+
+    // The web form posts a bare categoryId; bind it as a category reference resolved on write
+    @JsonSetter("categoryId")
+    public void setCategoryId(Long categoryId) {
+        if (categoryId != null) {
+            this.category = new Category(categoryId, null, null);
+        }
+    }
 }
\ No newline at end of file
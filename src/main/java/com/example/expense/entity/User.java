@@ -2,24 +2,30 @@ package com.example.expense.entity;
 
 import java.util.List;
 
-import javax.persistence.CascadeType;
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
-import javax.persistence.OneToMany;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
 
 import com.example.expense.entity.Transaction;
+import com.example.expense.security.UserCacheEvictionListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(UserCacheEvictionListener.class)
 public class User {
 	
 	 @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,11 +35,19 @@ public class User {
 	    private String email;
 
 	    private String username;
+	    // Accepted on registration, never written back out
+	    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	    private String password;
 
 	    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+	    @JsonIgnore
+	    @ToString.Exclude
 	    private List<Transaction> transactions;
 
+	    // ISO 4217 code summaries are reported in; null means the application default
+	    @Column(name = "base_currency", length = 3)
+	    private String baseCurrency;
+
 	    
 	    
 }
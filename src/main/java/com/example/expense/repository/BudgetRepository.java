@@ -0,0 +1,17 @@
+package com.example.expense.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.expense.entity.Budget;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    List<Budget> findByUserId(Long userId);
+
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+}
@@ -0,0 +1,88 @@
+package com.example.expense.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.expense.entity.BudgetSpend;
+
+@Repository
+public interface BudgetSpendRepository extends JpaRepository<BudgetSpend, Long> {
+
+    /**
+     * Current counter values, read as scalars so they reflect the native updates below
+     * even when the entity is already in the persistence context.
+     */
+    interface Counter {
+        BigDecimal getSpent();
+
+        Integer getNotifiedPercent();
+    }
+
+    @Query("select s.spent as spent, s.notifiedPercent as notifiedPercent from BudgetSpend s"
+            + " where s.budgetId = :budgetId and s.periodStart = :periodStart")
+    Optional<Counter> findCounter(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart);
+
+    /**
+     * Adds a delta to an existing counter. Returns 0 when the period has no counter yet.
+     */
+    @Modifying
+    @Query("update BudgetSpend s set s.spent = s.spent + :delta"
+            + " where s.budgetId = :budgetId and s.periodStart = :periodStart")
+    int addSpend(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart,
+                 @Param("delta") BigDecimal delta);
+
+    /**
+     * Creates a counter at the seed value, or adds the delta if a concurrent writer created it first.
+     */
+    @Modifying
+    @Query(value = "insert into budget_spend (budget_id, period_start, spent, notified_percent)"
+            + " values (:budgetId, :periodStart, :seed, :notifiedPercent)"
+            + " on duplicate key update spent = spent + :delta",
+            nativeQuery = true)
+    int createOrAdd(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart,
+                    @Param("seed") BigDecimal seed, @Param("notifiedPercent") int notifiedPercent,
+                    @Param("delta") BigDecimal delta);
+
+    /**
+     * Claims an alert level; only one concurrent writer gets 1 back for a given crossing.
+     */
+    @Modifying
+    @Query("update BudgetSpend s set s.notifiedPercent = :percent"
+            + " where s.budgetId = :budgetId and s.periodStart = :periodStart and s.notifiedPercent < :percent")
+    int raiseNotified(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart,
+                      @Param("percent") int percent);
+
+    /**
+     * Re-arms alerts after spend drops back below a threshold (deleted or edited transactions).
+     */
+    @Modifying
+    @Query("update BudgetSpend s set s.notifiedPercent = :percent"
+            + " where s.budgetId = :budgetId and s.periodStart = :periodStart and s.notifiedPercent > :percent")
+    int lowerNotified(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart,
+                      @Param("percent") int percent);
+
+    /**
+     * Overwrites a counter with a recomputed value, e.g. after the summaries it was seeded from were corrected.
+     */
+    @Modifying
+    @Query("update BudgetSpend s set s.spent = :spent, s.notifiedPercent = :notifiedPercent"
+            + " where s.budgetId = :budgetId and s.periodStart = :periodStart")
+    int resetSpend(@Param("budgetId") Long budgetId, @Param("periodStart") LocalDate periodStart,
+                   @Param("spent") BigDecimal spent, @Param("notifiedPercent") int notifiedPercent);
+
+    @Modifying
+    @Query("delete from BudgetSpend s where s.budgetId = :budgetId")
+    int deleteByBudgetId(@Param("budgetId") Long budgetId);
+
+    // Counters are reseeded from the summaries on next use, e.g. in a new base currency
+    @Modifying
+    @Query("delete from BudgetSpend s where s.budgetId in (select b.id from Budget b where b.userId = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,6 +1,8 @@
 package com.example.expense.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.expense.entity.Category;
@@ -10,4 +12,12 @@ public interface CategoryRepository  extends JpaRepository<Category, Long> {
 	
 	boolean existsByName(String name);
 
+	// 1 while a transaction, budget or recurring rule still points at the category, else 0.
+	// The partitioned transaction table has no foreign keys, so this replaces theirs (idx_transaction_category)
+	@Query(value = "select case when exists (select 1 from transaction where category_id = :id)"
+			+ " or exists (select 1 from budget where category_id = :id)"
+			+ " or exists (select 1 from recurring_rule where category_id = :id) then 1 else 0 end",
+			nativeQuery = true)
+	int referenced(@Param("id") Long id);
+
 }
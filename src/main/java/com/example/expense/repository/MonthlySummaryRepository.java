@@ -0,0 +1,39 @@
+package com.example.expense.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.expense.entity.MonthlySummary;
+
+@Repository
+public interface MonthlySummaryRepository extends JpaRepository<MonthlySummary, Long> {
+
+    /**
+     * Adds a delta to a bucket in a single statement, creating it if needed, so concurrent
+     * writers neither lose updates nor race on the first insert of a new bucket.
+     * MySQL syntax; H2 accepts it in MySQL mode.
+     */
+    @Modifying
+    @Query(value = "insert into monthly_summary (user_id, month_start, category_id, type, currency, total, txn_count)"
+            + " values (:userId, :monthStart, :categoryId, :type, :currency, :amount, :count)"
+            + " on duplicate key update total = total + values(total), txn_count = txn_count + values(txn_count)",
+            nativeQuery = true)
+    int upsertBucket(@Param("userId") Long userId,
+                     @Param("monthStart") LocalDate monthStart,
+                     @Param("categoryId") Long categoryId,
+                     @Param("type") String type,
+                     @Param("currency") String currency,
+                     @Param("amount") BigDecimal amount,
+                     @Param("count") long count);
+
+    List<MonthlySummary> findByUserIdAndMonthStartBetween(Long userId, LocalDate from, LocalDate to);
+
+    List<MonthlySummary> findByUserId(Long userId);
+}
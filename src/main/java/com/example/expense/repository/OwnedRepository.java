@@ -0,0 +1,19 @@
+package com.example.expense.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Base for repositories of rows that belong to one user. Unlike JpaRepository it has no
+ * findAll, findById or count: every read has to be declared with the owner's id, which also
+ * makes it lead with user_id and use the (user_id, ...) indexes instead of scanning the table.
+ */
+@NoRepositoryBean
+public interface OwnedRepository<T, ID> extends Repository<T, ID> {
+
+    <S extends T> S save(S entity);
+
+    <S extends T> S saveAndFlush(S entity);
+
+    void delete(T entity);
+}
@@ -0,0 +1,42 @@
+package com.example.expense.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.expense.entity.RecurringRule;
+
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    List<RecurringRule> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<RecurringRule> findByIdAndUserId(Long id, Long userId);
+
+    // Due rules whose lease is free or expired, oldest first (idx_recurring_rule_due)
+    @Query("select r.id from RecurringRule r where r.nextRun <= :today "
+            + "and (r.claimedUntil is null or r.claimedUntil < :now) order by r.nextRun asc, r.id asc")
+    List<Long> findClaimable(@Param("today") LocalDate today, @Param("now") long now, Pageable page);
+
+    // Compare-and-set lease: exactly one instance gets 1 back
+    @Modifying
+    @Query("update RecurringRule r set r.claimedBy = :owner, r.claimedUntil = :until "
+            + "where r.id = :id and (r.claimedUntil is null or r.claimedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") long now, @Param("until") long until);
+
+    // Records progress and releases the lease; 0 means the lease was lost to another instance
+    @Modifying
+    @Query("update RecurringRule r set r.nextRun = :nextRun, r.occurrenceIndex = :index, "
+            + "r.claimedBy = null, r.claimedUntil = null where r.id = :id and r.claimedBy = :owner")
+    int advance(@Param("id") Long id, @Param("owner") String owner,
+                @Param("nextRun") LocalDate nextRun, @Param("index") long index);
+
+    @Modifying
+    @Query("update RecurringRule r set r.claimedBy = null, r.claimedUntil = null where r.id = :id and r.claimedBy = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+}
@@ -1,13 +1,77 @@
 package com.example.expense.repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.expense.dto.MonthlyBucketView;
+import com.example.expense.dto.SyncRow;
+import com.example.expense.dto.TransactionView;
 import com.example.expense.entity.Transaction;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByUserId(Long userId);
+public interface TransactionRepository extends OwnedRepository<Transaction, Long> {
+
+    /**
+     * Single-row read with its category in the same select. Empty when the row belongs to
+     * someone else, so callers cannot tell another user's id from a missing one.
+     */
+    @EntityGraph(attributePaths = "category")
+    Optional<Transaction> findWithCategoryByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Keyset page of a user's transactions ordered by (date desc, id desc).
+     * Rows strictly after (cursorDate, cursorId) are returned; pass nulls for the first page.
+     * Only the page size of the Pageable is used, so no count query is issued.
+     * Rows are projected straight into TransactionView: one statement per page, no entity hydration.
+     */
+    @Query("select new com.example.expense.dto.TransactionView(t.id, t.title, t.amount, t.currency, t.date, c.id, c.name, c.type, t.version)"
+            + " from Transaction t left join t.category c"
+            + " where t.user.id = :userId"
+            + " and (:from is null or t.date >= :from)"
+            + " and (:to is null or t.date <= :to)"
+            + " and (:categoryId is null or c.id = :categoryId)"
+            + " and (:type is null or c.type = :type)"
+            + " and (:cursorDate is null or t.date < :cursorDate"
+            + "      or (t.date = :cursorDate and t.id < :cursorId))"
+            + " order by t.date desc, t.id desc")
+    List<TransactionView> findPage(@Param("userId") Long userId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to,
+                                   @Param("categoryId") Long categoryId,
+                                   @Param("type") String type,
+                                   @Param("cursorDate") LocalDate cursorDate,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
+
+    /**
+     * A user's rows written after (seq, afterId) in (change_seq, id) order: a range scan of
+     * idx_transaction_user_change. Pass Long.MAX_VALUE as afterId to start after all of seq.
+     */
+    @Query("select new com.example.expense.dto.SyncRow(t.id, t.title, t.amount, t.currency, t.date, c.id, c.name, c.type, t.version, t.changeSeq)"
+            + " from Transaction t left join t.category c"
+            + " where t.user.id = :userId"
+            + " and (t.changeSeq > :seq or (t.changeSeq = :seq and t.id > :afterId))"
+            + " order by t.changeSeq, t.id")
+    List<SyncRow> findChangedSince(@Param("userId") Long userId,
+                                   @Param("seq") long seq,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * Aggregates a user's transactions per (month, category, type, currency) directly from the raw table.
+     * Only used to rebuild summaries; regular reads go through MonthlySummary.
+     */
+    @Query("select year(t.date) as periodYear, month(t.date) as periodMonth, c.id as categoryId,"
+            + " c.type as categoryType, t.currency as currency, sum(t.amount) as total, count(t) as txnCount"
+            + " from Transaction t left join t.category c"
+            + " where t.user.id = :userId and t.date is not null"
+            + " group by year(t.date), month(t.date), c.id, c.type, t.currency")
+    List<MonthlyBucketView> aggregateMonthly(@Param("userId") Long userId);
 }
\ No newline at end of file
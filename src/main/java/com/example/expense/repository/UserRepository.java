@@ -1,8 +1,12 @@
 package com.example.expense.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.expense.entity.User;
@@ -10,4 +14,14 @@ import com.example.expense.entity.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByEmail(String email);
+
+	@Query("select u.id from User u")
+	List<Long> findAllIds();
+
+	@Query("select u.baseCurrency from User u where u.id = :id")
+	String findBaseCurrencyById(@Param("id") Long id);
+
+	@Modifying
+	@Query("update User u set u.baseCurrency = :currency where u.id = :id")
+	int updateBaseCurrency(@Param("id") Long id, @Param("currency") String currency);
 }
@@ -0,0 +1,43 @@
+package com.example.expense.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks a BCrypt cost for the current hardware: the lowest cost whose hash takes at
+ * least the target time, never below Spring's default of 10 and never above 14.
+ */
+@Slf4j
+public final class BCryptCalibration {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 14;
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(long targetMillis) {
+        // First hash pays for class loading and JIT; keep it out of the measurement
+        new BCryptPasswordEncoder(4).encode("calibration");
+
+        int strength = MIN_STRENGTH;
+        long elapsed = time(strength);
+        // Each step doubles the cost
+        while (strength < MAX_STRENGTH && elapsed < targetMillis) {
+            strength++;
+            elapsed *= 2;
+        }
+        log.info("BCrypt cost {} selected (~{} ms per hash, target {} ms)", strength, elapsed, targetMillis);
+        return strength;
+    }
+
+    private static long time(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.expense.security;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Supplies the id of the authenticated user to Hibernate's owner filter (see Transaction),
+ * or 0 outside a signed-in request (scheduled jobs, startup), where the filter then passes
+ * everything and callers scope queries by an explicit user id.
+ */
+public class CurrentUserIdResolver implements Supplier<Long> {
+
+    static final Long NO_USER = 0L;
+
+    @Override
+    public Long get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : NO_USER;
+    }
+}
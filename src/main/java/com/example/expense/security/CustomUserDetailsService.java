@@ -1,25 +1,58 @@
 package com.example.expense.security;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.expense.entity.User;
 import com.example.expense.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Loads users by email. As a UserDetailsPasswordService it also lets the authentication
+ * provider store a rehashed password when the configured BCrypt cost has gone up.
+ * Accounts listed in {@code app.security.admin-emails} get ROLE_ADMIN.
+ */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 	    private final UserRepository userRepository;
 
+	    @Value("${app.security.admin-emails:}")
+	    private Set<String> adminEmails = Set.of();
+
+	    // Read-write on purpose: with read replicas this reads the primary, so a just-registered user can log in
 	    @Override
+	    @Transactional
 	    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 	        User user = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found"));
-	        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), new ArrayList<>());
+	        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), authoritiesOf(user));
+	    }
+
+	    @Override
+	    @Transactional
+	    public UserDetails updatePassword(UserDetails details, String newPassword) {
+	        User user = userRepository.findByEmail(details.getUsername()).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+	        user.setPassword(newPassword);
+	        return new AuthenticatedUser(user.getId(), user.getEmail(), newPassword, details.getAuthorities());
+	    }
+
+	    private List<GrantedAuthority> authoritiesOf(User user) {
+	        List<GrantedAuthority> authorities = new ArrayList<>();
+	        if (adminEmails.contains(user.getEmail())) {
+	            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+	        }
+	        return authorities;
 	    }
 }
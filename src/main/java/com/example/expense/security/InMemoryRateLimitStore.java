@@ -0,0 +1,74 @@
+package com.example.expense.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Token buckets in this JVM (app.ratelimit.store=memory, the default).
+ * <p>
+ * Each bucket is one AtomicLong holding the time at which it will next be full (the GCRA form
+ * of a token bucket): a request is admitted when that time, pushed one interval further, is no
+ * more than capacity intervals ahead of now. Admission is a single compare-and-set, so there
+ * are no locks on the request path. Idle buckets are dropped after idle-seconds, which must
+ * exceed the longest time any budget takes to refill. The number of buckets is published as
+ * {@code ratelimit.keys}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ratelimit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore, MeterBinder {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryRateLimitStore(@Value("${app.ratelimit.memory.max-keys:1000000}") long maxKeys,
+                                  @Value("${app.ratelimit.memory.idle-seconds:600}") long idleSeconds) {
+        this(maxKeys, idleSeconds, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(long maxKeys, long idleSeconds, LongSupplier clock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public Decision tryAcquire(String key, long capacity, long intervalNanos) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(clock.getAsLong()));
+        long window = capacity * intervalNanos;
+        for (;;) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > window) {
+                return Decision.rejected(ahead - window);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Decision.allowed((window - ahead) / intervalNanos);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratelimit.keys", buckets, Cache::estimatedSize)
+                .description("Clients with a rate limit bucket in memory")
+                .register(registry);
+    }
+}
@@ -2,53 +2,74 @@ package com.example.expense.security;
 
 import java.io.IOException; 
 
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Authenticates requests carrying a Bearer JWT.
+ * Verified tokens are remembered in TokenCache, so repeat requests with the same token
+ * skip both the signature check and the user lookup.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 	    private final JwtUtil jwtUtil;
 	    private final CustomUserDetailsService userDetailsService;
+	    private final TokenCache tokenCache;
 
 	    @Override
 	    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
 	            throws ServletException, IOException {
 
 	        final String header = request.getHeader("Authorization");
-	        String username = null;
-	        String token = null;
-
-	        if (header != null && header.startsWith("Bearer ")) {
-	            token = header.substring(7);
-	            try {
-	                username = jwtUtil.extractUsername(token);
-	            } catch (Exception e) {
-	                System.out.println("Invalid token: " + e.getMessage());
+
+	        if (header != null && header.startsWith("Bearer ")
+	                && SecurityContextHolder.getContext().getAuthentication() == null) {
+	            String token = header.substring(7);
+	            AuthenticatedUser principal = tokenCache.get(token);
+
+	            if (principal == null) {
+	                try {
+	                    // Single parse: verifies signature and expiry, then resolves the user once per token
+	                    Claims claims = jwtUtil.parseClaims(token);
+	                    principal = (AuthenticatedUser) userDetailsService.loadUserByUsername(claims.getSubject());
+	                    principal.eraseCredentials();
+	                    tokenCache.put(token, principal, claims.getExpiration());
+	                } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+	                    // Debug only: clients control this input, so it must not flood the log
+	                    log.debug("Rejected bearer token: {}", e.getMessage());
+	                }
 	            }
-	        }
 
-	        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-	            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-	            if (jwtUtil.validateToken(token, userDetails)) {
-	                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+	            if (principal != null) {
+	                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 	                SecurityContextHolder.getContext().setAuthentication(authToken);
 	            }
 	        }
 
 	        chain.doFilter(request, response);
 	    }
-	}
-
-
 
+	    /**
+	     * Async dispatches (streamed exports, CompletableFuture results) are authorized again,
+	     * so they need the principal too; the token cache makes this cheap.
+	     */
+	    @Override
+	    protected boolean shouldNotFilterAsyncDispatch() {
+	        return false;
+	    }
+	}
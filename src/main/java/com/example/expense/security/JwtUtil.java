@@ -1,10 +1,10 @@
 package com.example.expense.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Date;
 
@@ -21,10 +21,14 @@ public class JwtUtil {
 	}
 
 	public String extractUsername(String token) {
-		return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getSubject();
+		return parseClaims(token).getSubject();
 	}
 
-	public boolean validateToken(String token, UserDetails userDetails) {
-		return extractUsername(token).equals(userDetails.getUsername());
+	/**
+	 * Verifies the signature and expiry once and returns all claims.
+	 * Throws a JwtException if the token is invalid.
+	 */
+	public Claims parseClaims(String token) {
+		return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
 	}
 }
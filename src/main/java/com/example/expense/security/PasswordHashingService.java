@@ -0,0 +1,82 @@
+package com.example.expense.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs BCrypt work (login verification, registration hashing) on a small dedicated pool,
+ * so a login storm cannot occupy every servlet thread. The queue is bounded: when it is
+ * full, submissions fail fast with RejectedExecutionException and the caller answers 429.
+ * The pool is kept private rather than exposed as an Executor bean so it never replaces
+ * Spring's applicationTaskExecutor.
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    private final AuthenticationManager authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingService(AuthenticationManager authenticationManager, PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.hashing.threads:0}") int threads,
+                                  @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        this.passwordEncoder = passwordEncoder;
+        // Default: one thread per core, BCrypt is pure CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Bound here rather than as a MeterBinder: binders are resolved while the registry is
+        // built, and this bean depends on the security configuration
+        new ExecutorServiceMetrics(executor, "password-hash", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Verifies the credentials. Completes exceptionally with an AuthenticationException
+     * on bad credentials; the returned principal is an {@link AuthenticatedUser}.
+     *
+     * @throws RejectedExecutionException when the hashing pool is saturated
+     */
+    public CompletableFuture<Authentication> authenticate(String email, String password) {
+        return CompletableFuture.supplyAsync(() ->
+                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password)), executor);
+    }
+
+    /**
+     * Hashes a new password with the configured encoder.
+     *
+     * @throws RejectedExecutionException when the hashing pool is saturated
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.expense.security;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admits each API request against its RateLimiter budget, keyed by the authenticated user
+ * (so it runs after JwtFilter) or, for anonymous requests and for login/registration, by client
+ * IP. Rejected requests get 429 with Retry-After in seconds before any controller or database
+ * work. Admitted ones carry X-RateLimit-Remaining.
+ * <p>
+ * Not a bean: registered only inside the security filter chain (SecurityConfig), so it cannot
+ * also be picked up as a servlet filter and charge each request twice.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || budget(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Budget budget = budget(request);
+        RateLimitStore.Decision decision = rateLimiter.acquire(budget, client(request, budget));
+        if (!decision.allowed()) {
+            long seconds = Math.max(1, (decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1)
+                    / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit for "
+                    + budget.name().toLowerCase() + " requests exceeded; retry in " + seconds + "s\"}");
+            return;
+        }
+        response.setHeader("X-RateLimit-Remaining", Long.toString(decision.remaining()));
+        chain.doFilter(request, response);
+    }
+
+    // Null: not limited (health checks and metrics scrapes)
+    static RateLimiter.Budget budget(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/") || path.equals("/api/users/register")) {
+            return RateLimiter.Budget.AUTH;
+        }
+        if (path.equals("/api/transactions/export")) {
+            return RateLimiter.Budget.EXPORT;
+        }
+        if (path.equals("/api/transactions/import")) {
+            return RateLimiter.Budget.IMPORT;
+        }
+        if ("GET".equals(request.getMethod())
+                && (path.equals("/api/transactions") || path.equals("/api/transactions/search")
+                        || path.equals("/api/sync"))) {
+            return RateLimiter.Budget.LIST;
+        }
+        return RateLimiter.Budget.DEFAULT;
+    }
+
+    private static String client(HttpServletRequest request, RateLimiter.Budget budget) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (budget != RateLimiter.Budget.AUTH && auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expense.security;
+
+/**
+ * Holds the token buckets behind RateLimiter. Implementations must make each acquire atomic
+ * per key: the in-memory store for a single instance, or a Redis-compatible server when
+ * several instances should share one budget per client.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket under key, which holds up to capacity tokens and gains
+     * one every intervalNanos. Buckets start full.
+     */
+    Decision tryAcquire(String key, long capacity, long intervalNanos);
+
+    /**
+     * remaining is the number of tokens left after an allowed request; retryAfterNanos is how long
+     * a rejected client must wait for the next token.
+     */
+    record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+
+        static Decision allowed(long remaining) {
+            return new Decision(true, remaining, 0);
+        }
+
+        static Decision rejected(long retryAfterNanos) {
+            return new Decision(false, 0, retryAfterNanos);
+        }
+    }
+}
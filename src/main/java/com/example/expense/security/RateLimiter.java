@@ -0,0 +1,93 @@
+package com.example.expense.security;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-client request budgets. Each Budget has its own bucket per client, sized by
+ * app.ratelimit.&lt;budget&gt;.capacity (burst) and .per-minute (sustained rate), so a client
+ * exhausting its list budget can still save a transaction. Decisions are counted as
+ * {@code ratelimit.requests{budget, outcome=allowed|rejected|error}}. When the store fails the
+ * request is let through: an outage of a shared store must not take the API down with it.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum Budget {
+        /** Login and registration, keyed by client IP */
+        AUTH(10, 10),
+        /** Paged list and search */
+        LIST(20, 120),
+        EXPORT(3, 6),
+        IMPORT(3, 6),
+        DEFAULT(60, 600);
+
+        private final long defaultCapacity;
+        private final long defaultPerMinute;
+
+        Budget(long defaultCapacity, long defaultPerMinute) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultPerMinute = defaultPerMinute;
+        }
+    }
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final Map<Budget, long[]> limits = new EnumMap<>(Budget.class);
+    private final Map<Budget, Counter[]> counters = new EnumMap<>(Budget.class);
+
+    public RateLimiter(RateLimitStore store, Environment environment, MeterRegistry meterRegistry,
+                       @Value("${app.ratelimit.enabled:true}") boolean enabled) {
+        this.store = store;
+        this.enabled = enabled;
+        for (Budget budget : Budget.values()) {
+            String prefix = "app.ratelimit." + budget.name().toLowerCase(Locale.ROOT);
+            long capacity = environment.getProperty(prefix + ".capacity", Long.class, budget.defaultCapacity);
+            long perMinute = environment.getProperty(prefix + ".per-minute", Long.class, budget.defaultPerMinute);
+            limits.put(budget, new long[] {Math.max(1, capacity), TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute)});
+            String tag = budget.name().toLowerCase(Locale.ROOT);
+            counters.put(budget, new Counter[] {
+                    meterRegistry.counter("ratelimit.requests", "budget", tag, "outcome", "allowed"),
+                    meterRegistry.counter("ratelimit.requests", "budget", tag, "outcome", "rejected"),
+                    meterRegistry.counter("ratelimit.requests", "budget", tag, "outcome", "error")});
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long capacity(Budget budget) {
+        return limits.get(budget)[0];
+    }
+
+    /**
+     * Takes one request from client's budget. client identifies the caller, e.g. "u:42" or "ip:10.0.0.1".
+     */
+    public RateLimitStore.Decision acquire(Budget budget, String client) {
+        long[] limit = limits.get(budget);
+        Counter[] outcome = counters.get(budget);
+        RateLimitStore.Decision decision;
+        try {
+            decision = store.tryAcquire(budget.name().toLowerCase(Locale.ROOT) + ":" + client, limit[0], limit[1]);
+        } catch (RuntimeException e) {
+            outcome[2].increment();
+            log.warn("Rate limit store failed, admitting request: {}", e.getMessage());
+            return RateLimitStore.Decision.allowed(limit[0]);
+        }
+        outcome[decision.allowed() ? 0 : 1].increment();
+        return decision;
+    }
+}
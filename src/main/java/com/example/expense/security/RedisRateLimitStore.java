@@ -0,0 +1,74 @@
+package com.example.expense.security;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * Token buckets on a Redis-compatible server (app.ratelimit.store=redis), so every instance
+ * draws from the same budget per client. Any server that runs Lua scripts works, e.g. a local
+ * Redis or Valkey. The same algorithm as InMemoryRateLimitStore runs as one script per request,
+ * timed by the server's clock so instances with skewed clocks agree. Keys expire once full.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ratelimit.store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore, DisposableBean {
+
+    // KEYS[1] = bucket, ARGV = interval and window in microseconds. Returns {allowed, remaining or wait}
+    private static final String SCRIPT = """
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local interval = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local full_at = tonumber(redis.call('GET', KEYS[1]) or now)
+            local ahead = math.max(full_at, now) + interval - now
+            if ahead > window then
+                return {0, ahead - window}
+            end
+            redis.call('SET', KEYS[1], now + ahead, 'PX', math.ceil(ahead / 1000))
+            return {1, math.floor((window - ahead) / interval)}
+            """;
+
+    private final JedisPooled redis;
+    private final String keyPrefix;
+    private volatile String scriptSha;
+
+    public RedisRateLimitStore(@Value("${app.ratelimit.redis.url:redis://localhost:6379}") String url,
+                               @Value("${app.ratelimit.redis.timeout-ms:100}") int timeoutMillis,
+                               @Value("${app.ratelimit.redis.key-prefix:ratelimit:}") String keyPrefix) {
+        this.redis = new JedisPooled(URI.create(url), timeoutMillis);
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Decision tryAcquire(String key, long capacity, long intervalNanos) {
+        long intervalMicros = Math.max(1, intervalNanos / 1000);
+        List<String> keys = List.of(keyPrefix + key);
+        List<String> args = List.of(Long.toString(intervalMicros), Long.toString(capacity * intervalMicros));
+        List<?> reply;
+        try {
+            if (scriptSha == null) {
+                scriptSha = redis.scriptLoad(SCRIPT);
+            }
+            reply = (List<?>) redis.evalsha(scriptSha, keys, args);
+        } catch (JedisNoScriptException e) {
+            // Server restarted or flushed its script cache
+            scriptSha = null;
+            reply = (List<?>) redis.eval(SCRIPT, keys, args);
+        }
+        long value = (Long) reply.get(1);
+        return (Long) reply.get(0) == 1 ? Decision.allowed(value) : Decision.rejected(value * 1000);
+    }
+
+    @Override
+    public void destroy() {
+        redis.close();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.expense.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of already-verified JWTs and the principal they resolve to.
+ * Keys are SHA-256 digests, so raw tokens are never retained. An entry lives for
+ * the configured TTL or until the token itself expires, whichever comes first.
+ * Hit/miss/eviction counts are published as {@code cache.*} meters tagged {@code cache=jwt}.
+ */
+@Component
+public class TokenCache implements MeterBinder {
+
+    private final Cache<String, Entry> cache;
+    private final boolean enabled;
+
+    public TokenCache(@Value("${app.jwt.cache.max-size:10000}") long maxSize,
+                      @Value("${app.jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = maxSize > 0;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAt - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt");
+    }
+
+    /**
+     * Returns the principal for a previously verified, still valid token, or null.
+     */
+    public AuthenticatedUser get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(digest(token));
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.principal;
+    }
+
+    public void put(String token, AuthenticatedUser principal, Date expiresAt) {
+        if (enabled && expiresAt != null) {
+            cache.put(digest(token), new Entry(principal, expiresAt.getTime()));
+        }
+    }
+
+    /**
+     * Drops every cached token of a user, e.g. after their credentials or account change.
+     */
+    public void evictUser(Long userId) {
+        cache.asMap().values().removeIf(e -> e.principal.getId().equals(userId));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
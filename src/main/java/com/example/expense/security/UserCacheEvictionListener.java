@@ -0,0 +1,28 @@
+package com.example.expense.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.expense.entity.User;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener on User: any update or delete invalidates that user's cached tokens,
+ * so changed credentials take effect on the next request.
+ * Instantiated by Hibernate through Spring's bean container; the cache is looked up
+ * lazily so JPA-only slices without the security layer still start.
+ */
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<TokenCache> tokenCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        tokenCache.ifAvailable(cache -> cache.evictUser(user.getId()));
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.expense.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One user's transactions as parallel primitive arrays sorted by day: epoch day, amount in the
+ * user's base currency in units of 10^-{@value CurrencyService#SCALE}, transaction id and a dense
+ * category slot. A slot stands for a (category, income or expense) pair, so filters are a lookup
+ * in a boolean[] and grouping by category an index computation, with no objects touched per row.
+ * <p>
+ * Aggregations find the date range by binary search and sum it in one sequential pass; ranges
+ * of at least {@link #PARALLEL_THRESHOLD} rows are split across the common fork-join pool
+ * when it has more than one thread.
+ * Writes shift the arrays in place under the write lock, which is cheap next to how rarely they
+ * happen compared with reads.
+ */
+final class AnalyticsColumns {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK = 1 << 14;
+
+    // What the amounts were converted with; a change of either makes the columns stale
+    final String currency;
+    final CurrencyService.RateTable rates;
+    // Data version the columns are complete up to; only advanced by the write right after it
+    private volatile long version;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+    private int[] days;
+    private long[] amounts;
+    private long[] ids;
+    private int[] slots;
+
+    private int slotCount;
+    // Per slot: category id (0 for uncategorized) and whether it is income
+    private long[] slotCategory = new long[8];
+    private boolean[] slotIncome = new boolean[8];
+    private final Map<Long, Integer> incomeSlots = new HashMap<>();
+    private final Map<Long, Integer> expenseSlots = new HashMap<>();
+
+    AnalyticsColumns(String currency, CurrencyService.RateTable rates, long version, int capacity) {
+        this.currency = currency;
+        this.rates = rates;
+        this.version = version;
+        int initial = Math.max(16, capacity);
+        days = new int[initial];
+        amounts = new long[initial];
+        ids = new long[initial];
+        slots = new int[initial];
+    }
+
+    // ============ WRITES ============
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Records that the write with this change_seq has been applied. A gap means a write missed
+     * here; the version then stays behind and the columns are reloaded on next use.
+     */
+    void advance(long changeSeq) {
+        lock.writeLock().lock();
+        try {
+            if (changeSeq == version + 1) {
+                version = changeSeq;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a row during the initial load, which must arrive ordered by day.
+     */
+    void append(long id, int day, long amount, long categoryId, boolean income) {
+        ensureCapacity(size + 1);
+        days[size] = day;
+        amounts[size] = amount;
+        ids[size] = id;
+        slots[size] = slot(categoryId, income);
+        size++;
+    }
+
+    /**
+     * Adds the row, or moves it if a row with this id is present already.
+     */
+    void put(long id, int day, long amount, long categoryId, boolean income) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            ensureCapacity(size + 1);
+            int at = upperBound(day);
+            int tail = size - at;
+            System.arraycopy(days, at, days, at + 1, tail);
+            System.arraycopy(amounts, at, amounts, at + 1, tail);
+            System.arraycopy(ids, at, ids, at + 1, tail);
+            System.arraycopy(slots, at, slots, at + 1, tail);
+            days[at] = day;
+            amounts[at] = amount;
+            ids[at] = id;
+            slots[at] = slot(categoryId, income);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                int tail = size - i - 1;
+                System.arraycopy(days, i + 1, days, i, tail);
+                System.arraycopy(amounts, i + 1, amounts, i, tail);
+                System.arraycopy(ids, i + 1, ids, i, tail);
+                System.arraycopy(slots, i + 1, slots, i, tail);
+                size--;
+                return;
+            }
+        }
+    }
+
+    private int slot(long categoryId, boolean income) {
+        Map<Long, Integer> bySide = income ? incomeSlots : expenseSlots;
+        Integer existing = bySide.get(categoryId);
+        if (existing != null) {
+            return existing;
+        }
+        if (slotCount == slotCategory.length) {
+            slotCategory = Arrays.copyOf(slotCategory, slotCount * 2);
+            slotIncome = Arrays.copyOf(slotIncome, slotCount * 2);
+        }
+        slotCategory[slotCount] = categoryId;
+        slotIncome[slotCount] = income;
+        bySide.put(categoryId, slotCount);
+        return slotCount++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > days.length) {
+            int grown = Math.max(needed, days.length + (days.length >> 1));
+            days = Arrays.copyOf(days, grown);
+            amounts = Arrays.copyOf(amounts, grown);
+            ids = Arrays.copyOf(ids, grown);
+            slots = Arrays.copyOf(slots, grown);
+        }
+    }
+
+    // ============ AGGREGATION ============
+
+    /**
+     * Sums the rows dated from..to (epoch days, inclusive) of the selected side and, unless
+     * categoryId is null, category (0 for uncategorized). Bucket b covers
+     * [bucketStarts[b], bucketStarts[b + 1]), the last one up to to; bucketStarts[0] must not be
+     * after from. With bySlot, every slot gets its own row of buckets in the result.
+     */
+    Grid aggregate(int from, int to, int[] bucketStarts, boolean income, Long categoryId, boolean bySlot) {
+        lock.readLock().lock();
+        try {
+            boolean[] selected = new boolean[slotCount];
+            for (int s = 0; s < slotCount; s++) {
+                selected[s] = slotIncome[s] == income && (categoryId == null || slotCategory[s] == categoryId);
+            }
+            int rows = bySlot ? slotCount : 1;
+            int lo = lowerBound(from);
+            int hi = upperBound(to);
+            Scan scan = new Scan(lo, hi, bucketStarts, selected, bySlot, rows * bucketStarts.length);
+            boolean parallel = hi - lo >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+            Partial total = parallel ? ForkJoinPool.commonPool().invoke(scan) : scan.scan();
+            return new Grid(bucketStarts.length, bySlot ? Arrays.copyOf(slotCategory, rows) : new long[0],
+                    total.sums, total.counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // First index whose day is >= day
+    private int lowerBound(int day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index whose day is > day
+    private int upperBound(int day) {
+        return day == Integer.MAX_VALUE ? size : lowerBound(day + 1);
+    }
+
+    private static final class Partial {
+        private final long[] sums;
+        private final int[] counts;
+
+        private Partial(int cells) {
+            this.sums = new long[cells];
+            this.counts = new int[cells];
+        }
+    }
+
+    // Splits in the pool down to CHUNK rows. Reads the arrays without the lock: the caller holds
+    // the read lock until the scan is joined
+    private final class Scan extends RecursiveTask<Partial> {
+        private final int lo;
+        private final int hi;
+        private final int[] starts;
+        private final boolean[] selected;
+        private final boolean bySlot;
+        private final int cells;
+
+        private Scan(int lo, int hi, int[] starts, boolean[] selected, boolean bySlot, int cells) {
+            this.lo = lo;
+            this.hi = hi;
+            this.starts = starts;
+            this.selected = selected;
+            this.bySlot = bySlot;
+            this.cells = cells;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (hi - lo > CHUNK) {
+                int mid = (lo + hi) >>> 1;
+                Scan left = new Scan(lo, mid, starts, selected, bySlot, cells);
+                left.fork();
+                Partial right = new Scan(mid, hi, starts, selected, bySlot, cells).compute();
+                Partial merged = left.join();
+                for (int c = 0; c < cells; c++) {
+                    merged.sums[c] += right.sums[c];
+                    merged.counts[c] += right.counts[c];
+                }
+                return merged;
+            }
+            return scan();
+        }
+
+        private Partial scan() {
+            Partial out = new Partial(cells);
+            if (lo >= hi) {
+                return out;
+            }
+            // Locals, so the loop does not reload the fields
+            int[] days = AnalyticsColumns.this.days;
+            int[] slots = AnalyticsColumns.this.slots;
+            long[] amounts = AnalyticsColumns.this.amounts;
+            int buckets = starts.length;
+            // Rows start at or after starts[0], so the insertion point is never before it
+            int found = Arrays.binarySearch(starts, days[lo]);
+            int b = found >= 0 ? found : -found - 2;
+            int next = b + 1 < buckets ? starts[b + 1] : Integer.MAX_VALUE;
+            long[] sums = out.sums;
+            int[] counts = out.counts;
+            for (int i = lo; i < hi; i++) {
+                int day = days[i];
+                while (day >= next) {
+                    b++;
+                    next = b + 1 < buckets ? starts[b + 1] : Integer.MAX_VALUE;
+                }
+                int slot = slots[i];
+                if (!selected[slot]) {
+                    continue;
+                }
+                int cell = bySlot ? slot * buckets + b : b;
+                sums[cell] += amounts[i];
+                counts[cell]++;
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Result of an aggregation: sums and counts per (slot row, bucket), row-major.
+     * Without bySlot there is a single row.
+     */
+    static final class Grid {
+        final int buckets;
+        // Category id of each row when grouped by slot
+        final long[] rowCategory;
+        final long[] sums;
+        final int[] counts;
+
+        private Grid(int buckets, long[] rowCategory, long[] sums, int[] counts) {
+            this.buckets = buckets;
+            this.rowCategory = rowCategory;
+            this.sums = sums;
+            this.counts = counts;
+        }
+
+        int rows() {
+            return sums.length / buckets;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.expense.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.AnalyticsSeries;
+import com.example.expense.dto.CategoryForecast;
+import com.example.expense.dto.CategoryMonthChanges;
+import com.example.expense.dto.RollingPoint;
+import com.example.expense.dto.TrendPoint;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Spending trends, rolling averages, month-over-month changes and forecasts per category,
+ * answered from an in-memory columnar copy of each user's transactions (see AnalyticsColumns)
+ * instead of scanning rows per request.
+ * <p>
+ * A user's columns are loaded with one indexed query on first use, amounts converted to the
+ * base currency at the rate of their month, as the summaries do. They are then maintained like
+ * the search index: single writes from TransactionService are applied after commit, bulk
+ * paths drop the user's columns, and columns behind the user's data version (writes handled by
+ * another instance) are reloaded. A change of base currency or a rate reload rebuilds them on
+ * next use. The cache holds at most {@code app.analytics.max-rows} rows over all users.
+ */
+@Service
+public class AnalyticsService {
+
+    public enum Interval { DAY, WEEK, MONTH }
+
+    static final int MAX_BUCKETS = 3660;
+    static final int MAX_WINDOW = 365;
+    static final int MAX_HISTORY = 120;
+    static final int MAX_AHEAD = 24;
+
+    private static final String LOAD_SQL = "select t.id, t.date, t.amount, t.currency, t.category_id, c.type"
+            + " from transaction t left join category c on c.id = t.category_id"
+            + " where t.user_id = ? order by t.date, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryService categoryService;
+    private final CurrencyService currencyService;
+    private final DataVersionService dataVersionService;
+    private final Cache<Long, AnalyticsColumns> columns;
+
+    public AnalyticsService(JdbcTemplate jdbcTemplate, CategoryService categoryService,
+                            CurrencyService currencyService, DataVersionService dataVersionService,
+                            @Value("${app.analytics.max-rows:5000000}") long maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryService = categoryService;
+        this.currencyService = currencyService;
+        this.dataVersionService = dataVersionService;
+        // Weighed when loaded; rows added later are not counted until the next load
+        this.columns = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Long userId, AnalyticsColumns c) -> Math.max(1, c.size()))
+                .build();
+    }
+
+    // ============ QUERIES ============
+
+    /**
+     * Totals per day, week (starting Monday) or month over from..to, by default the last year.
+     * type is EXPENSE (the default) or INCOME; categoryId narrows to one category, 0 for uncategorized.
+     */
+    public AnalyticsSeries<TrendPoint> trend(Long userId, LocalDate from, LocalDate to, Interval interval,
+                                             Long categoryId, String type) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusYears(1).plusDays(1) : from;
+        requireOrdered(start, end);
+        List<LocalDate> starts = bucketStarts(start, end, interval);
+        AnalyticsColumns user = columns(userId);
+        AnalyticsColumns.Grid grid = user.aggregate(epochDay(start), epochDay(end), epochDays(starts),
+                isIncome(type), categoryId, false);
+
+        List<TrendPoint> points = new ArrayList<>(starts.size());
+        for (int b = 0; b < starts.size(); b++) {
+            String period = interval == Interval.MONTH ? YearMonth.from(starts.get(b)).toString() : starts.get(b).toString();
+            points.add(new TrendPoint(period, money(grid.sums[b]), grid.counts[b]));
+        }
+        return new AnalyticsSeries<>(user.currency, points);
+    }
+
+    /**
+     * Daily totals over from..to (by default the last 90 days), each with the average per day
+     * over the window days ending on it.
+     */
+    public AnalyticsSeries<RollingPoint> rolling(Long userId, LocalDate from, LocalDate to, int window,
+                                                 Long categoryId, String type) {
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "window must be between 1 and " + MAX_WINDOW);
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(89) : from;
+        requireOrdered(start, end);
+        // The first window reaches back before from
+        LocalDate scanStart = start.minusDays(window - 1);
+        List<LocalDate> starts = bucketStarts(scanStart, end, Interval.DAY);
+        AnalyticsColumns user = columns(userId);
+        long[] daily = user.aggregate(epochDay(scanStart), epochDay(end), epochDays(starts),
+                isIncome(type), categoryId, false).sums;
+
+        List<RollingPoint> points = new ArrayList<>(daily.length - window + 1);
+        BigDecimal days = BigDecimal.valueOf(window);
+        long running = 0;
+        for (int d = 0; d < daily.length; d++) {
+            running += daily[d];
+            if (d >= window) {
+                running -= daily[d - window];
+            }
+            if (d >= window - 1) {
+                points.add(new RollingPoint(starts.get(d), money(daily[d]),
+                        money(running).divide(days, CurrencyService.SCALE, RoundingMode.HALF_EVEN)));
+            }
+        }
+        return new AnalyticsSeries<>(user.currency, points);
+    }
+
+    /**
+     * Per category, the total of each month in from..to (by default the last six, this one
+     * included) and its change against the month before. Largest categories first.
+     */
+    public List<CategoryMonthChanges> monthOverMonth(Long userId, YearMonth from, YearMonth to, String type) {
+        YearMonth last = to == null ? YearMonth.now() : to;
+        YearMonth first = from == null ? last.minusMonths(5) : from;
+        requireOrdered(first.atDay(1), last.atDay(1));
+        boolean income = isIncome(type);
+        // One extra month in front, for the first change
+        List<LocalDate> starts = bucketStarts(first.minusMonths(1).atDay(1), last.atEndOfMonth(), Interval.MONTH);
+        AnalyticsColumns user = columns(userId);
+        AnalyticsColumns.Grid grid = user.aggregate(epochDay(starts.get(0)), epochDay(last.atEndOfMonth()),
+                epochDays(starts), income, null, true);
+
+        List<CategoryMonthChanges> result = new ArrayList<>();
+        Map<CategoryMonthChanges, Long> totals = new IdentityHashMap<>();
+        for (int row = 0; row < grid.rows(); row++) {
+            int offset = row * grid.buckets;
+            long total = 0;
+            int count = 0;
+            List<CategoryMonthChanges.MonthChange> months = new ArrayList<>(grid.buckets - 1);
+            for (int b = 1; b < grid.buckets; b++) {
+                long amount = grid.sums[offset + b];
+                long previous = grid.sums[offset + b - 1];
+                total += amount;
+                count += grid.counts[offset + b];
+                months.add(new CategoryMonthChanges.MonthChange(YearMonth.from(starts.get(b)).toString(),
+                        money(amount), money(amount - previous), percentChange(amount, previous)));
+            }
+            if (count == 0) {
+                continue;
+            }
+            Long categoryId = categoryOf(grid.rowCategory[row]);
+            CategoryMonthChanges changes = new CategoryMonthChanges(categoryId, categoryName(categoryId),
+                    typeName(income), user.currency, months);
+            result.add(changes);
+            totals.put(changes, total);
+        }
+        result.sort(Comparator.comparing(totals::get, Comparator.reverseOrder()));
+        return result;
+    }
+
+    /**
+     * Per category, a least-squares line through the monthly totals of the last history complete
+     * months (from the category's first month with transactions), extended ahead months.
+     */
+    public List<CategoryForecast> forecast(Long userId, int history, int ahead, String type) {
+        if (history < 2 || history > MAX_HISTORY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "history must be between 2 and " + MAX_HISTORY);
+        }
+        if (ahead < 1 || ahead > MAX_AHEAD) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "months must be between 1 and " + MAX_AHEAD);
+        }
+        boolean income = isIncome(type);
+        YearMonth last = YearMonth.now().minusMonths(1);
+        YearMonth first = last.minusMonths(history - 1);
+        List<LocalDate> starts = bucketStarts(first.atDay(1), last.atEndOfMonth(), Interval.MONTH);
+        AnalyticsColumns user = columns(userId);
+        AnalyticsColumns.Grid grid = user.aggregate(epochDay(first.atDay(1)), epochDay(last.atEndOfMonth()),
+                epochDays(starts), income, null, true);
+
+        List<CategoryForecast> result = new ArrayList<>();
+        for (int row = 0; row < grid.rows(); row++) {
+            int offset = row * grid.buckets;
+            int firstUsed = 0;
+            while (firstUsed < grid.buckets && grid.counts[offset + firstUsed] == 0) {
+                firstUsed++;
+            }
+            if (firstUsed == grid.buckets) {
+                continue;
+            }
+            // x = 0..n-1 over the months used, y = their totals in units
+            int n = grid.buckets - firstUsed;
+            double sumX = 0;
+            double sumY = 0;
+            double sumXY = 0;
+            double sumXX = 0;
+            for (int x = 0; x < n; x++) {
+                double y = grid.sums[offset + firstUsed + x];
+                sumX += x;
+                sumY += y;
+                sumXY += x * y;
+                sumXX += (double) x * x;
+            }
+            double denominator = n * sumXX - sumX * sumX;
+            double slope = denominator == 0 ? 0 : (n * sumXY - sumX * sumY) / denominator;
+            double intercept = (sumY - slope * sumX) / n;
+
+            List<CategoryForecast.Month> forecast = new ArrayList<>(ahead);
+            for (int i = 1; i <= ahead; i++) {
+                double projected = Math.max(0, intercept + slope * (n - 1 + i));
+                forecast.add(new CategoryForecast.Month(last.plusMonths(i).toString(), money(Math.round(projected))));
+            }
+            Long categoryId = categoryOf(grid.rowCategory[row]);
+            result.add(new CategoryForecast(categoryId, categoryName(categoryId), typeName(income), user.currency,
+                    money(Math.round(sumY / n)), money(Math.round(slope)), forecast));
+        }
+        return result;
+    }
+
+    // ============ MAINTENANCE ============
+
+    /**
+     * Adds or moves the transaction once the surrounding database transaction commits.
+     * Only columns already loaded are updated; others load the row with the rest.
+     */
+    public void recordAfterCommit(Transaction t) {
+        Long userId = t.getUser().getId();
+        long id = t.getId();
+        LocalDate date = t.getDate();
+        BigDecimal amount = t.getAmount();
+        String currency = t.getCurrency();
+        Category c = t.getCategory();
+        long categoryId = c == null ? 0 : c.getId();
+        boolean income = SummaryService.INCOME.equals(SummaryService.typeOf(c == null ? null : c.getType()));
+        long changeSeq = t.getChangeSeq();
+        afterCommit(() -> columns.asMap().computeIfPresent(userId, (k, user) -> {
+            user.put(id, epochDay(date), units(amount, currency, user.currency, date, new HashMap<>()), categoryId, income);
+            user.advance(changeSeq);
+            return user;
+        }));
+    }
+
+    /**
+     * Removes the transaction once the surrounding database transaction commits; changeSeq is
+     * the data version the delete bumped to.
+     */
+    public void removeAfterCommit(Long userId, Long transactionId, long changeSeq) {
+        afterCommit(() -> columns.asMap().computeIfPresent(userId, (k, user) -> {
+            user.remove(transactionId);
+            user.advance(changeSeq);
+            return user;
+        }));
+    }
+
+    /**
+     * Drops the user's columns after commit, for writes that do not know the new ids.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        afterCommit(() -> columns.invalidate(userId));
+    }
+
+    private AnalyticsColumns columns(Long userId) {
+        String base = currencyService.baseCurrency(userId);
+        CurrencyService.RateTable rates = currencyService.getRates();
+        long version = dataVersionService.current(userId).version();
+        AnalyticsColumns current = columns.get(userId, id -> load(id, base, rates, version));
+        if (!current.currency.equals(base) || current.rates != rates || current.version() < version) {
+            columns.asMap().remove(userId, current);
+            current = columns.get(userId, id -> load(id, base, rates, version));
+        }
+        return current;
+    }
+
+    // version is read before the rows, so the columns hold at least the writes up to it
+    private AnalyticsColumns load(Long userId, String base, CurrencyService.RateTable rates, long version) {
+        AnalyticsColumns user = new AnalyticsColumns(base, rates, version, 1024);
+        Map<String, BigDecimal> rateCache = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            LocalDate date = rs.getDate(2).toLocalDate();
+            long categoryId = rs.getLong(5);
+            boolean income = SummaryService.INCOME.equals(SummaryService.typeOf(rs.getString(6)));
+            user.append(rs.getLong(1), epochDay(date),
+                    units(rs.getBigDecimal(3), rs.getString(4), base, date, rateCache), categoryId, income);
+        }, userId);
+        return user;
+    }
+
+    // Amount in the base currency, in units of 10^-SCALE
+    private long units(BigDecimal amount, String currency, String base, LocalDate date, Map<String, BigDecimal> rateCache) {
+        if (amount == null) {
+            return 0;
+        }
+        BigDecimal inBase = amount;
+        if (!base.equals(currency)) {
+            LocalDate month = date.withDayOfMonth(1);
+            inBase = amount.multiply(rateCache.computeIfAbsent(currency + ":" + month,
+                    k -> currencyService.rate(currency, base, month)));
+        }
+        return inBase.setScale(CurrencyService.SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ============ HELPERS ============
+
+    private static List<LocalDate> bucketStarts(LocalDate start, LocalDate end, Interval interval) {
+        LocalDate first = switch (interval) {
+            case DAY -> start;
+            case WEEK -> start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> start.withDayOfMonth(1);
+        };
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate d = first; !d.isAfter(end); d = next(d, interval)) {
+            if (starts.size() == MAX_BUCKETS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Range spans more than " + MAX_BUCKETS + " " + interval.name().toLowerCase() + "s");
+            }
+            starts.add(d);
+        }
+        return starts;
+    }
+
+    private static LocalDate next(LocalDate d, Interval interval) {
+        return switch (interval) {
+            case DAY -> d.plusDays(1);
+            case WEEK -> d.plusWeeks(1);
+            case MONTH -> d.plusMonths(1);
+        };
+    }
+
+    private static int[] epochDays(List<LocalDate> dates) {
+        int[] days = new int[dates.size()];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = epochDay(dates.get(i));
+        }
+        return days;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static void requireOrdered(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+    }
+
+    // Spending unless INCOME is asked for
+    private static boolean isIncome(String type) {
+        if (type == null || type.isEmpty() || SummaryService.EXPENSE.equalsIgnoreCase(type)) {
+            return false;
+        }
+        if (SummaryService.INCOME.equalsIgnoreCase(type)) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "type must be INCOME or EXPENSE");
+    }
+
+    private static String typeName(boolean income) {
+        return income ? SummaryService.INCOME : SummaryService.EXPENSE;
+    }
+
+    private static Long categoryOf(long slotCategory) {
+        return slotCategory == 0 ? null : slotCategory;
+    }
+
+    private String categoryName(Long categoryId) {
+        if (categoryId == null) {
+            return "Uncategorized";
+        }
+        return categoryService.findById(categoryId).map(Category::getName).orElse("Deleted category");
+    }
+
+    private static BigDecimal money(long units) {
+        return BigDecimal.valueOf(units, CurrencyService.SCALE);
+    }
+
+    private static BigDecimal percentChange(long amount, long previous) {
+        if (previous == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(amount - previous).multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(Math.abs(previous)), 1, RoundingMode.HALF_EVEN);
+    }
+}
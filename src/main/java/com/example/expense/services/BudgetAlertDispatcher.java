@@ -0,0 +1,35 @@
+package com.example.expense.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.expense.dto.BudgetAlert;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans alerts out to the configured sinks once the writing transaction has committed,
+ * so a rolled-back write never produces an alert.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BudgetAlertDispatcher {
+
+    private final List<BudgetAlertSink> sinks;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatch(BudgetAlert alert) {
+        for (BudgetAlertSink sink : sinks) {
+            try {
+                sink.publish(alert);
+            } catch (RuntimeException e) {
+                log.warn("Budget alert sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
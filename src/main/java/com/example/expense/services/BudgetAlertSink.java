@@ -0,0 +1,12 @@
+package com.example.expense.services;
+
+import com.example.expense.dto.BudgetAlert;
+
+/**
+ * Destination for budget threshold alerts. Every sink bean receives each alert after the
+ * transaction that caused it commits; a failing sink does not affect the others.
+ */
+public interface BudgetAlertSink {
+
+    void publish(BudgetAlert alert);
+}
@@ -0,0 +1,234 @@
+package com.example.expense.services;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.BudgetAlert;
+import com.example.expense.dto.BudgetStatus;
+import com.example.expense.entity.Budget;
+import com.example.expense.entity.BudgetPeriod;
+import com.example.expense.entity.MonthlySummary;
+import com.example.expense.repository.BudgetRepository;
+import com.example.expense.repository.BudgetSpendRepository;
+import com.example.expense.repository.MonthlySummaryRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Budgets with per-period spend counters. Counters move with every expense write
+ * (SummaryService forwards its bucket deltas here), so a status read is one counter
+ * lookup per budget. Reaching a threshold emits a {@link BudgetAlert} once per period;
+ * dropping back below it re-arms the alert. Limits and counters are in the user's base
+ * currency; deltas in other currencies are converted with CurrencyService.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetSpendRepository spendRepository;
+    private final MonthlySummaryRepository summaryRepository;
+    private final ApplicationEventPublisher events;
+    private final CurrencyService currencyService;
+    private final CategoryService categoryService;
+
+    // Percent of the limit at which alerts fire
+    @Value("${app.budgets.thresholds:80,100}")
+    private int[] thresholds;
+
+    // ============ INCREMENTAL UPDATES ============
+
+    /**
+     * Applies an expense delta to every budget it falls under. Must run inside the
+     * writing transaction, after the summary bucket has been updated.
+     */
+    @Transactional
+    public void applyDelta(Long userId, LocalDate date, Long categoryId, String type, String currency, BigDecimal amount) {
+        if (!SummaryService.EXPENSE.equals(type) || amount.signum() == 0) {
+            return;
+        }
+        String base = null;
+        BigDecimal inBase = null;
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            if (budget.getCategoryId() != null && !budget.getCategoryId().equals(categoryId)) {
+                continue;
+            }
+            if (inBase == null) {
+                // As stored, not as cached: the writer holds the user's row lock
+                base = currencyService.currentBaseCurrency(userId);
+                inBase = currencyService.convert(amount, currency, base, date);
+            }
+            LocalDate start = budget.getPeriod().start(date);
+            if (spendRepository.addSpend(budget.getId(), start, inBase) == 0) {
+                // First write in this period: seed from the summaries, which already include this delta
+                BigDecimal seed = spentFromSummaries(budget, start, base);
+                spendRepository.createOrAdd(budget.getId(), start, seed, 0, inBase);
+            }
+            checkThresholds(budget, start);
+        }
+    }
+
+    private void checkThresholds(Budget budget, LocalDate start) {
+        BudgetSpendRepository.Counter counter = spendRepository.findCounter(budget.getId(), start).orElse(null);
+        if (counter == null) {
+            return;
+        }
+        int reached = reachedThreshold(counter.getSpent(), budget.getLimit());
+        if (reached > counter.getNotifiedPercent()) {
+            // Conditional update: concurrent writers crossing together alert only once
+            if (spendRepository.raiseNotified(budget.getId(), start, reached) == 1) {
+                events.publishEvent(new BudgetAlert(budget.getId(), budget.getUserId(), budget.getCategoryId(),
+                        budget.getPeriod(), start, budget.getLimit(), counter.getSpent(), reached, Instant.now()));
+            }
+        } else if (reached < counter.getNotifiedPercent()) {
+            spendRepository.lowerNotified(budget.getId(), start, reached);
+        }
+    }
+
+    private int reachedThreshold(BigDecimal spent, BigDecimal limit) {
+        double percent = percentOf(spent, limit);
+        int reached = 0;
+        for (int t : thresholds) {
+            if (percent >= t) {
+                reached = Math.max(reached, t);
+            }
+        }
+        return reached;
+    }
+
+    // ============ BUDGETS ============
+
+    @Transactional(readOnly = true)
+    public List<BudgetStatus> getStatuses(Long userId, LocalDate today) {
+        List<BudgetStatus> statuses = new ArrayList<>();
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            statuses.add(status(budget, today));
+        }
+        return statuses;
+    }
+
+    @Transactional
+    public BudgetStatus create(Long userId, Budget budget, LocalDate today) {
+        validate(budget);
+        budget.setId(null);
+        budget.setUserId(userId);
+        for (Budget existing : budgetRepository.findByUserId(userId)) {
+            if (existing.getPeriod() == budget.getPeriod() && Objects.equals(existing.getCategoryId(), budget.getCategoryId())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A budget for this category and period already exists");
+            }
+        }
+        Budget saved = budgetRepository.save(budget);
+        // Seed the current period; thresholds already exceeded are recorded without alerting
+        LocalDate start = saved.getPeriod().start(today);
+        BigDecimal spent = spentFromSummaries(saved, start, currencyService.currentBaseCurrency(userId));
+        spendRepository.createOrAdd(saved.getId(), start, spent, reachedThreshold(spent, saved.getLimit()), BigDecimal.ZERO);
+        return status(saved, today);
+    }
+
+    /**
+     * Changes the limit. Alert levels are re-evaluated on the next write.
+     */
+    @Transactional
+    public BudgetStatus updateLimit(Long userId, Long id, BigDecimal limit, LocalDate today) {
+        Budget budget = find(userId, id);
+        budget.setLimit(limit);
+        validate(budget);
+        return status(budgetRepository.save(budget), today);
+    }
+
+    /**
+     * Drops the user's counters after a base currency change; they are reseeded on next use.
+     */
+    @Transactional
+    public void resetCounters(Long userId) {
+        spendRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Recomputes the counters of the periods containing the given months from the summaries,
+     * after SummaryService.rebuild has corrected those months' buckets. Thresholds already
+     * reached are recorded without alerting, as when a budget is created.
+     */
+    @Transactional
+    public void reconcile(Long userId, Collection<LocalDate> months) {
+        String base = currencyService.currentBaseCurrency(userId);
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            months.stream().map(budget.getPeriod()::start).distinct().forEach(start -> {
+                if (spendRepository.findCounter(budget.getId(), start).isPresent()) {
+                    BigDecimal spent = spentFromSummaries(budget, start, base);
+                    spendRepository.resetSpend(budget.getId(), start, spent, reachedThreshold(spent, budget.getLimit()));
+                }
+            });
+        }
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        Budget budget = find(userId, id);
+        spendRepository.deleteByBudgetId(budget.getId());
+        budgetRepository.delete(budget);
+    }
+
+    private Budget find(Long userId, Long id) {
+        return budgetRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Budget not found"));
+    }
+
+    private void validate(Budget budget) {
+        if (budget.getPeriod() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period must be one of " + Arrays.toString(BudgetPeriod.values()));
+        }
+        if (budget.getLimit() == null || budget.getLimit().signum() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        CurrencyService.requireStorable(budget.getLimit());
+        if (budget.getCategoryId() != null && categoryService.findById(budget.getCategoryId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown category " + budget.getCategoryId());
+        }
+    }
+
+    private BudgetStatus status(Budget budget, LocalDate today) {
+        LocalDate start = budget.getPeriod().start(today);
+        // Counters are kept in the stored base, so they are labelled with it too
+        String base = currencyService.currentBaseCurrency(budget.getUserId());
+        BigDecimal spent = spendRepository.findCounter(budget.getId(), start)
+                .map(BudgetSpendRepository.Counter::getSpent)
+                // No counter means no write in this period since the budget was created
+                .orElseGet(() -> spentFromSummaries(budget, start, base));
+        return new BudgetStatus(budget.getId(), budget.getCategoryId(), budget.getPeriod(), budget.getLimit(),
+                start, budget.getPeriod().end(start), spent, budget.getLimit().subtract(spent),
+                percentOf(spent, budget.getLimit()), base);
+    }
+
+    private static double percentOf(BigDecimal spent, BigDecimal limit) {
+        return spent.doubleValue() / limit.doubleValue() * 100;
+    }
+
+    /**
+     * Expense total of the period from the monthly buckets: at most 12 months x categories rows.
+     */
+    private BigDecimal spentFromSummaries(Budget budget, LocalDate start, String base) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (MonthlySummary s : summaryRepository.findByUserIdAndMonthStartBetween(
+                budget.getUserId(), start, budget.getPeriod().end(start))) {
+            if (SummaryService.EXPENSE.equals(s.getType())
+                    && (budget.getCategoryId() == null || budget.getCategoryId().equals(s.getCategoryId()))) {
+                total = total.add(currencyService.convert(s.getTotal(), s.getCurrency(), base, s.getMonthStart()));
+            }
+        }
+        return total;
+    }
+}
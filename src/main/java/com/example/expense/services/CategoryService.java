@@ -1,19 +1,157 @@
 package com.example.expense.services;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.expense.entity.Category;
 import com.example.expense.repository.CategoryRepository;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Category catalog served from an in-memory snapshot.
+ * The snapshot is loaded on first use, dropped whenever this instance creates or deletes
+ * a category, and reloaded after a TTL so changes made by other instances show up too.
+ * Snapshot hits and reloads are published as {@code cache.gets} with {@code cache=categories}.
+ */
 @Service
-public class CategoryService {
+public class CategoryService implements MeterBinder {
 
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Value("${app.categories.cache-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile Snapshot snapshot;
+    // Bumped on every change so a load that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.loadedAt + TimeUnit.SECONDS.toNanos(ttlSeconds) - System.nanoTime() > 0) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        long gen = generation.get();
+        Snapshot loaded = new Snapshot(categoryRepository.findAll());
+        if (generation.get() == gen) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Detached copy of a cached category, or empty if it does not exist.
+     */
+    public Optional<Category> findById(Long id) {
+        return Optional.ofNullable(getSnapshot().byId.get(id)).map(CategoryService::copy);
+    }
+
+    public Category create(Category category) {
+        Category saved = categoryRepository.save(category);
+        invalidate();
+        return saved;
+    }
+
+    /**
+     * Deletes an unused category; 409 while transactions, budgets or recurring rules refer to it.
+     */
+    @Transactional
     public void deleteById(Long id) {
+        if (categoryRepository.referenced(id) == 1) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Category " + id + " is still in use");
+        }
         categoryRepository.deleteById(id);
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same meter name and tags as Micrometer's Caffeine binder, so hit ratios aggregate alike
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "categories", "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "categories", "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value.")
+                .register(registry);
     }
 
+    private static Category copy(Category c) {
+        return new Category(c.getId(), c.getName(), c.getType());
+    }
+
+    /**
+     * Immutable view of all categories, indexed by id and by case-insensitive name,
+     * with an ETag derived from the content.
+     */
+    public static final class Snapshot {
+
+        private final List<Category> all;
+        private final Map<Long, Category> byId = new HashMap<>();
+        private final Map<String, Category> byName = new HashMap<>();
+        private final String etag;
+        private final long loadedAt = System.nanoTime();
+
+        private Snapshot(List<Category> categories) {
+            List<Category> copies = new ArrayList<>(categories.size());
+            CRC32 crc = new CRC32();
+            for (Category c : categories) {
+                Category copy = copy(c);
+                copies.add(copy);
+                byId.put(copy.getId(), copy);
+                if (copy.getName() != null) {
+                    byName.putIfAbsent(copy.getName().trim().toLowerCase(Locale.ROOT), copy);
+                }
+                crc.update((copy.getId() + ":" + copy.getName() + ":" + copy.getType() + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            this.all = Collections.unmodifiableList(copies);
+            this.etag = "\"" + Long.toHexString(crc.getValue()) + "-" + copies.size() + "\"";
+        }
+
+        public List<Category> getAll() {
+            return all;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Detached copy of the category with this name (case-insensitive), or null.
+         */
+        public Category findByName(String name) {
+            Category c = name == null ? null : byName.get(name.trim().toLowerCase(Locale.ROOT));
+            return c == null ? null : copy(c);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.expense.services;
+
+import java.util.function.BiConsumer;
+
+import com.example.expense.dto.ChangeEvent;
+
+/**
+ * Carries committed changes between instances, so a stream open on one instance sees writes
+ * handled by another: the local broker for a single instance, or Redis pub/sub when the
+ * application runs behind a load balancer.
+ */
+public interface ChangeFeedBroker {
+
+    /**
+     * Sends a change made on this instance to the other instances.
+     */
+    void publish(Long userId, ChangeEvent event);
+
+    /**
+     * Registers the callback for changes made on other instances.
+     */
+    void listen(BiConsumer<Long, ChangeEvent> listener);
+}
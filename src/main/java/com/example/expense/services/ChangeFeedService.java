@@ -0,0 +1,377 @@
+package com.example.expense.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.expense.dto.ChangeEvent;
+import com.example.expense.dto.FeedTotals;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Transaction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user Server-Sent Events stream of committed transaction changes.
+ * <p>
+ * Streams are servlet async responses, so an idle client holds a socket but no thread. Each user
+ * with an open stream has a feed: a ring buffer of the last {@code app.feed.buffer-size} changes
+ * with sequential ids. A client reconnecting with Last-Event-ID gets the changes it missed, or a
+ * {@code reset} event when they are no longer buffered (or the id is from before a restart) and
+ * it must reload. Changes are written by a small dispatcher pool, never on the request thread;
+ * after each burst every stream also gets one {@code totals} event with the updated summaries.
+ * Nothing is buffered for users without a stream; their feed is dropped after
+ * {@code app.feed.idle-ms} without subscribers.
+ * <p>
+ * Feeds and their buffers live in this instance. Changes reach streams on other instances
+ * through the ChangeFeedBroker ({@code app.feed.broker=redis} when there is more than one);
+ * with the default local broker a stream only sees writes handled by its own instance.
+ * Event ids are per instance too, so a client that reconnects to another instance gets a
+ * {@code reset} and reloads.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService implements MeterBinder {
+
+    static final String TRANSACTION_EVENT = "transaction";
+    static final String TOTALS_EVENT = "totals";
+    static final String RESET_EVENT = "reset";
+
+    // Event ids are "<epoch>:<seq>"; the epoch tells ids of this process from those of an earlier run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+    private final SummaryService summaryService;
+    private final ChangeFeedBroker broker;
+    private final TransactionTemplate primaryReads;
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final int maxStreamsPerUser;
+    private final long streamTimeoutMillis;
+    private final long idleFeedMillis;
+
+    public ChangeFeedService(SummaryService summaryService, ChangeFeedBroker broker,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.feed.buffer-size:256}") int bufferSize,
+                             @Value("${app.feed.max-streams-per-user:5}") int maxStreamsPerUser,
+                             @Value("${app.feed.stream-timeout-ms:1800000}") long streamTimeoutMillis,
+                             @Value("${app.feed.idle-ms:600000}") long idleFeedMillis,
+                             @Value("${app.feed.dispatch-threads:2}") int dispatchThreads) {
+        this.summaryService = summaryService;
+        this.broker = broker;
+        // Not read-only: with read replicas this pins the totals to the primary, which has the write just made
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.bufferSize = bufferSize;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.idleFeedMillis = idleFeedMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+            Thread thread = new Thread(r, "change-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        broker.listen(this::deliver);
+    }
+
+    // ============ SUBSCRIBE ============
+
+    /**
+     * Opens a stream for the user. With a lastEventId the changes after it are replayed first;
+     * without one the stream starts at the next change (the client has just loaded its data).
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        List<Subscriber> evicted = new ArrayList<>();
+        Feed feed = feeds.compute(userId, (id, existing) -> {
+            Feed f = existing == null ? new Feed(id, bufferSize) : existing;
+            f.resume(subscriber, lastEventId, epoch);
+            while (f.subscribers.size() >= maxStreamsPerUser) {
+                Subscriber oldest = f.subscribers.remove(0);
+                evicted.add(oldest);
+            }
+            f.subscribers.add(subscriber);
+            return f;
+        });
+        evicted.forEach(s -> s.emitter.complete());
+
+        emitter.onCompletion(() -> feed.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> feed.remove(subscriber));
+        dispatch(() -> flush(feed));
+        return emitter;
+    }
+
+    // ============ PUBLISH ============
+
+    /**
+     * Publishes the row as committed; the view is taken after commit so it carries the new version.
+     */
+    public void publishAfterCommit(ChangeEvent.Op op, Transaction t) {
+        Long userId = t.getUser().getId();
+        publish(userId, () -> new ChangeEvent(op, t.getId(), TransactionView.from(t)));
+    }
+
+    public void publishDeletedAfterCommit(Long userId, Long transactionId) {
+        publish(userId, () -> new ChangeEvent(ChangeEvent.Op.DELETED, transactionId, null));
+    }
+
+    /**
+     * For bulk writes whose rows are not known individually: tells the user's clients to reload.
+     */
+    public void refreshAfterCommit(Long userId) {
+        publish(userId, () -> new ChangeEvent(ChangeEvent.Op.REFRESH, null, null));
+    }
+
+    private void publish(Long userId, Supplier<ChangeEvent> event) {
+        afterCommit(() -> {
+            ChangeEvent change = event.get();
+            deliver(userId, change);
+            // On the dispatcher too: a slow or unreachable broker must not hold the request thread
+            dispatch(() -> broker.publish(userId, change));
+        });
+    }
+
+    // Changes from this instance and, through the broker, from the others
+    private void deliver(Long userId, ChangeEvent event) {
+        Feed feed = feeds.get(userId);
+        if (feed == null) {
+            return;
+        }
+        feed.append(event);
+        dispatch(() -> flush(feed));
+    }
+
+    // ============ DELIVERY ============
+
+    // Sends every subscriber what it has not seen yet; concurrent flushes of one feed are harmless
+    private void flush(Feed feed) {
+        FeedTotals totals = null;
+        for (Subscriber subscriber : feed.subscribers) {
+            try {
+                if (subscriber.drain(feed, epoch)) {
+                    if (totals == null) {
+                        totals = totals(feed.userId);
+                    }
+                    if (totals != null) {
+                        subscriber.send(SseEmitter.event().name(TOTALS_EVENT).data(totals));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError/onCompletion too
+                feed.remove(subscriber);
+            }
+        }
+    }
+
+    private FeedTotals totals(Long userId) {
+        try {
+            return primaryReads.execute(status -> new FeedTotals(summaryService.getTotals(userId, null, null),
+                    summaryService.getByCategory(userId, null, null, "EXPENSE")));
+        } catch (RuntimeException e) {
+            log.warn("Could not compute feed totals for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds dead ones; drops feeds idle too long.
+     */
+    @Scheduled(fixedDelayString = "${app.feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Feed feed : feeds.values()) {
+            if (!feed.subscribers.isEmpty()) {
+                dispatch(() -> {
+                    for (Subscriber subscriber : feed.subscribers) {
+                        try {
+                            subscriber.send(SseEmitter.event().comment("keepalive"));
+                        } catch (IOException | IllegalStateException e) {
+                            feed.remove(subscriber);
+                        }
+                    }
+                });
+            }
+            feeds.computeIfPresent(feed.userId, (id, f) -> f.isIdle(now, idleFeedMillis) ? null : f);
+        }
+    }
+
+    int openStreams() {
+        return feeds.values().stream().mapToInt(f -> f.subscribers.size()).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("feed.streams", this, ChangeFeedService::openStreams)
+                .description("Open change-feed streams")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        feeds.values().forEach(f -> f.subscribers.forEach(s -> s.emitter.complete()));
+        feeds.clear();
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Change feed is shutting down; dropped a delivery");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ============ FEED ============
+
+    private record Entry(long seq, ChangeEvent event) {
+    }
+
+    private static final class Feed {
+        private final Long userId;
+        private final Entry[] ring;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long latestSeq;
+        private long lastActive = System.currentTimeMillis();
+
+        private Feed(Long userId, int capacity) {
+            this.userId = userId;
+            this.ring = new Entry[Math.max(1, capacity)];
+        }
+
+        synchronized void append(ChangeEvent event) {
+            long seq = ++latestSeq;
+            ring[(int) (seq % ring.length)] = new Entry(seq, event);
+            lastActive = System.currentTimeMillis();
+        }
+
+        // Entries after seq in order, or null when some of them have been overwritten
+        synchronized List<Entry> since(long seq) {
+            if (seq >= latestSeq) {
+                return Collections.emptyList();
+            }
+            long oldest = Math.max(1, latestSeq - ring.length + 1);
+            if (seq + 1 < oldest) {
+                return null;
+            }
+            List<Entry> entries = new ArrayList<>((int) (latestSeq - seq));
+            for (long s = seq + 1; s <= latestSeq; s++) {
+                entries.add(ring[(int) (s % ring.length)]);
+            }
+            return entries;
+        }
+
+        synchronized long latestSeq() {
+            return latestSeq;
+        }
+
+        // Positions a new subscriber after the client's last seen event, if that is still buffered
+        synchronized void resume(Subscriber subscriber, String lastEventId, String epoch) {
+            subscriber.sentSeq = latestSeq;
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+            int colon = lastEventId.indexOf(':');
+            try {
+                long seq = Long.parseLong(lastEventId.substring(colon + 1));
+                if (colon > 0 && lastEventId.substring(0, colon).equals(epoch) && seq <= latestSeq && since(seq) != null) {
+                    subscriber.sentSeq = seq;
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                // Treated like an unknown id below
+            }
+            subscriber.resetPending = true;
+        }
+
+        void remove(Subscriber subscriber) {
+            if (subscribers.remove(subscriber)) {
+                synchronized (this) {
+                    lastActive = System.currentTimeMillis();
+                }
+            }
+        }
+
+        synchronized boolean isIdle(long now, long idleMillis) {
+            return subscribers.isEmpty() && now - lastActive > idleMillis;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this: one writer per stream keeps events in order
+        private long sentSeq;
+        private boolean resetPending;
+        private boolean opened;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(SseEmitter.SseEventBuilder event) throws IOException {
+            emitter.send(event);
+        }
+
+        /**
+         * Writes the pending changes; returns true when any were written.
+         */
+        synchronized boolean drain(Feed feed, String epoch) throws IOException {
+            if (!opened) {
+                // Commits the response headers so the client sees the stream open right away
+                emitter.send(SseEmitter.event().comment("connected"));
+                opened = true;
+            }
+            List<Entry> pending = resetPending ? null : feed.since(sentSeq);
+            if (pending == null) {
+                long latest = feed.latestSeq();
+                emitter.send(SseEmitter.event().id(epoch + ":" + latest).name(RESET_EVENT).data(""));
+                sentSeq = latest;
+                resetPending = false;
+                return false;
+            }
+            for (Entry entry : pending) {
+                emitter.send(SseEmitter.event().id(epoch + ":" + entry.seq()).name(TRANSACTION_EVENT)
+                        .data(entry.event()));
+                sentSeq = entry.seq();
+            }
+            return !pending.isEmpty();
+        }
+    }
+}
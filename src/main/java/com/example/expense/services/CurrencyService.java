@@ -0,0 +1,375 @@
+package com.example.expense.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.ImportResult;
+import com.example.expense.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Currencies, FX rates and each user's base currency.
+ * <p>
+ * Rates are stored per currency and effective date as units per one unit of a pivot currency
+ * ({@code app.fx.pivot}). The whole table is held in memory as one sorted array of dates per
+ * currency, so a lookup is a binary search and conversions never touch the database. The
+ * snapshot is loaded on first use and replaced after every import.
+ * <p>
+ * Amounts are converted at the rate in effect on the first day of their month. Monthly
+ * summary buckets therefore convert exactly, and past months do not move when rates are
+ * imported later in the month. Dates before the first known rate use the earliest rate.
+ */
+@Slf4j
+@Service
+public class CurrencyService {
+
+    public static final int SCALE = 4;
+    // Amount columns are decimal(19, 4)
+    private static final int MAX_INTEGER_DIGITS = 19 - SCALE;
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL64;
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String UPSERT_SQL = "insert into fx_rate (currency, rate_date, per_pivot) values (?, ?, ?)"
+            + " on duplicate key update per_pivot = values(per_pivot)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final String pivot;
+    private final String defaultCurrency;
+    // Base currency per user, for reads; a change on another instance is seen after the expiry.
+    // Writes use currentBaseCurrency
+    private final Cache<Long, String> baseCurrencies = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    private volatile RateTable rates;
+
+    public CurrencyService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           UserRepository userRepository,
+                           @Value("${app.fx.pivot:USD}") String pivot,
+                           @Value("${app.currency.default:INR}") String defaultCurrency) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.pivot = normalize(pivot);
+        this.defaultCurrency = normalize(defaultCurrency);
+    }
+
+    // ============ CURRENCIES ============
+
+    /**
+     * Upper-cased ISO 4217 code, or 400 for anything else.
+     */
+    public static String normalize(String code) {
+        String upper = code == null ? "" : code.trim().toUpperCase();
+        try {
+            return Currency.getInstance(upper).getCurrencyCode();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown currency '" + code + "'");
+        }
+    }
+
+    /**
+     * The amount as given when the amount columns store it exactly, 400 otherwise. The summary,
+     * budget and analytics deltas add the amount as posted, so one the database rounded would
+     * make them drift from the stored rows. Null passes through.
+     */
+    public static BigDecimal requireStorable(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        BigDecimal stripped = amount.stripTrailingZeros();
+        if (stripped.scale() > SCALE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Amount " + amount.toPlainString() + " has more than " + SCALE + " decimal places");
+        }
+        if (stripped.precision() - stripped.scale() > MAX_INTEGER_DIGITS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount " + amount.toPlainString() + " is out of range");
+        }
+        return amount;
+    }
+
+    public String baseCurrency(Long userId) {
+        return baseCurrencies.get(userId, id -> {
+            String code = userRepository.findBaseCurrencyById(id);
+            return code == null ? defaultCurrency : code;
+        });
+    }
+
+    /**
+     * The base currency as stored, for writes: budget counters must not be seeded or moved in a
+     * base that another instance has just changed. Writers call it after taking the user's row
+     * lock, which a base change holds too, so the value cannot change before they commit.
+     * Refreshes the cached value.
+     */
+    public String currentBaseCurrency(Long userId) {
+        String code = userRepository.findBaseCurrencyById(userId);
+        String base = code == null ? defaultCurrency : code;
+        baseCurrencies.put(userId, base);
+        return base;
+    }
+
+    /**
+     * 400 unless every currency the user already has amounts in (recorded or in recurring rules)
+     * converts to the new base.
+     */
+    public void setBaseCurrency(Long userId, String code) {
+        String currency = requireConvertible(code);
+        List<String> held = jdbcTemplate.queryForList("select currency from monthly_summary where user_id = ?"
+                + " union select currency from recurring_rule where user_id = ?", String.class, userId, userId);
+        held.forEach(from -> requireConversion(from, currency));
+        userRepository.updateBaseCurrency(userId, currency);
+        baseCurrencies.invalidate(userId);
+    }
+
+    /**
+     * The normalized code when amounts in it can be converted to the user's base currency,
+     * 400 otherwise. Null means the base currency. For writes, so the base is read as stored.
+     */
+    public String resolve(Long userId, String code) {
+        String base = currentBaseCurrency(userId);
+        if (code == null || code.isBlank()) {
+            return base;
+        }
+        String currency = requireConvertible(code);
+        requireConversion(currency, base);
+        return currency;
+    }
+
+    // The default currency needs no rates only while nothing has to be converted into or out of it
+    private String requireConvertible(String code) {
+        String currency = normalize(code);
+        if (!currency.equals(defaultCurrency) && !getRates().knows(currency)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No exchange rate for " + currency);
+        }
+        return currency;
+    }
+
+    private void requireConversion(String from, String to) {
+        if (from.equals(to)) {
+            return;
+        }
+        RateTable table = getRates();
+        for (String currency : List.of(from, to)) {
+            if (!table.knows(currency)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "No exchange rate for " + currency + " to convert " + from + " to " + to);
+            }
+        }
+    }
+
+    public Set<String> getCurrencies() {
+        Set<String> codes = new TreeSet<>(getRates().series.keySet());
+        codes.add(defaultCurrency);
+        return codes;
+    }
+
+    // ============ CONVERSION ============
+
+    /**
+     * Converts at the rate of the month the date falls in.
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (amount == null || amount.signum() == 0 || from.equals(to)) {
+            return amount;
+        }
+        return amount.multiply(rate(from, to, date.withDayOfMonth(1))).setScale(SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from} on the given day.
+     */
+    public BigDecimal rate(String from, String to, LocalDate day) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        RateTable table = getRates();
+        return table.perPivot(to, day).divide(table.perPivot(from, day), RATE_CONTEXT);
+    }
+
+    // ============ RATE TABLE ============
+
+    /**
+     * Upserts rates from CSV with the header {@code date,currency,rate}, where rate is units of
+     * the currency per one unit of the pivot. Written in JDBC batches, then reloaded at once.
+     */
+    public ImportResult importRates(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        List<Object[]> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        long rowNumber = 0;
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerFor(Map.class)
+                .with(CsvSchema.emptySchema().withHeader()).readValues(in)) {
+            while (true) {
+                Map<String, String> row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    row = rows.nextValue();
+                } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                    addError(result, rowNumber, "Malformed input, import stopped: " + e.getMessage());
+                    break;
+                }
+                try {
+                    batch.add(toRateRow(row));
+                } catch (IllegalArgumentException | ResponseStatusException e) {
+                    addError(result, rowNumber, e instanceof ResponseStatusException rse ? rse.getReason() : e.getMessage());
+                }
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    flush(batch, result);
+                }
+            }
+        }
+        flush(batch, result);
+        reload();
+
+        long elapsed = System.nanoTime() - start;
+        result.setDurationMs(elapsed / 1_000_000);
+        result.setRowsPerSecond(elapsed == 0 ? 0 : (result.getImported() + result.getFailed()) / (elapsed / 1e9));
+        return result;
+    }
+
+    private void flush(List<Object[]> batch, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(s -> jdbcTemplate.batchUpdate(UPSERT_SQL, batch));
+        result.setImported(result.getImported() + batch.size());
+        batch.clear();
+    }
+
+    private Object[] toRateRow(Map<String, String> row) {
+        String date = field(row, "date");
+        String currency = field(row, "currency");
+        String rate = field(row, "rate");
+        if (date == null || currency == null || rate == null) {
+            throw new IllegalArgumentException("date, currency and rate are required");
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(rate);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rate '" + rate + "'");
+        }
+        if (value.signum() <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        try {
+            return new Object[] {normalize(currency), Date.valueOf(LocalDate.parse(date)), value};
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + date + "', expected yyyy-MM-dd");
+        }
+    }
+
+    private static String field(Map<String, String> row, String name) {
+        for (Map.Entry<String, String> e : row.entrySet()) {
+            if (e.getKey() != null && e.getKey().trim().equalsIgnoreCase(name)) {
+                String value = e.getValue() == null ? "" : e.getValue().trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static void addError(ImportResult result, long row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResult.RowError(row, message));
+        }
+    }
+
+    RateTable getRates() {
+        RateTable current = rates;
+        return current != null ? current : reload();
+    }
+
+    // Also called when rates were changed outside the application
+    public synchronized RateTable reload() {
+        Map<String, List<Object[]>> rows = new HashMap<>();
+        jdbcTemplate.query("select currency, rate_date, per_pivot from fx_rate order by currency, rate_date", rs -> {
+            rows.computeIfAbsent(rs.getString(1), k -> new ArrayList<>())
+                    .add(new Object[] {rs.getDate(2).toLocalDate(), rs.getBigDecimal(3)});
+        });
+        RateTable loaded = new RateTable(pivot, rows);
+        rates = loaded;
+        log.info("FX rates loaded: {} currencies", loaded.series.size());
+        return loaded;
+    }
+
+    /**
+     * Immutable snapshot: per currency, epoch days ascending and the matching rates.
+     */
+    public static final class RateTable {
+        private final String pivot;
+        private final Map<String, Series> series = new HashMap<>();
+
+        private RateTable(String pivot, Map<String, List<Object[]>> rows) {
+            this.pivot = pivot;
+            rows.forEach((currency, list) -> {
+                int[] days = new int[list.size()];
+                BigDecimal[] values = new BigDecimal[list.size()];
+                for (int i = 0; i < list.size(); i++) {
+                    days[i] = (int) ((LocalDate) list.get(i)[0]).toEpochDay();
+                    values[i] = (BigDecimal) list.get(i)[1];
+                }
+                series.put(currency, new Series(days, values));
+            });
+        }
+
+        boolean knows(String currency) {
+            return currency.equals(pivot) || series.containsKey(currency);
+        }
+
+        BigDecimal perPivot(String currency, LocalDate day) {
+            if (currency.equals(pivot)) {
+                return BigDecimal.ONE;
+            }
+            Series s = series.get(currency);
+            if (s == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "No exchange rate for " + currency);
+            }
+            int i = Arrays.binarySearch(s.days, (int) day.toEpochDay());
+            // Latest rate on or before the day; the earliest one for older dates
+            return s.values[i >= 0 ? i : Math.max(-i - 2, 0)];
+        }
+    }
+
+    private record Series(int[] days, BigDecimal[] values) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expense.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.expense.dto.DataVersion;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A counter per user that every transaction write increments in its own database transaction.
+ * Reading it is a primary-key lookup, so list endpoints can answer conditional requests
+ * (ETag / Last-Modified) without running the page query or serializing anything.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Called inside the writing transaction, before its rows are written: the new version becomes
+     * visible with the write itself. Also serializes concurrent writes of the same user on the user row,
+     * so versions commit in order. Returns the new version, which the caller stamps on the rows it
+     * writes as their change_seq.
+     */
+    @Transactional
+    public long bump(Long userId) {
+        jdbcTemplate.update("update user set data_version = data_version + 1, data_modified_at = ? where id = ?",
+                Timestamp.from(Instant.now()), userId);
+        // The update holds the row until commit, so this reads our own increment
+        return jdbcTemplate.query("select data_version from user where id = ?",
+                rs -> rs.next() ? rs.getLong(1) : 0L, userId);
+    }
+
+    /**
+     * Takes the user-row lock that bump takes, without changing the version. Work that rewrites
+     * derived data of the user (the summary rebuild) calls this first so no write of the user
+     * interleaves with it.
+     */
+    @Transactional
+    public void lock(Long userId) {
+        jdbcTemplate.queryForList("select id from user where id = ? for update", Long.class, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public DataVersion current(Long userId) {
+        return jdbcTemplate.query("select data_version, data_modified_at from user where id = ?",
+                rs -> rs.next() ? new DataVersion(rs.getLong(1), rs.getTimestamp(2).toInstant())
+                        : new DataVersion(0, Instant.EPOCH), userId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.expense.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Remembers the outcome of writes sent with an {@code Idempotency-Key} header, per user, for a bounded time.
+ * A retry with the same key gets the first response back instead of writing again; a retry that arrives
+ * while the first attempt is still running waits for it. Failed attempts are forgotten so they can be retried.
+ * The TTL should exceed the longest client retry window. Keys are held by the in-memory store for a single
+ * instance, or on a Redis-compatible server when retries may reach another instance.
+ */
+public interface IdempotencyStore {
+
+    int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Runs the write once per (user, key). The fingerprint identifies the request payload:
+     * reusing a key for a different payload is a client bug and is rejected with 422.
+     * Without a key the write simply runs. resultType is what a stored result is read back as.
+     */
+    <T> T execute(Long userId, String key, String fingerprint, Class<T> resultType, Supplier<T> write);
+
+    /**
+     * False when no key was sent; 400 for a key too long to store.
+     */
+    static boolean checkKey(String key) {
+        if (key == null || key.isBlank()) {
+            return false;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return true;
+    }
+}
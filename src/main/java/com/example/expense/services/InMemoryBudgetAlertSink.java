@@ -0,0 +1,54 @@
+package com.example.expense.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.expense.dto.BudgetAlert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps each user's most recent alerts until the client collects them
+ * (GET /api/budgets/alerts). Bounded per user and in the number of users.
+ */
+@Component
+public class InMemoryBudgetAlertSink implements BudgetAlertSink {
+
+    private static final int MAX_PER_USER = 50;
+
+    private final Cache<Long, Deque<BudgetAlert>> pending = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .build();
+
+    @Override
+    public void publish(BudgetAlert alert) {
+        Deque<BudgetAlert> queue = pending.get(alert.getUserId(), id -> new ArrayDeque<>());
+        synchronized (queue) {
+            if (queue.size() == MAX_PER_USER) {
+                queue.removeFirst();
+            }
+            queue.addLast(alert);
+        }
+    }
+
+    /**
+     * Returns and clears the user's pending alerts, oldest first.
+     */
+    public List<BudgetAlert> drain(Long userId) {
+        Deque<BudgetAlert> queue = pending.getIfPresent(userId);
+        if (queue == null) {
+            return new ArrayList<>();
+        }
+        synchronized (queue) {
+            List<BudgetAlert> alerts = new ArrayList<>(queue);
+            queue.clear();
+            return alerts;
+        }
+    }
+}
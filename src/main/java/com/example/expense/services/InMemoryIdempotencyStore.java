@@ -0,0 +1,86 @@
+package com.example.expense.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Idempotency keys in this JVM (app.idempotency.store=memory, the default). Only a retry that
+ * reaches the same instance is recognized, so behind a load balancer without session affinity
+ * use the Redis store. Keys live for the configured TTL, up to max-keys of them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore, MeterBinder {
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long userId, String key, String fingerprint, Class<T> resultType, Supplier<T> write) {
+        if (!IdempotencyStore.checkKey(key)) {
+            return write.get();
+        }
+        String cacheKey = userId + ":" + key;
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        ConcurrentMap<String, Entry> map = entries.asMap();
+        Entry existing = map.putIfAbsent(cacheKey, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request");
+            }
+            try {
+                return (T) existing.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException r ? r : e;
+            }
+        }
+        try {
+            T result = write.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            map.remove(cacheKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency");
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
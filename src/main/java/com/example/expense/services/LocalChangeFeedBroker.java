@@ -0,0 +1,25 @@
+package com.example.expense.services;
+
+import java.util.function.BiConsumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.expense.dto.ChangeEvent;
+
+/**
+ * Single instance (app.feed.broker=memory, the default): there is no other instance to tell,
+ * and ChangeFeedService delivers to its own streams directly.
+ */
+@Component
+@ConditionalOnProperty(name = "app.feed.broker", havingValue = "memory", matchIfMissing = true)
+public class LocalChangeFeedBroker implements ChangeFeedBroker {
+
+    @Override
+    public void publish(Long userId, ChangeEvent event) {
+    }
+
+    @Override
+    public void listen(BiConsumer<Long, ChangeEvent> listener) {
+    }
+}
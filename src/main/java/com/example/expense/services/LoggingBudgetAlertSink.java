@@ -0,0 +1,19 @@
+package com.example.expense.services;
+
+import org.springframework.stereotype.Component;
+
+import com.example.expense.dto.BudgetAlert;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class LoggingBudgetAlertSink implements BudgetAlertSink {
+
+    @Override
+    public void publish(BudgetAlert alert) {
+        log.info("Budget alert: budget={} user={} period={} threshold={}% spent={} limit={}",
+                alert.getBudgetId(), alert.getUserId(), alert.getPeriodStart(), alert.getThresholdPercent(),
+                alert.getSpent(), alert.getLimit());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.expense.services;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps yearly partitions of the transaction table ahead of the calendar by splitting
+ * p_future, so new rows never pile up in the catch-all partition. No-op on databases
+ * without partitioning (H2 in tests).
+ * <p>
+ * Instances starting together would all find the same partition missing, so the check and
+ * the ALTERs run under a MySQL named lock (GET_LOCK), on the connection that holds it.
+ * A failed run is logged and retried on the next schedule instead of failing startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob {
+
+    private static final Pattern YEAR_PARTITION = Pattern.compile("p(\\d{4})");
+    private static final String LOCK_NAME = "expense_tracker.transaction_partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.partitions.years-ahead:1}")
+    private int yearsAhead;
+
+    @Value("${app.partitions.lock-timeout-seconds:30}")
+    private int lockTimeoutSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.maintenance-cron:0 0 4 1 * *}")
+    public void ensureFuturePartitions() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) c -> {
+                if ("MySQL".equalsIgnoreCase(c.getMetaData().getDatabaseProductName())) {
+                    // GET_LOCK belongs to the session, so everything runs on this one connection
+                    withLock(new JdbcTemplate(new SingleConnectionDataSource(c, true)));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Transaction partition maintenance failed, retrying on the next run", e);
+        }
+    }
+
+    private void withLock(JdbcTemplate session) {
+        Integer locked = session.queryForObject("select get_lock(?, ?)", Integer.class, LOCK_NAME, lockTimeoutSeconds);
+        if (locked == null || locked != 1) {
+            log.warn("Transaction partition lock not acquired within {}s, skipping this run", lockTimeoutSeconds);
+            return;
+        }
+        try {
+            addMissingPartitions(session);
+        } finally {
+            session.queryForObject("select release_lock(?)", Integer.class, LOCK_NAME);
+        }
+    }
+
+    // Reads the partitions under the lock: another instance may have just added them
+    private void addMissingPartitions(JdbcTemplate session) {
+        List<String> partitions = session.queryForList(
+                "select partition_name from information_schema.partitions"
+                        + " where table_schema = database() and table_name = 'transaction' and partition_name is not null",
+                String.class);
+        if (!partitions.contains("p_future")) {
+            return;
+        }
+
+        int lastYear = 0;
+        for (String name : partitions) {
+            Matcher m = YEAR_PARTITION.matcher(name);
+            if (m.matches()) {
+                lastYear = Math.max(lastYear, Integer.parseInt(m.group(1)));
+            }
+        }
+        int targetYear = LocalDate.now().getYear() + yearsAhead;
+        for (int year = lastYear + 1; year <= targetYear; year++) {
+            // Splitting the catch-all only moves rows dated in the new year, normally none yet
+            session.execute("alter table transaction reorganize partition p_future into ("
+                    + "partition p" + year + " values less than ('" + (year + 1) + "-01-01'),"
+                    + " partition p_future values less than (maxvalue))");
+            log.info("Added transaction partition p{}", year);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.expense.services;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Posts due recurring transactions periodically, and once at startup to catch up on
+ * occurrences missed while the application was down.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecurringTransactionJob {
+
+    private final RecurringTransactionService recurringService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        recurringService.materializeDue(LocalDate.now());
+    }
+
+    @Scheduled(cron = "${app.recurring.cron:0 */15 * * * *}")
+    public void run() {
+        recurringService.materializeDue(LocalDate.now());
+    }
+}
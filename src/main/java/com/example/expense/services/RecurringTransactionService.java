@@ -0,0 +1,281 @@
+package com.example.expense.services;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.entity.Category;
+import com.example.expense.entity.RecurringRule;
+import com.example.expense.repository.RecurringRuleRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recurring rules and their materialization into transactions.
+ * <p>
+ * Several instances may run the scheduler at once. A rule is only processed under a lease
+ * taken with a compare-and-set update on its row; the lease is released by the same
+ * statement that records progress, inside the transaction that posts the occurrences.
+ * If a lease expires mid-run and another instance posts the same dates, the unique
+ * (recurring_rule_id, date) key rolls the slower transaction back, so nothing is posted twice.
+ * <p>
+ * After downtime each rule catches up in chunks of {@code app.recurring.batch-size}
+ * occurrences: one JDBC batch insert and one summary update per touched month per chunk.
+ */
+@Slf4j
+@Service
+public class RecurringTransactionService {
+
+    private static final String INSERT_SQL =
+            "insert into transaction (amount, currency, date, title, user_id, category_id, recurring_rule_id, change_seq)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final RecurringRuleRepository ruleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryService categoryService;
+    private final SummaryService summaryService;
+    private final TransactionSearchService searchService;
+    private final AnalyticsService analyticsService;
+    private final ChangeFeedService changeFeed;
+    private final DataVersionService dataVersionService;
+    private final CurrencyService currencyService;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+
+    @Value("${app.recurring.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.recurring.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.recurring.create-catch-up:100}")
+    private int createCatchUp;
+
+    public RecurringTransactionService(RecurringRuleRepository ruleRepository, JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate, CategoryService categoryService,
+                                       SummaryService summaryService, TransactionSearchService searchService,
+                                       AnalyticsService analyticsService, ChangeFeedService changeFeed, DataVersionService dataVersionService,
+                                       CurrencyService currencyService, MeterRegistry meterRegistry) {
+        this.ruleRepository = ruleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryService = categoryService;
+        this.summaryService = summaryService;
+        this.searchService = searchService;
+        this.analyticsService = analyticsService;
+        this.changeFeed = changeFeed;
+        this.dataVersionService = dataVersionService;
+        this.currencyService = currencyService;
+        this.meterRegistry = meterRegistry;
+        // pid@host plus a random suffix: unique per instance even on a shared host
+        String id = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.owner = id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+
+    // ============ RULES ============
+
+    @Transactional(readOnly = true)
+    public List<RecurringRule> getRules(Long userId) {
+        return ruleRepository.findByUserIdOrderByIdAsc(userId);
+    }
+
+    /**
+     * Saves a rule. A start date in the past is backfilled by the next run.
+     */
+    @Transactional
+    public RecurringRule create(Long userId, RecurringRule rule) {
+        if (rule.getAmount() == null || rule.getFrequency() == null || rule.getStartDate() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount, frequency and startDate are required");
+        }
+        CurrencyService.requireStorable(rule.getAmount());
+        if (rule.getInterval() == null) {
+            rule.setInterval(1);
+        }
+        if (rule.getInterval() < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Interval must be at least 1");
+        }
+        if (rule.getEndDate() != null && rule.getEndDate().isBefore(rule.getStartDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate is before startDate");
+        }
+        if (rule.getCategoryId() != null && categoryService.findById(rule.getCategoryId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown category " + rule.getCategoryId());
+        }
+        rule.setCurrency(currencyService.resolve(userId, rule.getCurrency()));
+        rule.setId(null);
+        rule.setUserId(userId);
+        rule.setNextRun(rule.getStartDate());
+        rule.setOccurrenceIndex(0L);
+        rule.setClaimedBy(null);
+        rule.setClaimedUntil(null);
+        return ruleRepository.save(rule);
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringRule getRule(Long userId, Long id) {
+        return ruleRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recurring rule not found"));
+    }
+
+    /**
+     * Deletes the rule. Transactions already posted are kept.
+     */
+    @Transactional
+    public void delete(Long userId, Long id) {
+        ruleRepository.delete(getRule(userId, id));
+    }
+
+    // ============ MATERIALIZATION ============
+
+    /**
+     * Posts every occurrence due up to today for all rules this instance can claim.
+     *
+     * @return number of transactions posted
+     */
+    public int materializeDue(LocalDate today) {
+        int posted = 0;
+        Set<Long> failed = new HashSet<>();
+        while (true) {
+            List<Long> ids = ruleRepository.findClaimable(today, System.currentTimeMillis(), PageRequest.of(0, 100));
+            ids.removeAll(failed);
+            if (ids.isEmpty()) {
+                break;
+            }
+            boolean progressed = false;
+            for (Long id : ids) {
+                int count = materializeClaimed(id, today, batchSize);
+                if (count < 0) {
+                    failed.add(id);
+                } else {
+                    progressed = true;
+                    posted += count;
+                }
+            }
+            if (!progressed) {
+                break;
+            }
+        }
+        if (posted > 0) {
+            log.info("Recurring rules: {} transactions posted", posted);
+        }
+        return posted;
+    }
+
+    /**
+     * Catches up a single rule right after it was created, while the request waits. Posts at
+     * most app.recurring.create-catch-up occurrences; a longer backfill is left to the job.
+     */
+    public int materialize(Long ruleId, LocalDate today) {
+        int posted = 0;
+        int count;
+        // Each pass posts one chunk; stop at the cap, when nothing is left or the lease is held elsewhere
+        while (posted < createCatchUp
+                && (count = materializeClaimed(ruleId, today, Math.min(batchSize, createCatchUp - posted))) > 0) {
+            posted += count;
+        }
+        return posted;
+    }
+
+    /**
+     * Claims the rule and posts one chunk of at most {@code limit} due occurrences.
+     *
+     * @return occurrences posted, 0 if the rule was not claimable, -1 on failure
+     */
+    private int materializeClaimed(Long ruleId, LocalDate today, int limit) {
+        long now = System.currentTimeMillis();
+        Integer claimed = transactionTemplate.execute(
+                s -> ruleRepository.claim(ruleId, owner, now, now + leaseSeconds * 1000));
+        if (claimed == null || claimed == 0) {
+            return 0;
+        }
+        try {
+            Integer posted = transactionTemplate.execute(s -> postChunk(ruleId, today, limit));
+            return posted == null ? 0 : posted;
+        } catch (RuntimeException e) {
+            log.warn("Recurring rule {} failed, will retry on the next run: {}", ruleId, e.getMessage());
+            transactionTemplate.executeWithoutResult(s -> ruleRepository.release(ruleId, owner));
+            return -1;
+        }
+    }
+
+    private int postChunk(Long ruleId, LocalDate today, int limit) {
+        RecurringRule rule = ruleRepository.findById(ruleId).orElse(null);
+        if (rule == null) {
+            return 0;
+        }
+        if (rule.getNextRun() == null) {
+            // Ended rule claimed by id; nothing to post
+            ruleRepository.release(ruleId, owner);
+            return 0;
+        }
+        LocalDate until = rule.getEndDate() != null && rule.getEndDate().isBefore(today) ? rule.getEndDate() : today;
+        List<LocalDate> dates = new ArrayList<>();
+        long index = rule.getOccurrenceIndex();
+        LocalDate next = rule.getNextRun();
+        while (!next.isAfter(until) && dates.size() < limit) {
+            dates.add(next);
+            index++;
+            next = rule.getFrequency().occurrence(rule.getStartDate(), rule.getInterval(), index);
+        }
+        if (rule.getEndDate() != null && next.isAfter(rule.getEndDate())) {
+            next = null;
+        }
+
+        // A deleted category posts the occurrences uncategorized
+        Category category = rule.getCategoryId() == null ? null : categoryService.findById(rule.getCategoryId()).orElse(null);
+        if (!dates.isEmpty()) {
+            long changeSeq = dataVersionService.bump(rule.getUserId());
+            jdbcTemplate.batchUpdate(INSERT_SQL, dates, dates.size(), (ps, date) -> {
+                ps.setBigDecimal(1, rule.getAmount());
+                ps.setString(2, rule.getCurrency());
+                ps.setDate(3, Date.valueOf(date));
+                ps.setString(4, rule.getTitle());
+                ps.setLong(5, rule.getUserId());
+                if (category == null) {
+                    ps.setNull(6, Types.BIGINT);
+                } else {
+                    ps.setLong(6, category.getId());
+                }
+                ps.setLong(7, rule.getId());
+                ps.setLong(8, changeSeq);
+            });
+
+            // One summary update per month rather than per occurrence
+            Map<LocalDate, Long> perMonth = new LinkedHashMap<>();
+            for (LocalDate date : dates) {
+                perMonth.merge(date.withDayOfMonth(1), 1L, Long::sum);
+            }
+            perMonth.forEach((month, count) -> summaryService.addDelta(rule.getUserId(), month,
+                    category == null ? null : category.getId(), category == null ? null : category.getType(),
+                    rule.getCurrency(), rule.getAmount().multiply(BigDecimal.valueOf(count)), count));
+            searchService.invalidateAfterCommit(rule.getUserId());
+            analyticsService.invalidateAfterCommit(rule.getUserId());
+            changeFeed.refreshAfterCommit(rule.getUserId());
+        }
+
+        if (ruleRepository.advance(rule.getId(), owner, next, index) != 1) {
+            throw new IllegalStateException("Lease on recurring rule " + rule.getId() + " was lost");
+        }
+        meterRegistry.counter("recurring.transactions.posted").increment(dates.size());
+        return dates.size();
+    }
+}
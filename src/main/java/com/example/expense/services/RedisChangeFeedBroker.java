@@ -0,0 +1,116 @@
+package com.example.expense.services;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.expense.dto.ChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Relays changes through a Redis-compatible server's pub/sub (app.feed.broker=redis). Every
+ * instance publishes its committed changes as JSON on one channel and subscribes to it on a
+ * daemon thread, skipping its own messages, which it has delivered already. Pub/sub delivers at
+ * most once: a message sent while an instance is disconnected is lost to that instance's
+ * streams, and the subscription is retried every second until the server is back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.feed.broker", havingValue = "redis")
+public class RedisChangeFeedBroker implements ChangeFeedBroker, DisposableBean {
+
+    private static final long RESUBSCRIBE_DELAY_MS = 1000;
+
+    private final JedisPooled redis;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String origin = UUID.randomUUID().toString();
+    private final JedisPubSub subscription = new JedisPubSub() {
+        @Override
+        public void onMessage(String channel, String message) {
+            receive(message);
+        }
+    };
+    private volatile BiConsumer<Long, ChangeEvent> listener = (userId, event) -> { };
+    private volatile boolean running = true;
+
+    public RedisChangeFeedBroker(@Value("${app.feed.redis.url:redis://localhost:6379}") String url,
+                                 @Value("${app.feed.redis.channel:expense-tracker:changes}") String channel,
+                                 ObjectMapper objectMapper) {
+        this.redis = new JedisPooled(URI.create(url));
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        Thread subscriber = new Thread(this::subscribe, "change-feed-redis");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    @Override
+    public void publish(Long userId, ChangeEvent event) {
+        try {
+            redis.publish(channel, objectMapper.writeValueAsString(new Message(origin, userId, event)));
+        } catch (JsonProcessingException | JedisException e) {
+            // The write has committed; only streams on other instances miss it
+            log.warn("Could not relay change for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void listen(BiConsumer<Long, ChangeEvent> listener) {
+        this.listener = listener;
+    }
+
+    private void receive(String payload) {
+        try {
+            Message message = objectMapper.readValue(payload, Message.class);
+            if (!origin.equals(message.origin())) {
+                listener.accept(message.userId(), message.event());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignored malformed change feed message: {}", e.getMessage());
+        }
+    }
+
+    // Blocks while subscribed; returns to resubscribe after a lost connection
+    private void subscribe() {
+        while (running) {
+            try {
+                redis.subscribe(subscription, channel);
+            } catch (JedisException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change feed subscription lost, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(RESUBSCRIBE_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (subscription.isSubscribed()) {
+            subscription.unsubscribe();
+        }
+        redis.close();
+    }
+
+    private record Message(String origin, Long userId, ChangeEvent event) {
+    }
+}
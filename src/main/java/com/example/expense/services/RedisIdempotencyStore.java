@@ -0,0 +1,139 @@
+package com.example.expense.services;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * Idempotency keys on a Redis-compatible server (app.idempotency.store=redis), so a retry is
+ * recognized whichever instance it reaches. The first attempt claims the key with SET NX PX,
+ * holding it for pending-ms while the write runs, then replaces the claim with the result as
+ * JSON for ttl-seconds. A failed attempt deletes its own claim. A retry that finds a claim polls
+ * until the result appears; if the claim outlives pending-ms without one, the first attempt is
+ * presumed lost and the retry claims the key itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore, DisposableBean {
+
+    private static final long POLL_MS = 50;
+
+    // Deletes the claim only while it is still ours
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final JedisPooled redis;
+    private final ObjectMapper objectMapper;
+    private final String keyPrefix;
+    private final long ttlMillis;
+    private final long pendingMillis;
+
+    public RedisIdempotencyStore(@Value("${app.idempotency.redis.url:redis://localhost:6379}") String url,
+                                 @Value("${app.idempotency.redis.key-prefix:idempotency:}") String keyPrefix,
+                                 @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                 @Value("${app.idempotency.redis.pending-ms:30000}") long pendingMillis,
+                                 ObjectMapper objectMapper) {
+        this.redis = new JedisPooled(URI.create(url));
+        this.objectMapper = objectMapper;
+        this.keyPrefix = keyPrefix;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.pendingMillis = pendingMillis;
+    }
+
+    @Override
+    public <T> T execute(Long userId, String key, String fingerprint, Class<T> resultType, Supplier<T> write) {
+        if (!IdempotencyStore.checkKey(key)) {
+            return write.get();
+        }
+        String redisKey = keyPrefix + userId + ":" + key;
+        // Payloads can be large; the digest is enough to tell two of them apart
+        String digest = DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8));
+        String claim = write(new Entry(digest, UUID.randomUUID().toString(), null));
+
+        long deadline = System.currentTimeMillis() + pendingMillis;
+        while (redis.set(redisKey, claim, SetParams.setParams().nx().px(pendingMillis)) == null) {
+            String stored = redis.get(redisKey);
+            if (stored == null) {
+                // The first attempt failed and released the key, or it just expired: claim it now
+                continue;
+            }
+            Entry entry = read(stored, Entry.class);
+            if (!entry.fingerprint().equals(digest)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request");
+            }
+            if (entry.result() != null) {
+                return read(entry.result(), resultType);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+
+        T result;
+        try {
+            result = write.get();
+        } catch (RuntimeException e) {
+            redis.eval(RELEASE_SCRIPT, List.of(redisKey), List.of(claim));
+            throw e;
+        }
+        redis.set(redisKey, write(new Entry(digest, null, write(result))), SetParams.setParams().px(ttlMillis));
+        return result;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent result", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotent result", e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        redis.close();
+    }
+
+    // A claim carries its owner's token; a stored result carries the response as JSON
+    private record Entry(String fingerprint, String token, String result) {
+    }
+}
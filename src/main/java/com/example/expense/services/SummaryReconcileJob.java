@@ -0,0 +1,33 @@
+package com.example.expense.services;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.expense.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically reconciles the pre-aggregated summaries with the transaction table,
+ * one user per database transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SummaryReconcileJob {
+
+    private final SummaryService summaryService;
+    private final UserRepository userRepository;
+
+    @Scheduled(cron = "${app.summary.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        int users = 0;
+        int corrected = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            corrected += summaryService.rebuild(userId);
+            users++;
+        }
+        log.info("Summary reconcile finished: {} users checked, {} buckets corrected", users, corrected);
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.expense.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.expense.dto.CategoryTotal;
+import com.example.expense.dto.MonthlyBucketView;
+import com.example.expense.dto.MonthlyTotals;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.MonthlySummary;
+import com.example.expense.entity.Transaction;
+import com.example.expense.repository.CategoryRepository;
+import com.example.expense.repository.MonthlySummaryRepository;
+import com.example.expense.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps per-user running totals by (month, category, type, currency) and answers dashboard
+ * queries from them, so reads cost O(buckets) instead of O(transactions).
+ * Buckets are exact in their own currency and converted to the user's base currency on read,
+ * from the in-memory rate table.
+ */
+@Service
+@RequiredArgsConstructor
+public class SummaryService {
+
+    public static final Long UNCATEGORIZED = 0L;
+    public static final String INCOME = "INCOME";
+    public static final String EXPENSE = "EXPENSE";
+
+    private final MonthlySummaryRepository summaryRepository;
+    private final TransactionRepository transactionRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetService budgetService;
+    private final CurrencyService currencyService;
+    private final DataVersionService dataVersionService;
+
+    // ============ INCREMENTAL UPDATES ============
+
+    /**
+     * Adds a transaction to its bucket. Must run inside the transaction that writes it.
+     */
+    @Transactional
+    public void recordAdded(Transaction t) {
+        apply(t, 1);
+    }
+
+    /**
+     * Removes a transaction from its bucket. For updates, call this before changing
+     * the entity and {@link #recordAdded} afterwards.
+     */
+    @Transactional
+    public void recordRemoved(Transaction t) {
+        apply(t, -1);
+    }
+
+    private void apply(Transaction t, int sign) {
+        if (t.getUser() == null || t.getDate() == null) {
+            return;
+        }
+        Category c = t.getCategory();
+        BigDecimal amount = t.getAmount() == null ? BigDecimal.ZERO : t.getAmount();
+        addDelta(t.getUser().getId(), t.getDate(), c == null ? null : c.getId(), c == null ? null : c.getType(),
+                t.getCurrency(), sign < 0 ? amount.negate() : amount, sign);
+    }
+
+    /**
+     * Adds an aggregated delta to one bucket, e.g. a whole import chunk's rows for that
+     * (month, category, type, currency) at once. Must run inside the writing transaction.
+     */
+    @Transactional
+    public void addDelta(Long userId, LocalDate date, Long categoryId, String categoryType, String currency,
+                         BigDecimal amount, long count) {
+        LocalDate month = monthStart(date);
+        Long bucketCategory = categoryId == null ? UNCATEGORIZED : categoryId;
+        String type = typeOf(categoryType);
+
+        summaryRepository.upsertBucket(userId, month, bucketCategory, type, currency, amount, count);
+        // Every write path (single, update, delete, bulk import) passes through here
+        budgetService.applyDelta(userId, date, categoryId, type, currency, amount);
+    }
+
+    // ============ QUERIES ============
+
+    @Transactional(readOnly = true)
+    public SummaryTotals getTotals(Long userId, YearMonth from, YearMonth to) {
+        String base = currencyService.baseCurrency(userId);
+        List<MonthlySummary> buckets = load(userId, from, to);
+        BigDecimal[] amounts = inBase(buckets, base);
+        SummaryTotals totals = new SummaryTotals();
+        totals.setCurrency(base);
+        for (int i = 0; i < amounts.length; i++) {
+            MonthlySummary s = buckets.get(i);
+            if (INCOME.equals(s.getType())) {
+                totals.setIncome(totals.getIncome().add(amounts[i]));
+            } else {
+                totals.setExpense(totals.getExpense().add(amounts[i]));
+            }
+            totals.setCount(totals.getCount() + s.getCount());
+        }
+        totals.setBalance(totals.getIncome().subtract(totals.getExpense()));
+        return totals;
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlyTotals> getMonthly(Long userId, YearMonth from, YearMonth to) {
+        String base = currencyService.baseCurrency(userId);
+        List<MonthlySummary> buckets = load(userId, from, to);
+        BigDecimal[] amounts = inBase(buckets, base);
+        Map<YearMonth, MonthlyTotals> byMonth = new TreeMap<>();
+        for (int i = 0; i < amounts.length; i++) {
+            MonthlySummary s = buckets.get(i);
+            MonthlyTotals m = byMonth.computeIfAbsent(YearMonth.from(s.getMonthStart()),
+                    k -> new MonthlyTotals(k.toString(), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, base));
+            if (INCOME.equals(s.getType())) {
+                m.setIncome(m.getIncome().add(amounts[i]));
+            } else {
+                m.setExpense(m.getExpense().add(amounts[i]));
+            }
+        }
+        byMonth.values().forEach(m -> m.setBalance(m.getIncome().subtract(m.getExpense())));
+        return new ArrayList<>(byMonth.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryTotal> getByCategory(Long userId, YearMonth from, YearMonth to, String type) {
+        String wantedType = type == null || type.isEmpty() ? null : type.toUpperCase();
+        String base = currencyService.baseCurrency(userId);
+        List<MonthlySummary> buckets = load(userId, from, to);
+        BigDecimal[] amounts = inBase(buckets, base);
+        Map<String, CategoryTotal> byCategory = new LinkedHashMap<>();
+        for (int i = 0; i < amounts.length; i++) {
+            MonthlySummary s = buckets.get(i);
+            if (wantedType != null && !wantedType.equals(s.getType())) {
+                continue;
+            }
+            Long categoryId = UNCATEGORIZED.equals(s.getCategoryId()) ? null : s.getCategoryId();
+            CategoryTotal c = byCategory.computeIfAbsent(categoryId + ":" + s.getType(),
+                    k -> new CategoryTotal(categoryId, null, s.getType(), BigDecimal.ZERO, 0, base));
+            c.setTotal(c.getTotal().add(amounts[i]));
+            c.setCount(c.getCount() + s.getCount());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        byCategory.values().forEach(c -> {
+            if (c.getCategoryId() != null) {
+                ids.add(c.getCategoryId());
+            }
+        });
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAllById(ids)) {
+            names.put(category.getId(), category.getName());
+        }
+        byCategory.values().forEach(c -> c.setCategoryName(
+                c.getCategoryId() == null ? "Uncategorized" : names.getOrDefault(c.getCategoryId(), "Deleted category")));
+        return new ArrayList<>(byCategory.values());
+    }
+
+    private List<MonthlySummary> load(Long userId, YearMonth from, YearMonth to) {
+        LocalDate start = from == null ? LocalDate.of(1970, 1, 1) : from.atDay(1);
+        LocalDate end = to == null ? LocalDate.of(9999, 12, 1) : to.atDay(1);
+        return summaryRepository.findByUserIdAndMonthStartBetween(userId, start, end);
+    }
+
+    /**
+     * Bucket totals in the base currency, in one pass over the buckets. Rates come from the
+     * in-memory table and are looked up once per (currency, month); base-currency buckets
+     * are taken as they are.
+     */
+    private BigDecimal[] inBase(List<MonthlySummary> buckets, String base) {
+        BigDecimal[] amounts = new BigDecimal[buckets.size()];
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (int i = 0; i < amounts.length; i++) {
+            MonthlySummary s = buckets.get(i);
+            if (base.equals(s.getCurrency())) {
+                amounts[i] = s.getTotal();
+            } else {
+                BigDecimal rate = rates.computeIfAbsent(s.getCurrency() + ":" + s.getMonthStart(),
+                        k -> currencyService.rate(s.getCurrency(), base, s.getMonthStart()));
+                amounts[i] = s.getTotal().multiply(rate).setScale(CurrencyService.SCALE, RoundingMode.HALF_EVEN);
+            }
+        }
+        return amounts;
+    }
+
+    // ============ REBUILD ============
+
+    /**
+     * Recomputes a user's buckets from the raw transaction table and fixes any drift
+     * in place: missing buckets are inserted, wrong ones corrected, stale ones removed.
+     * Holds the user's row lock throughout, so no delta of a concurrent write lands between
+     * reading the transactions and writing the absolute totals. Budget counters of the
+     * corrected months were built from the drifted buckets and are recomputed as well.
+     *
+     * @return number of buckets that had to be corrected
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        // Writers take this lock before their bucket deltas; taken before the first read, the
+        // snapshot below includes every write that has already touched the buckets
+        dataVersionService.lock(userId);
+        Map<String, MonthlySummary> expected = new HashMap<>();
+        for (MonthlyBucketView v : transactionRepository.aggregateMonthly(userId)) {
+            LocalDate month = LocalDate.of(v.getPeriodYear(), v.getPeriodMonth(), 1);
+            Long categoryId = v.getCategoryId() == null ? UNCATEGORIZED : v.getCategoryId();
+            String type = typeOf(v.getCategoryType());
+            BigDecimal total = v.getTotal() == null ? BigDecimal.ZERO : v.getTotal();
+            // Category types are free text, so "income" and "INCOME" can land in separate groups
+            expected.merge(key(month, categoryId, type, v.getCurrency()),
+                    new MonthlySummary(null, userId, month, categoryId, type, v.getCurrency(), total, v.getTxnCount()),
+                    (a, b) -> {
+                        a.setTotal(a.getTotal().add(b.getTotal()));
+                        a.setCount(a.getCount() + b.getCount());
+                        return a;
+                    });
+        }
+
+        Set<LocalDate> corrected = new HashSet<>();
+        int count = 0;
+        for (MonthlySummary actual : summaryRepository.findByUserId(userId)) {
+            MonthlySummary want = expected.remove(
+                    key(actual.getMonthStart(), actual.getCategoryId(), actual.getType(), actual.getCurrency()));
+            if (want == null) {
+                summaryRepository.delete(actual);
+                if (actual.getCount() == 0 && actual.getTotal().signum() == 0) {
+                    // Emptied by deletes and moves: cleanup, not drift
+                    continue;
+                }
+            } else if (!Objects.equals(want.getCount(), actual.getCount())
+                    || want.getTotal().compareTo(actual.getTotal()) != 0) {
+                actual.setTotal(want.getTotal());
+                actual.setCount(want.getCount());
+            } else {
+                continue;
+            }
+            corrected.add(actual.getMonthStart());
+            count++;
+        }
+        expected.values().forEach(missing -> corrected.add(missing.getMonthStart()));
+        summaryRepository.saveAll(expected.values());
+        if (!corrected.isEmpty()) {
+            budgetService.reconcile(userId, corrected);
+        }
+        return count + expected.size();
+    }
+
+    private static String key(LocalDate month, Long categoryId, String type, String currency) {
+        return month + ":" + categoryId + ":" + type + ":" + currency;
+    }
+
+    private static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    // Transactions without a (typed) category count as spending, as the dashboard always has
+    static String typeOf(String categoryType) {
+        return categoryType != null && INCOME.equalsIgnoreCase(categoryType.trim()) ? INCOME : EXPENSE;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.expense.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.SyncPage;
+import com.example.expense.dto.SyncRow;
+import com.example.expense.dto.SyncToken;
+import com.example.expense.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Delta sync for clients that keep their own copy of the user's transactions.
+ * <p>
+ * Every write stamps the rows it touches with the owner's new data version (change_seq, see
+ * DataVersionService) and a delete leaves a tombstone at its version, so "what changed since
+ * version N" is a range scan on (user_id, change_seq) instead of a reload of the whole history.
+ * Tombstones are pruned after a retention window; the user's sync_floor records the highest
+ * version pruned, and a client whose token is older than that is told to start over.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    static final int DEFAULT_PAGE_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 2000;
+
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the user's changes after the since token (all rows when it is absent), oldest first,
+     * at most limit rows plus the ids deleted over the same range of versions.
+     */
+    @Transactional(readOnly = true)
+    public SyncPage pull(Long userId, String since, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SyncToken from = null;
+        if (since != null && !since.isEmpty()) {
+            try {
+                from = SyncToken.decode(since);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        long[] state = jdbcTemplate.query("select data_version, sync_floor from user where id = ?",
+                rs -> rs.next() ? new long[] {rs.getLong(1), rs.getLong(2)} : new long[] {0, 0}, userId);
+        long version = state[0];
+        long floor = state[1];
+        // Deletes the client missed may be pruned already, or the token is from another database
+        boolean reset = from != null && (from.getSeq() < floor || from.getSeq() > version);
+        if (from == null || reset) {
+            // Rows written before versions were stamped carry 0
+            from = new SyncToken(-1, null);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<SyncRow> rows = transactionRepository.findChangedSince(userId, from.getSeq(),
+                from.getAfterId() == null ? Long.MAX_VALUE : from.getAfterId(), PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        SyncToken next;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+            SyncRow last = rows.get(size - 1);
+            next = new SyncToken(last.getChangeSeq(), last.getTransaction().getId());
+        } else {
+            // Under READ COMMITTED a write may have committed since the version was read; never go back
+            long seen = rows.isEmpty() ? version : Math.max(version, rows.get(rows.size() - 1).getChangeSeq());
+            next = new SyncToken(seen, null);
+        }
+
+        // Tombstones of a version go out whole, with the first page that reaches it
+        List<Long> deleted = jdbcTemplate.queryForList(
+                "select transaction_id from transaction_tombstone where user_id = ? and change_seq > ? and change_seq <= ?"
+                        + " order by change_seq, transaction_id",
+                Long.class, userId, from.getSeq(), next.getSeq());
+
+        return new SyncPage(rows.stream().map(SyncRow::getTransaction).toList(), deleted, next.encode(), hasMore, reset);
+    }
+
+    /**
+     * Called inside the deleting transaction with the version it bumped to.
+     */
+    @Transactional
+    public void recordDeletion(Long userId, Long transactionId, long changeSeq) {
+        jdbcTemplate.update(
+                "insert into transaction_tombstone (user_id, transaction_id, change_seq, deleted_at) values (?, ?, ?, ?)",
+                userId, transactionId, changeSeq, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Drops tombstones older than the cutoff, first raising each affected user's sync_floor to the
+     * newest version dropped. Returns the number of tombstones removed.
+     */
+    @Transactional
+    public int pruneTombstones(Instant cutoff) {
+        Timestamp before = Timestamp.from(cutoff);
+        jdbcTemplate.update("update user u set sync_floor = greatest(u.sync_floor,"
+                        + " (select max(t.change_seq) from transaction_tombstone t where t.user_id = u.id and t.deleted_at < ?))"
+                        + " where u.id in (select user_id from transaction_tombstone where deleted_at < ?)",
+                before, before);
+        return jdbcTemplate.update("delete from transaction_tombstone where deleted_at < ?", before);
+    }
+}
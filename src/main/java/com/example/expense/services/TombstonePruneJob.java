@@ -0,0 +1,34 @@
+package com.example.expense.services;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically forgets deletes older than the retention window, so the tombstone table stays
+ * proportional to recent activity. Clients offline for longer fall back to a full resync.
+ */
+@Slf4j
+@Component
+public class TombstonePruneJob {
+
+    private final SyncService syncService;
+    private final Duration retention;
+
+    public TombstonePruneJob(SyncService syncService,
+                             @Value("${app.sync.tombstone-retention-days:90}") long retentionDays) {
+        this.syncService = syncService;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-prune-cron:0 45 3 * * *}")
+    public void prune() {
+        int removed = syncService.pruneTombstones(Instant.now().minus(retention));
+        log.info("Tombstone prune finished: {} removed", removed);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.expense.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.expense.dto.SummaryTotals;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes a user's transactions as CSV or PDF straight to an output stream.
+ * Rows come from a forward-only JDBC cursor and are written as they arrive, and the
+ * income/expense totals are summed in the same pass, so memory stays flat for any history size.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    public enum Format { CSV, PDF }
+
+    // Completed PDF table rows are handed to the writer (and released) every this many rows
+    private static final int PDF_FLUSH_ROWS = 200;
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 14, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 10, Font.BOLD);
+    private static final Font CELL_FONT = new Font(Font.HELVETICA, 9);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurrencyService currencyService;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+    @Value("${app.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    public SummaryTotals export(Long userId, LocalDate from, LocalDate to, Format format, OutputStream out)
+            throws IOException {
+        return format == Format.PDF ? writePdf(userId, from, to, out) : writeCsv(userId, from, to, out);
+    }
+
+    // ============ CSV ============
+
+    public SummaryTotals writeCsv(Long userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("Date,Title,Amount,Currency,Category,Type\n");
+
+        SummaryTotals totals = stream(userId, from, to, row -> {
+            try {
+                writer.write((row.date == null ? "" : row.date) + "," + csv(row.title) + "," + amount(row.amount) + ","
+                        + row.currency + "," + csv(row.categoryName) + "," + row.type + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.write("\n");
+        writer.write(",Total Income," + amount(totals.getIncome()) + "," + totals.getCurrency() + ",,\n");
+        writer.write(",Total Expense," + amount(totals.getExpense()) + "," + totals.getCurrency() + ",,\n");
+        writer.write(",Balance," + amount(totals.getBalance()) + "," + totals.getCurrency() + ",,\n");
+        writer.flush();
+        return totals;
+    }
+
+    // ============ PDF ============
+
+    public SummaryTotals writePdf(Long userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Document doc = new Document(PageSize.A4);
+        try {
+            PdfWriter.getInstance(doc, out);
+            doc.open();
+            doc.add(new Paragraph("Transaction Report", TITLE_FONT));
+            doc.add(new Paragraph(rangeLabel(from, to), CELL_FONT));
+            doc.add(new Paragraph(" "));
+
+            PdfPTable table = newTable();
+            int[] pending = {0};
+            SummaryTotals totals = stream(userId, from, to, row -> {
+                table.addCell(cell(row.date == null ? "" : row.date.toString(), Element.ALIGN_LEFT));
+                table.addCell(cell(row.title, Element.ALIGN_LEFT));
+                table.addCell(cell(amount(row.amount) + " " + row.currency, Element.ALIGN_RIGHT));
+                table.addCell(cell(row.categoryName == null ? "N/A" : row.categoryName, Element.ALIGN_LEFT));
+                table.addCell(cell(row.type, Element.ALIGN_LEFT));
+                if (++pending[0] == PDF_FLUSH_ROWS) {
+                    // With an incomplete table, add() writes the finished rows and drops them from memory
+                    addToDocument(doc, table);
+                    pending[0] = 0;
+                }
+            });
+            table.setComplete(true);
+            doc.add(table);
+
+            doc.add(new Paragraph(" "));
+            String currency = " " + totals.getCurrency();
+            doc.add(new Paragraph("Total Income: " + amount(totals.getIncome()) + currency, HEADER_FONT));
+            doc.add(new Paragraph("Total Expense: " + amount(totals.getExpense()) + currency, HEADER_FONT));
+            doc.add(new Paragraph("Balance: " + amount(totals.getBalance()) + currency, HEADER_FONT));
+            return totals;
+        } catch (DocumentException e) {
+            throw new IOException("Failed to render PDF", e);
+        } finally {
+            if (doc.isOpen()) {
+                doc.close();
+            }
+        }
+    }
+
+    private static PdfPTable newTable() {
+        PdfPTable table = new PdfPTable(new float[] {2, 5, 3, 3, 2});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        for (String header : new String[] {"Date", "Title", "Amount", "Category", "Type"}) {
+            table.addCell(new PdfPCell(new Phrase(header, HEADER_FONT)));
+        }
+        return table;
+    }
+
+    private static PdfPCell cell(String text, int align) {
+        PdfPCell cell = new PdfPCell(new Phrase(text == null ? "" : text, CELL_FONT));
+        cell.setHorizontalAlignment(align);
+        return cell;
+    }
+
+    private static void addToDocument(Document doc, PdfPTable table) {
+        try {
+            doc.add(table);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to render PDF", e);
+        }
+    }
+
+    // ============ ROW SOURCE ============
+
+    private SummaryTotals stream(Long userId, LocalDate from, LocalDate to, Consumer<ExportRow> sink) throws IOException {
+        StringBuilder sql = new StringBuilder("select t.date, t.title, t.amount, c.name, c.type, t.currency"
+                + " from transaction t left join category c on c.id = t.category_id"
+                + " where t.user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        if (from != null) {
+            sql.append(" and t.date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and t.date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        sql.append(" order by t.date, t.id");
+
+        // Totals are in the base currency; rows are converted from the in-memory rate table
+        String base = currencyService.baseCurrency(userId);
+        SummaryTotals totals = new SummaryTotals();
+        totals.setCurrency(base);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                return ps;
+            }, (ResultSet rs) -> {
+                ExportRow row = toRow(rs);
+                BigDecimal amount = row.date == null ? row.amount
+                        : currencyService.convert(row.amount, row.currency, base, row.date);
+                if (SummaryService.INCOME.equals(row.type)) {
+                    totals.setIncome(totals.getIncome().add(amount));
+                } else {
+                    totals.setExpense(totals.getExpense().add(amount));
+                }
+                totals.setCount(totals.getCount() + 1);
+                sink.accept(row);
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away mid-download
+            throw e.getCause();
+        }
+        totals.setBalance(totals.getIncome().subtract(totals.getExpense()));
+        return totals;
+    }
+
+    private static ExportRow toRow(ResultSet rs) throws SQLException {
+        ExportRow row = new ExportRow();
+        Date date = rs.getDate(1);
+        row.date = date == null ? null : date.toLocalDate();
+        row.title = rs.getString(2);
+        BigDecimal amount = rs.getBigDecimal(3);
+        row.amount = amount == null ? BigDecimal.ZERO : amount;
+        row.categoryName = rs.getString(4);
+        row.type = SummaryService.typeOf(rs.getString(5));
+        row.currency = rs.getString(6);
+        return row;
+    }
+
+    // ============ FORMATTING ============
+
+    private static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+    }
+
+    private static String rangeLabel(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return "All transactions";
+        }
+        return "From " + (from == null ? "the beginning" : from) + " to " + (to == null ? "today" : to);
+    }
+
+    // Quotes when needed and defuses spreadsheet formulas in free-text fields
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        String v = value;
+        if (!v.isEmpty() && "=+-@".indexOf(v.charAt(0)) >= 0) {
+            v = "'" + v;
+        }
+        if (v.contains(",") || v.contains("\"") || v.contains("\n") || v.contains("\r")) {
+            v = "\"" + v.replace("\"", "\"\"") + "\"";
+        }
+        return v;
+    }
+
+    private static final class ExportRow {
+        private LocalDate date;
+        private String title;
+        private BigDecimal amount;
+        private String currency;
+        private String categoryName;
+        private String type;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.expense.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.dto.ImportResult;
+import com.example.expense.entity.Category;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams bank-statement style CSV or NDJSON into the transaction table.
+ * Rows are parsed one at a time and written in chunks, each chunk in its own database
+ * transaction via a JDBC batch. With rewriteBatchedStatements the MySQL driver sends each
+ * chunk as multi-row INSERTs, which Hibernate cannot do for IDENTITY ids.
+ * Memory use is bounded by the chunk size, not by the upload.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String INSERT_SQL =
+            "insert into transaction (amount, currency, date, title, user_id, category_id, change_seq) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryService categoryService;
+    private final SummaryService summaryService;
+    private final TransactionSearchService searchService;
+    private final AnalyticsService analyticsService;
+    private final ChangeFeedService changeFeed;
+    private final DataVersionService dataVersionService;
+    private final CurrencyService currencyService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Imports every row it can. Invalid rows are skipped and reported; a structurally
+     * broken file stops the import, keeping the chunks already written.
+     */
+    public ImportResult importTransactions(Long userId, InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        CategoryService.Snapshot categories = categoryService.getSnapshot();
+        String baseCurrency = currencyService.currentBaseCurrency(userId);
+        List<Row> chunk = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+
+        try (MappingIterator<Map<String, Object>> rows = open(in, format)) {
+            while (true) {
+                Map<String, Object> raw;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    raw = rows.nextValue();
+                } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                    addError(result, rowNumber, "Malformed input, import stopped: " + e.getMessage());
+                    break;
+                }
+
+                try {
+                    Row row = toRow(raw, categories);
+                    row.currency = row.currency == null ? baseCurrency : currencyService.resolve(userId, row.currency);
+                    chunk.add(row);
+                } catch (IllegalArgumentException e) {
+                    addError(result, rowNumber, e.getMessage());
+                } catch (ResponseStatusException e) {
+                    addError(result, rowNumber, e.getReason());
+                }
+                if (chunk.size() >= batchSize) {
+                    flush(userId, chunk, result);
+                }
+            }
+        }
+        flush(userId, chunk, result);
+
+        long elapsed = System.nanoTime() - start;
+        result.setDurationMs(elapsed / 1_000_000);
+        result.setRowsPerSecond(elapsed == 0 ? 0 : (result.getImported() + result.getFailed()) / (elapsed / 1e9));
+        return result;
+    }
+
+    private MappingIterator<Map<String, Object>> open(InputStream in, Format format) throws IOException {
+        if (format == Format.CSV) {
+            return CSV_MAPPER.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader()).readValues(in);
+        }
+        // NDJSON: a root-level sequence of JSON objects separated by newlines
+        return objectMapper.readerFor(Map.class).readValues(in);
+    }
+
+    private void flush(Long userId, List<Row> chunk, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            long changeSeq = dataVersionService.bump(userId);
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, row) -> {
+                ps.setBigDecimal(1, row.amount);
+                ps.setString(2, row.currency);
+                ps.setDate(3, Date.valueOf(row.date));
+                ps.setString(4, row.title);
+                ps.setLong(5, userId);
+                if (row.category == null) {
+                    ps.setNull(6, Types.BIGINT);
+                } else {
+                    ps.setLong(6, row.category.getId());
+                }
+                ps.setLong(7, changeSeq);
+            });
+
+            // One summary update per touched bucket rather than per row
+            Map<String, Row> buckets = new HashMap<>();
+            Map<String, BigDecimal> sums = new HashMap<>();
+            Map<String, Long> counts = new HashMap<>();
+            for (Row row : chunk) {
+                String key = row.date.withDayOfMonth(1) + ":" + (row.category == null ? null : row.category.getId())
+                        + ":" + row.currency;
+                buckets.putIfAbsent(key, row);
+                sums.merge(key, row.amount, BigDecimal::add);
+                counts.merge(key, 1L, Long::sum);
+            }
+            sums.forEach((key, sum) -> {
+                Row sample = buckets.get(key);
+                Category c = sample.category;
+                summaryService.addDelta(userId, sample.date, c == null ? null : c.getId(),
+                        c == null ? null : c.getType(), sample.currency, sum, counts.get(key));
+            });
+            // Batch inserts return no ids: the user's search index is rebuilt on next use
+            searchService.invalidateAfterCommit(userId);
+            analyticsService.invalidateAfterCommit(userId);
+            changeFeed.refreshAfterCommit(userId);
+        });
+        result.setImported(result.getImported() + chunk.size());
+        chunk.clear();
+    }
+
+    private static Row toRow(Map<String, Object> raw, CategoryService.Snapshot categories) {
+        String date = field(raw, "date");
+        String title = field(raw, "title");
+        String amount = field(raw, "amount");
+        String category = field(raw, "category");
+        String currency = field(raw, "currency");
+
+        if (date == null || title == null || amount == null) {
+            throw new IllegalArgumentException("date, title and amount are required");
+        }
+        Row row = new Row();
+        try {
+            row.date = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + date + "', expected yyyy-MM-dd");
+        }
+        try {
+            row.amount = new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + amount + "'");
+        }
+        CurrencyService.requireStorable(row.amount);
+        row.title = title;
+        row.currency = currency;
+        if (category != null) {
+            row.category = categories.findByName(category);
+            if (row.category == null) {
+                throw new IllegalArgumentException("Unknown category '" + category + "'");
+            }
+        }
+        return row;
+    }
+
+    // Case-insensitive column lookup; blank values count as missing
+    private static String field(Map<String, Object> raw, String name) {
+        for (Map.Entry<String, Object> e : raw.entrySet()) {
+            if (e.getKey() != null && e.getKey().trim().equalsIgnoreCase(name)) {
+                if (e.getValue() == null) {
+                    return null;
+                }
+                String value = String.valueOf(e.getValue()).trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static void addError(ImportResult result, long row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResult.RowError(row, message));
+        }
+    }
+
+    private static final class Row {
+        private LocalDate date;
+        private String title;
+        private BigDecimal amount;
+        private String currency;
+        private Category category;
+    }
+}
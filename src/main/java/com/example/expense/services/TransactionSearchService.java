@@ -0,0 +1,412 @@
+package com.example.expense.services;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process title search: one inverted index per user (term to transaction ids, kept in a
+ * sorted map so prefixes are a range scan) plus the few columns needed to filter and render.
+ * <p>
+ * Single writes from TransactionService update the index after commit. Bulk paths (import,
+ * recurring postings) write through JDBC without ids, so they drop the user's index instead;
+ * it is rebuilt from the database on that user's next search. Each index records the user's
+ * data version it reflects and every search compares it with the database, so an index that
+ * missed writes handled by another instance is rebuilt too. With app.search.warm-on-startup,
+ * indexes are built in the background once the application is ready, up to
+ * {@code app.search.max-users} users, the bound of the cache.
+ * <p>
+ * Every query term must match a title term exactly (score 1), by prefix (less the shorter the
+ * prefix) or within a small edit distance (one edit from 4 letters, two from 8). Results are
+ * ranked by summed score, then newest first.
+ */
+@Slf4j
+@Service
+public class TransactionSearchService {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final String LOAD_SQL =
+            "select id, title, amount, currency, date, category_id, version from transaction where user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryService categoryService;
+    private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final Cache<Long, UserIndex> indexes;
+    private final int maxUsers;
+
+    @Value("${app.search.warm-on-startup:false}")
+    private boolean warmOnStartup;
+
+    public TransactionSearchService(JdbcTemplate jdbcTemplate, CategoryService categoryService,
+                                    UserRepository userRepository, DataVersionService dataVersionService,
+                                    @Value("${app.search.max-users:10000}") int maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryService = categoryService;
+        this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
+        this.maxUsers = maxUsers;
+        this.indexes = Caffeine.newBuilder().maximumSize(maxUsers).build();
+    }
+
+    // ============ SEARCH ============
+
+    /**
+     * Ranked matches for the query among the user's transactions. An empty query returns
+     * the newest transactions within the amount and date ranges.
+     */
+    public List<TransactionView> search(Long userId, String query, BigDecimal minAmount, BigDecimal maxAmount,
+                                        LocalDate from, LocalDate to, int limit) {
+        long version = dataVersionService.current(userId).version();
+        UserIndex index = indexes.get(userId, id -> load(id, version));
+        if (index.version < version) {
+            // Writes this instance did not see, e.g. handled by another instance
+            index = load(userId, version);
+            indexes.put(userId, index);
+        }
+        // Amount bounds apply to the amount as entered, whatever its currency
+        List<Hit> hits = index.search(tokenize(query), doc -> (minAmount == null || doc.amount.compareTo(minAmount) >= 0)
+                && (maxAmount == null || doc.amount.compareTo(maxAmount) <= 0)
+                && (from == null || !doc.date.isBefore(from))
+                && (to == null || !doc.date.isAfter(to)));
+        hits.sort(Comparator.comparingDouble((Hit h) -> h.score).reversed()
+                .thenComparing(h -> h.doc.date, Comparator.reverseOrder())
+                .thenComparing(h -> h.doc.id, Comparator.reverseOrder()));
+
+        List<TransactionView> views = new ArrayList<>(Math.min(limit, hits.size()));
+        for (Hit hit : hits.subList(0, Math.min(limit, hits.size()))) {
+            Doc d = hit.doc;
+            Category c = d.categoryId == null ? null : categoryService.findById(d.categoryId).orElse(null);
+            views.add(new TransactionView(d.id, d.title, d.amount, d.currency, d.date, c, d.version));
+        }
+        return views;
+    }
+
+    // ============ MAINTENANCE ============
+
+    /**
+     * Adds or replaces the transaction once the surrounding database transaction commits.
+     */
+    public void indexAfterCommit(Transaction t) {
+        Long userId = t.getUser().getId();
+        // Built after commit so the doc carries the version assigned at flush.
+        // Only indexes already built are updated; others load the row with the rest
+        afterCommit(() -> {
+            Doc doc = new Doc(t.getId(), t.getTitle(), t.getAmount(), t.getCurrency(), t.getDate(),
+                    t.getCategory() == null ? null : t.getCategory().getId(), t.getVersion());
+            indexes.asMap().computeIfPresent(userId, (k, index) -> {
+                index.put(doc, t.getChangeSeq());
+                return index;
+            });
+        });
+    }
+
+    /**
+     * Removes the transaction once the surrounding database transaction commits; changeSeq is
+     * the data version the delete bumped to.
+     */
+    public void removeAfterCommit(Long userId, Long transactionId, long changeSeq) {
+        afterCommit(() -> indexes.asMap().computeIfPresent(userId, (k, index) -> {
+            index.remove(transactionId, changeSeq);
+            return index;
+        }));
+    }
+
+    /**
+     * Drops the user's index after commit, for writes that do not know the new ids.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        afterCommit(() -> indexes.invalidate(userId));
+    }
+
+    // Off the startup thread: readiness is only reported once ApplicationReadyEvent listeners return
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmOnStartup) {
+            Thread.ofVirtual().name("search-warm-up").start(this::buildIndexes);
+        }
+    }
+
+    private void buildIndexes() {
+        long start = System.nanoTime();
+        int users = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            if (users++ >= maxUsers) {
+                break;
+            }
+            indexes.get(userId, id -> load(id, dataVersionService.current(id).version()));
+        }
+        log.info("Search index built for {} users in {} ms", Math.min(users, maxUsers),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // version is read before the rows, so the index holds at least the writes up to it
+    private UserIndex load(Long userId, long version) {
+        UserIndex index = new UserIndex(version);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            Date date = rs.getDate(5);
+            long categoryId = rs.getLong(6);
+            // wasNull() refers to the last column read, so check it before reading the others
+            Long category = rs.wasNull() ? null : categoryId;
+            index.put(new Doc(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getString(4),
+                    date == null ? null : date.toLocalDate(), category, rs.getLong(7)), version);
+        }, userId);
+        return index;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Lower-cased, accents stripped, split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static int maxEdits(String term) {
+        return term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * Levenshtein distance, or max + 1 as soon as it is known to exceed max.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[b.length()];
+    }
+
+    // ============ INDEX ============
+
+    private static final class Doc {
+        private final long id;
+        private final String title;
+        private final BigDecimal amount;
+        private final String currency;
+        private final LocalDate date;
+        private final Long categoryId;
+        private final Long version;
+
+        private Doc(long id, String title, BigDecimal amount, String currency, LocalDate date, Long categoryId,
+                    Long version) {
+            this.id = id;
+            this.title = title;
+            this.amount = amount == null ? BigDecimal.ZERO : amount;
+            this.currency = currency;
+            this.date = date == null ? LocalDate.MIN : date;
+            this.categoryId = categoryId;
+            this.version = version;
+        }
+    }
+
+    private static final class Hit {
+        private final Doc doc;
+        private final double score;
+
+        private Hit(Doc doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private static final class UserIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        // Data version the index is complete up to; only advanced by the write right after it
+        private volatile long version;
+
+        private UserIndex(long version) {
+            this.version = version;
+        }
+
+        void put(Doc doc, long changeSeq) {
+            lock.writeLock().lock();
+            try {
+                advance(changeSeq);
+                removeLocked(doc.id);
+                docs.put(doc.id, doc);
+                for (String term : new HashSet<>(tokenize(doc.title))) {
+                    postings.computeIfAbsent(term, k -> new HashSet<>()).add(doc.id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id, long changeSeq) {
+            lock.writeLock().lock();
+            try {
+                advance(changeSeq);
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // A gap means a write missed here; the version stays behind and the next search rebuilds
+        private void advance(long changeSeq) {
+            if (changeSeq == version + 1) {
+                version = changeSeq;
+            }
+        }
+
+        private void removeLocked(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String term : tokenize(old.title)) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        List<Hit> search(List<String> tokens, Predicate<Doc> filter) {
+            lock.readLock().lock();
+            try {
+                List<Hit> hits = new ArrayList<>();
+                if (tokens.isEmpty()) {
+                    for (Doc doc : docs.values()) {
+                        if (filter.test(doc)) {
+                            hits.add(new Hit(doc, 0));
+                        }
+                    }
+                    return hits;
+                }
+                Map<Long, Double> scores = null;
+                for (String token : tokens) {
+                    Map<Long, Double> tokenScores = match(token);
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        // Every token must match: keep the intersection, summing scores
+                        Map<Long, Double> merged = new HashMap<>();
+                        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                            Double s = tokenScores.get(e.getKey());
+                            if (s != null) {
+                                merged.put(e.getKey(), e.getValue() + s);
+                            }
+                        }
+                        scores = merged;
+                    }
+                    if (scores.isEmpty()) {
+                        return hits;
+                    }
+                }
+                for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                    Doc doc = docs.get(e.getKey());
+                    if (filter.test(doc)) {
+                        hits.add(new Hit(doc, e.getValue()));
+                    }
+                }
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Best score per transaction for one query token
+        private Map<Long, Double> match(String token) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> e : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                double score = e.getKey().length() == token.length() ? 1.0 : 0.5 + 0.4 * token.length() / e.getKey().length();
+                addAll(scores, e.getValue(), score);
+            }
+            int max = maxEdits(token);
+            if (max > 0) {
+                for (Map.Entry<String, Set<Long>> e : postings.entrySet()) {
+                    String term = e.getKey();
+                    if (term.startsWith(token)) {
+                        continue;
+                    }
+                    int d = distance(token, term, max);
+                    if (d <= max) {
+                        addAll(scores, e.getValue(), 0.5 - 0.15 * d);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private static void addAll(Map<Long, Double> scores, Set<Long> ids, double score) {
+            for (Long id : ids) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package com.example.expense.services;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.expense.dto.ChangeEvent;
+import com.example.expense.dto.SyncUpload;
+import com.example.expense.dto.SyncUploadResult;
+import com.example.expense.dto.TransactionCursor;
+import com.example.expense.dto.TransactionPage;
+import com.example.expense.dto.TransactionView;
 import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
 import com.example.expense.repository.TransactionRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -13,19 +28,226 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionService {
 
+	static final int DEFAULT_PAGE_SIZE = 50;
+	static final int MAX_PAGE_SIZE = 200;
+	static final int MAX_SYNC_UPLOAD = 500;
 	
 	private final TransactionRepository transactionRepository;
+	private final CategoryService categoryService;
+	private final SummaryService summaryService;
+	private final TransactionSearchService searchService;
+	private final AnalyticsService analyticsService;
+	private final CurrencyService currencyService;
+	private final ChangeFeedService changeFeed;
+	private final DataVersionService dataVersionService;
+	private final SyncService syncService;
 
+    @Transactional
     public Transaction addTransaction(Transaction t) {
-        return transactionRepository.save(t);
+        requireDate(t);
+        CurrencyService.requireStorable(t.getAmount());
+        resolveCategory(t);
+        t.setCurrency(currencyService.resolve(t.getUser().getId(), t.getCurrency()));
+        // A client-supplied version would make the row look already persisted
+        t.setVersion(null);
+        t.setChangeSeq(dataVersionService.bump(t.getUser().getId()));
+        Transaction saved = transactionRepository.save(t);
+        summaryService.recordAdded(saved);
+        searchService.indexAfterCommit(saved);
+        analyticsService.recordAfterCommit(saved);
+        changeFeed.publishAfterCommit(ChangeEvent.Op.CREATED, saved);
+        return saved;
     }
 
-    public List<Transaction> getTransactionsByUser(Long userId) {
-        return transactionRepository.findByUserId(userId);
+    /**
+     * Replaces the editable fields of one of the user's transactions. When updated carries a version
+     * it must match the stored one, otherwise the edit was made against stale data and is rejected with 409.
+     */
+    @Transactional
+    public Transaction updateTransaction(Long userId, Long id, Transaction updated) {
+        requireDate(updated);
+        CurrencyService.requireStorable(updated.getAmount());
+        resolveCategory(updated);
+        Transaction txn = loadForWrite(userId, id, updated.getVersion());
+        // Before the buckets are touched: the user row is always the first lock a write takes
+        long changeSeq = dataVersionService.bump(userId);
+        summaryService.recordRemoved(txn);
+        txn.setTitle(updated.getTitle());
+        txn.setAmount(updated.getAmount());
+        if (updated.getCurrency() != null) {
+            txn.setCurrency(currencyService.resolve(txn.getUser().getId(), updated.getCurrency()));
+        }
+        txn.setDate(updated.getDate());
+        txn.setCategory(updated.getCategory());
+        txn.setChangeSeq(changeSeq);
+        Transaction saved = flush(txn);
+        summaryService.recordAdded(saved);
+        searchService.indexAfterCommit(saved);
+        analyticsService.recordAfterCommit(saved);
+        changeFeed.publishAfterCommit(ChangeEvent.Op.UPDATED, saved);
+        return saved;
     }
 
-    public void deleteTransaction(Long id) {
-        transactionRepository.deleteById(id);
+    /**
+     * Applies only the non-null fields of changes; the version check is as for updateTransaction.
+     * Title-only edits leave the summaries and budgets untouched, and the UPDATE names changed columns only.
+     */
+    @Transactional
+    public Transaction patchTransaction(Long userId, Long id, Transaction changes) {
+        CurrencyService.requireStorable(changes.getAmount());
+        resolveCategory(changes);
+        Transaction txn = loadForWrite(userId, id, changes.getVersion());
+        boolean moved = changes.getAmount() != null || changes.getDate() != null
+                || changes.getCategory() != null || changes.getCurrency() != null;
+        long changeSeq = dataVersionService.bump(userId);
+        if (moved) {
+            summaryService.recordRemoved(txn);
+        }
+        if (changes.getTitle() != null) {
+            txn.setTitle(changes.getTitle());
+        }
+        if (changes.getAmount() != null) {
+            txn.setAmount(changes.getAmount());
+        }
+        if (changes.getCurrency() != null) {
+            txn.setCurrency(currencyService.resolve(txn.getUser().getId(), changes.getCurrency()));
+        }
+        if (changes.getDate() != null) {
+            txn.setDate(changes.getDate());
+        }
+        if (changes.getCategory() != null) {
+            txn.setCategory(changes.getCategory());
+        }
+        txn.setChangeSeq(changeSeq);
+        Transaction saved = flush(txn);
+        if (moved) {
+            summaryService.recordAdded(saved);
+        }
+        searchService.indexAfterCommit(saved);
+        analyticsService.recordAfterCommit(saved);
+        changeFeed.publishAfterCommit(ChangeEvent.Op.UPDATED, saved);
+        return saved;
+    }
+
+    /**
+     * Applies the changes an offline client queued, in one database transaction: creates and patches
+     * in order, then deletes. Any failure (unknown category, stale version, ...) rolls back the whole
+     * batch and the error names the upsert that failed, so the client can pull, rebase and retry.
+     */
+    @Transactional
+    public SyncUploadResult applySyncUpload(Long userId, User owner, SyncUpload upload) {
+        if (upload.getUpserts().size() + upload.getDeletes().size() > MAX_SYNC_UPLOAD) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_SYNC_UPLOAD + " changes per upload");
+        }
+        List<TransactionView> saved = new ArrayList<>();
+        for (int i = 0; i < upload.getUpserts().size(); i++) {
+            Transaction t = upload.getUpserts().get(i);
+            try {
+                if (t.getId() == null) {
+                    t.setUser(owner);
+                    saved.add(TransactionView.from(addTransaction(t)));
+                } else {
+                    saved.add(TransactionView.from(patchTransaction(userId, t.getId(), t)));
+                }
+            } catch (ResponseStatusException e) {
+                throw new ResponseStatusException(e.getStatusCode(), "upserts[" + i + "]: " + e.getReason());
+            }
+        }
+        upload.getDeletes().forEach(id -> deleteTransaction(userId, id));
+        return new SyncUploadResult(saved, upload.getDeletes());
+    }
+
+    /**
+     * Lists one page of the user's transactions, newest first.
+     * Pages are addressed by the opaque cursor returned with the previous page,
+     * so each call reads at most limit + 1 rows regardless of history size.
+     * The page carries the user's data version as of the same read.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<TransactionView> listTransactions(Long userId, LocalDate from, LocalDate to,
+                                                         Long categoryId, String type, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TransactionCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = TransactionCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        String normalizedType = type == null || type.isEmpty() ? null : type.toUpperCase();
+
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionView> rows = transactionRepository.findPage(userId, from, to, categoryId, normalizedType,
+                after == null ? null : after.getDate(),
+                after == null ? null : after.getId(),
+                PageRequest.of(0, size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            TransactionView last = rows.get(size - 1);
+            nextCursor = new TransactionCursor(last.getDate(), last.getId()).encode();
+        }
+        return new TransactionPage<>(rows, nextCursor, dataVersionService.current(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TransactionView> getTransaction(Long userId, Long id) {
+        return transactionRepository.findWithCategoryByIdAndUserId(id, userId).map(TransactionView::from);
+    }
+
+    // Deleting a row that is gone, or not the user's, changes nothing
+    @Transactional
+    public void deleteTransaction(Long userId, Long id) {
+        transactionRepository.findWithCategoryByIdAndUserId(id, userId).ifPresent(t -> {
+            long changeSeq = dataVersionService.bump(userId);
+            summaryService.recordRemoved(t);
+            transactionRepository.delete(t);
+            searchService.removeAfterCommit(userId, t.getId(), changeSeq);
+            analyticsService.removeAfterCommit(userId, t.getId(), changeSeq);
+            changeFeed.publishDeletedAfterCommit(userId, t.getId());
+            syncService.recordDeletion(userId, t.getId(), changeSeq);
+        });
+    }
+
+    private Transaction loadForWrite(Long userId, Long id, Long expectedVersion) {
+        // With its category: the returned row is rendered after the session has closed
+        Transaction txn = transactionRepository.findWithCategoryByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
+        if (expectedVersion != null && !expectedVersion.equals(txn.getVersion())) {
+            throw staleVersion();
+        }
+        return txn;
+    }
+
+    // Flush now so a concurrent edit that committed since the read surfaces here as 409, not at commit
+    private Transaction flush(Transaction txn) {
+        try {
+            return transactionRepository.saveAndFlush(txn);
+        } catch (OptimisticLockingFailureException e) {
+            throw staleVersion();
+        }
+    }
+
+    private static ResponseStatusException staleVersion() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Transaction was modified by another request; reload it and retry");
+    }
+
+    private static void requireDate(Transaction t) {
+        if (t.getDate() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date is required");
+        }
+    }
+
+    // Request bodies carry only the category id; resolve it from the cached catalog so its type is known
+    private void resolveCategory(Transaction t) {
+        if (t.getCategory() != null && t.getCategory().getId() != null) {
+            t.setCategory(categoryService.findById(t.getCategory().getId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown category")));
+        }
     }
 }
 
@@ -2,11 +2,17 @@ package com.example.expense.services;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.example.expense.entity.User;
 import com.example.expense.repository.UserRepository;
+import com.example.expense.security.AuthenticatedUser;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,18 +23,54 @@ public class UserService {
 	
 	 private final UserRepository userRepository;
 	    private final PasswordEncoder passwordEncoder;
+	    private final CurrencyService currencyService;
+	    private final BudgetService budgetService;
+	    private final DataVersionService dataVersionService;
 
 	    public User register(User user) {
 	        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
 	            throw new RuntimeException("Email already exists");
 	        }
 	        user.setPassword(passwordEncoder.encode(user.getPassword()));
+	        if (user.getBaseCurrency() != null) {
+	            user.setBaseCurrency(CurrencyService.normalize(user.getBaseCurrency()));
+	        }
 	        return userRepository.save(user);
 	    }
 
+	    /**
+	     * Switches the currency summaries and budgets are reported in. Budget counters are
+	     * dropped and rebuilt from the summaries in the new currency. Holds the user's row lock,
+	     * so no write of the user converts a delta between the change and the reset.
+	     */
+	    @Transactional
+	    public void changeBaseCurrency(Long userId, String currency) {
+	        dataVersionService.lock(userId);
+	        currencyService.setBaseCurrency(userId, currency);
+	        budgetService.resetCounters(userId);
+	    }
+
 	    public Optional<User> findByEmail(String email) {
 	        return userRepository.findByEmail(email);
 	    }
-	}
 
+	    /**
+	     * Returns the id of the user behind the current request's JWT, straight from the
+	     * security principal (no query). Responds with 401 when the request is not authenticated.
+	     */
+	    public Long getCurrentUserId() {
+	        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+	        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser)) {
+	            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+	        }
+	        return ((AuthenticatedUser) auth.getPrincipal()).getId();
+	    }
+
+	    /**
+	     * Lazy reference to the current user, for setting associations without loading the row.
+	     */
+	    public User getCurrentUserReference() {
+	        return userRepository.getReferenceById(getCurrentUserId());
+	    }
+	}
 
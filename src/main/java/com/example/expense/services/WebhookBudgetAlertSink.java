@@ -0,0 +1,59 @@
+package com.example.expense.services;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.expense.dto.BudgetAlert;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Posts each alert as JSON to app.budgets.webhook-url, fire and forget.
+ * Only active when the URL is configured; there is no retry.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.budgets.webhook-url")
+public class WebhookBudgetAlertSink implements BudgetAlertSink {
+
+    private final URI url;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public WebhookBudgetAlertSink(@Value("${app.budgets.webhook-url}") String url, ObjectMapper objectMapper) {
+        this.url = URI.create(url);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(BudgetAlert alert) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(alert);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Budget webhook failed: {}", error.getMessage());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Budget webhook answered {}", response.statusCode());
+                    }
+                });
+    }
+}
@@ -0,0 +1,27 @@
+-- Pre-aggregated totals (see the MySQL script)
+
+create table if not exists monthly_summary (
+    id          bigint generated by default as identity,
+    user_id     bigint           not null,
+    month_start date             not null,
+    category_id bigint           not null,
+    type        varchar(16)      not null,
+    total       double precision not null,
+    txn_count   bigint           not null,
+    primary key (id),
+    constraint uk_summary_bucket unique (user_id, month_start, category_id, type)
+);
+
+insert into monthly_summary (user_id, month_start, category_id, type, total, txn_count)
+select t.user_id,
+       dateadd(day, 1 - day_of_month(t.date), t.date),
+       coalesce(t.category_id, 0),
+       case when upper(trim(c.type)) = 'INCOME' then 'INCOME' else 'EXPENSE' end,
+       sum(coalesce(t.amount, 0)),
+       count(*)
+from transaction t
+left join category c on c.id = t.category_id
+where t.user_id is not null and t.date is not null
+  and not exists (select 1 from monthly_summary)
+group by t.user_id, dateadd(day, 1 - day_of_month(t.date), t.date), coalesce(t.category_id, 0),
+         case when upper(trim(c.type)) = 'INCOME' then 'INCOME' else 'EXPENSE' end;
@@ -0,0 +1,27 @@
+-- H2 (tests, benchmarks): same tables as the MySQL baseline.
+
+create table user (
+    id       bigint generated by default as identity,
+    email    varchar(255) not null,
+    username varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint uk_user_email unique (email)
+);
+
+create table category (
+    id   bigint generated by default as identity,
+    name varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create table transaction (
+    id          bigint generated by default as identity,
+    amount      double precision,
+    date        date,
+    title       varchar(255),
+    user_id     bigint,
+    category_id bigint,
+    primary key (id)
+);
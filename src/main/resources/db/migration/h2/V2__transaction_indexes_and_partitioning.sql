@@ -0,0 +1,8 @@
+-- H2 has no table partitioning; the key and index layout matches MySQL so query plans
+-- and constraints behave the same in tests.
+
+alter table transaction alter column date set not null;
+alter table transaction drop primary key;
+alter table transaction add primary key (id, date);
+create index idx_transaction_user_date_id on transaction (user_id, date, id);
+create index idx_transaction_category on transaction (category_id);
@@ -0,0 +1,24 @@
+-- Exact amounts and per-row currencies (see the MySQL script)
+
+alter table transaction alter column amount set data type decimal(19, 4);
+alter table transaction add column currency varchar(3) default 'INR' not null;
+
+alter table monthly_summary alter column total set data type decimal(19, 4);
+alter table monthly_summary add column currency varchar(3) default 'INR' not null;
+alter table monthly_summary drop constraint uk_summary_bucket;
+alter table monthly_summary add constraint uk_summary_bucket unique (user_id, month_start, category_id, type, currency);
+
+alter table budget alter column limit_amount set data type decimal(19, 4);
+alter table budget_spend alter column spent set data type decimal(19, 4);
+
+alter table recurring_rule alter column amount set data type decimal(19, 4);
+alter table recurring_rule add column currency varchar(3) default 'INR' not null;
+
+alter table user add column base_currency varchar(3);
+
+create table fx_rate (
+    currency  varchar(3)      not null,
+    rate_date date            not null,
+    per_pivot decimal(24, 10) not null,
+    primary key (currency, rate_date)
+);
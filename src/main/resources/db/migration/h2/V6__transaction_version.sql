@@ -0,0 +1,2 @@
+-- Optimistic locking counter (see the MySQL script)
+alter table transaction add column version bigint default 0 not null;
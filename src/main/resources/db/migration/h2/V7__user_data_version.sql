@@ -0,0 +1,3 @@
+-- Per-user change counter (see the MySQL script)
+alter table user add column data_version bigint default 0 not null;
+alter table user add column data_modified_at timestamp(3) default current_timestamp not null;
@@ -0,0 +1,16 @@
+-- Delta sync (see the MySQL script)
+alter table transaction add column change_seq bigint default 0 not null;
+create index idx_transaction_user_change on transaction (user_id, change_seq, id);
+
+create table transaction_tombstone (
+    user_id        bigint not null,
+    transaction_id bigint not null,
+    change_seq     bigint not null,
+    deleted_at     timestamp(3) not null,
+    primary key (user_id, transaction_id)
+);
+
+create index idx_tombstone_user_change on transaction_tombstone (user_id, change_seq);
+create index idx_tombstone_deleted_at on transaction_tombstone (deleted_at);
+
+alter table user add column sync_floor bigint default 0 not null;
@@ -0,0 +1,32 @@
+-- Pre-aggregated totals per (user, month, category, type); see SummaryService.
+-- Runs after the baseline, so databases upgraded from the Hibernate-generated schema get it
+-- too. One created earlier by ddl-auto is kept as it is and only moved to InnoDB.
+
+create table if not exists monthly_summary (
+    id          bigint      not null auto_increment,
+    user_id     bigint      not null,
+    month_start date        not null,
+    category_id bigint      not null,
+    type        varchar(16) not null,
+    total       double      not null,
+    txn_count   bigint      not null,
+    primary key (id),
+    constraint uk_summary_bucket unique (user_id, month_start, category_id, type)
+) engine = InnoDB;
+
+alter table monthly_summary engine = InnoDB;
+
+-- Seed from existing transactions, as SummaryService.rebuild would, unless buckets exist already
+insert into monthly_summary (user_id, month_start, category_id, type, total, txn_count)
+select t.user_id,
+       t.date - interval (dayofmonth(t.date) - 1) day,
+       coalesce(t.category_id, 0),
+       case when upper(trim(c.type)) = 'INCOME' then 'INCOME' else 'EXPENSE' end,
+       sum(coalesce(t.amount, 0)),
+       count(*)
+from transaction t
+left join category c on c.id = t.category_id
+where t.user_id is not null and t.date is not null
+  and not exists (select 1 from monthly_summary)
+group by t.user_id, t.date - interval (dayofmonth(t.date) - 1) day, coalesce(t.category_id, 0),
+         case when upper(trim(c.type)) = 'INCOME' then 'INCOME' else 'EXPENSE' end;
@@ -0,0 +1,28 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update): only the original tables.
+-- Databases that already have it are baselined at version 1 and start at V1.1.
+
+create table user (
+    id       bigint       not null auto_increment,
+    email    varchar(255) not null,
+    username varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint uk_user_email unique (email)
+) engine = InnoDB;
+
+create table category (
+    id   bigint       not null auto_increment,
+    name varchar(255),
+    type varchar(255),
+    primary key (id)
+) engine = InnoDB;
+
+create table transaction (
+    id          bigint       not null auto_increment,
+    amount      double,
+    date        date,
+    title       varchar(255),
+    user_id     bigint,
+    category_id bigint,
+    primary key (id)
+) engine = InnoDB;
@@ -0,0 +1,54 @@
+-- Range-partitions transaction by year of date so date-bounded queries prune old partitions,
+-- and declares the indexes the listing, filters and category lookups rely on.
+-- Written to converge both a fresh V1 schema and one created earlier by ddl-auto.
+--
+-- MySQL requires the partitioning column in every unique key, so the primary key becomes
+-- (id, date) and date becomes mandatory. Partitioned InnoDB tables cannot have foreign keys;
+-- ownership and category references are enforced by the application.
+-- PartitionMaintenanceJob adds next year's partition ahead of time.
+
+-- Foreign keys were created by Hibernate under generated names
+set @fks = (select group_concat(concat('drop foreign key `', constraint_name, '`'))
+            from information_schema.table_constraints
+            where table_schema = database() and table_name = 'transaction' and constraint_type = 'FOREIGN KEY');
+set @ddl = if(@fks is null, 'do 0', concat('alter table transaction ', @fks));
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- Older Hibernate MySQL dialects defaulted to MyISAM, which has neither row locks nor
+-- rollback; the per-user locking and change sequence depend on both
+alter table user engine = InnoDB;
+alter table category engine = InnoDB;
+alter table transaction engine = InnoDB;
+
+-- Drop every secondary index; they are recreated below under known names
+set @idx = (select group_concat(distinct concat('drop index `', index_name, '`'))
+            from information_schema.statistics
+            where table_schema = database() and table_name = 'transaction' and index_name <> 'PRIMARY');
+set @ddl = if(@idx is null, 'do 0', concat('alter table transaction ', @idx));
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- Rows without a date were unreachable by every date filter; park them at the epoch
+update transaction set date = '1970-01-01' where date is null;
+
+alter table transaction
+    modify date date not null,
+    drop primary key,
+    add primary key (id, date),
+    -- Per-user keyset listing: equality on user_id, then (date, id) range and order
+    add index idx_transaction_user_date_id (user_id, date, id),
+    -- Category filter and category deletion checks
+    add index idx_transaction_category (category_id);
+
+alter table transaction partition by range columns (date) (
+    partition p_before_2023 values less than ('2023-01-01'),
+    partition p2023 values less than ('2024-01-01'),
+    partition p2024 values less than ('2025-01-01'),
+    partition p2025 values less than ('2026-01-01'),
+    partition p2026 values less than ('2027-01-01'),
+    partition p2027 values less than ('2028-01-01'),
+    partition p_future values less than (maxvalue)
+);
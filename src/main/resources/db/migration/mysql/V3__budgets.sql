@@ -0,0 +1,22 @@
+-- Budgets and their per-period spend counters (see BudgetService)
+
+create table budget (
+    id           bigint not null auto_increment,
+    user_id      bigint not null,
+    category_id  bigint,
+    period       varchar(16) not null,
+    limit_amount double not null,
+    primary key (id)
+) engine = InnoDB;
+
+create index idx_budget_user on budget (user_id);
+
+create table budget_spend (
+    id               bigint not null auto_increment,
+    budget_id        bigint not null,
+    period_start     date not null,
+    spent            double not null,
+    notified_percent int not null,
+    primary key (id),
+    constraint uk_budget_spend_period unique (budget_id, period_start)
+) engine = InnoDB;
@@ -0,0 +1,27 @@
+-- Recurring transaction rules, posted by RecurringTransactionJob via RecurringTransactionService
+
+create table recurring_rule (
+    id               bigint not null auto_increment,
+    user_id          bigint not null,
+    category_id      bigint,
+    title            varchar(255),
+    amount           double not null,
+    frequency        varchar(16) not null,
+    interval_count   int not null,
+    start_date       date not null,
+    end_date         date,
+    next_run         date,
+    occurrence_index bigint not null,
+    claimed_by       varchar(64),
+    claimed_until    bigint,
+    primary key (id)
+) engine = InnoDB;
+
+create index idx_recurring_rule_due on recurring_rule (next_run);
+create index idx_recurring_rule_user on recurring_rule (user_id);
+
+-- Materialized occurrences point back at their rule. At most one posting per rule and
+-- date, so a rerun after a lost lease fails instead of double-posting. The key includes
+-- date, the partitioning column, as MySQL requires for unique keys on partitioned tables.
+alter table transaction add column recurring_rule_id bigint;
+create unique index uk_transaction_recurring on transaction (recurring_rule_id, date);
@@ -0,0 +1,29 @@
+-- Exact amounts and per-row currencies. Existing rows were entered in rupees.
+
+alter table transaction
+    modify amount decimal(19, 4),
+    add column currency varchar(3) not null default 'INR';
+
+alter table monthly_summary
+    modify total decimal(19, 4) not null,
+    add column currency varchar(3) not null default 'INR',
+    drop index uk_summary_bucket,
+    add constraint uk_summary_bucket unique (user_id, month_start, category_id, type, currency);
+
+alter table budget modify limit_amount decimal(19, 4) not null;
+alter table budget_spend modify spent decimal(19, 4) not null;
+
+alter table recurring_rule
+    modify amount decimal(19, 4) not null,
+    add column currency varchar(3) not null default 'INR';
+
+-- Null means the application default (app.currency.default)
+alter table user add column base_currency varchar(3);
+
+-- Units of each currency per one unit of the pivot currency (app.fx.pivot), by effective date
+create table fx_rate (
+    currency  varchar(3)     not null,
+    rate_date date           not null,
+    per_pivot decimal(24, 10) not null,
+    primary key (currency, rate_date)
+) engine = InnoDB;
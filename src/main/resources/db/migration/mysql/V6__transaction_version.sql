@@ -0,0 +1,2 @@
+-- Optimistic locking counter for transaction edits; existing rows start at 0
+alter table transaction add column version bigint not null default 0;
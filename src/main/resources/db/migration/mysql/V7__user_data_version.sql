@@ -0,0 +1,4 @@
+-- Per-user change counter behind ETag/Last-Modified on list endpoints; bumped by every transaction write
+alter table user
+    add column data_version bigint not null default 0,
+    add column data_modified_at datetime(3) not null default current_timestamp(3);
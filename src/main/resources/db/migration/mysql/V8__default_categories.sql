@@ -0,0 +1,10 @@
+-- Default categories, formerly inserted one query at a time by a startup runner.
+-- One statement; names that already exist (from earlier startups) are skipped.
+
+insert into category (name, type)
+select d.name, d.type
+from (select 'Food' as name, 'EXPENSE' as type
+      union all select 'Travel', 'EXPENSE'
+      union all select 'Health', 'EXPENSE'
+      union all select 'Investment', 'INCOME') d
+where not exists (select 1 from category c where c.name = d.name);
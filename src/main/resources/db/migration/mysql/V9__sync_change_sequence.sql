@@ -0,0 +1,18 @@
+-- Delta sync (GET /api/sync). Each row carries its owner's data_version as of its last write,
+-- and a delete leaves a tombstone at the version that removed the row.
+alter table transaction add column change_seq bigint not null default 0;
+create index idx_transaction_user_change on transaction (user_id, change_seq, id);
+
+create table transaction_tombstone (
+    user_id        bigint not null,
+    transaction_id bigint not null,
+    change_seq     bigint not null,
+    deleted_at     datetime(3) not null,
+    primary key (user_id, transaction_id)
+) engine = InnoDB;
+
+create index idx_tombstone_user_change on transaction_tombstone (user_id, change_seq);
+create index idx_tombstone_deleted_at on transaction_tombstone (deleted_at);
+
+-- Highest version whose tombstones were pruned: clients that last synced before it must start over
+alter table user add column sync_floor bigint not null default 0;
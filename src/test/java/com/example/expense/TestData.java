@@ -0,0 +1,51 @@
+package com.example.expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.example.expense.repository.UserRepository;
+import com.example.expense.services.TransactionService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Shared setup for the Spring tests. Picked up by component scan, so any @SpringBootTest can
+ * autowire it. Users get a unique email so tests that commit never collide; transactions go
+ * through TransactionService so summaries, budgets, the search index and analytics see them.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    private final UserRepository userRepository;
+    private final TransactionService transactionService;
+
+    public User user(String name) {
+        return userRepository.save(newUser(name + "-" + UUID.randomUUID() + "@example.com", name));
+    }
+
+    public Transaction add(User user, String title, String amount, Category category, LocalDate date) {
+        return add(user, title, amount, null, category, date);
+    }
+
+    public Transaction add(User user, String title, String amount, String currency, Category category, LocalDate date) {
+        return transactionService.addTransaction(transaction(user, title, amount, currency, category, date));
+    }
+
+    // For tests without the full context, or that save through a repository
+    public static User newUser(String email, String name) {
+        return new User(null, email, name, "hash", null, null);
+    }
+
+    // A null currency is the user's base currency
+    public static Transaction transaction(User user, String title, String amount, String currency,
+                                          Category category, LocalDate date) {
+        return new Transaction(null, new BigDecimal(amount), date, title, user, category, currency, null, 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.expense.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "spring.main.lazy-initialization=true")
+class LazyInitConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void persistenceAndSchedulesStartEagerlyAndTheRestOnFirstUse() {
+        assertThat(beanFactory.containsSingleton("flywayInitializer")).isTrue();
+        assertThat(beanFactory.containsSingleton("entityManagerFactory")).isTrue();
+        // Has @Scheduled methods
+        assertThat(beanFactory.containsSingleton("summaryReconcileJob")).isTrue();
+
+        assertThat(beanFactory.containsSingleton("transactionExportService")).isFalse();
+    }
+
+    @Test
+    void defaultCategoriesAreSeededOnceByTheMigration() {
+        assertThat(jdbcTemplate.queryForList(
+                "select name from category where name in ('Food', 'Travel', 'Health', 'Investment') order by name",
+                String.class)).containsExactly("Food", "Health", "Investment", "Travel");
+    }
+}
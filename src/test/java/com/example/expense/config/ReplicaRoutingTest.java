@@ -0,0 +1,197 @@
+package com.example.expense.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.User;
+import com.example.expense.security.AuthenticatedUser;
+import com.example.expense.services.CategoryService;
+import com.example.expense.services.TransactionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs against two separate in-memory databases with the same schema. Nothing replicates
+ * between them, so a row is visible to a read exactly when that read went to the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.enabled=true",
+        // Indexed: the H2 URL contains a comma
+        "app.datasource.replica.urls[0]=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.lag-query=select lag_seconds from replica_status",
+        "app.datasource.replica.max-lag-seconds=5",
+        "app.datasource.replica.sticky-ms=60000",
+        "app.datasource.replica.probe-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+    static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary" + H2_OPTIONS;
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica" + H2_OPTIONS;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private Category food;
+
+    @BeforeAll
+    static void createReplica() throws Exception {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+        replicaLag(0);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replicaLag(0);
+        routingDataSource.probeReplicas();
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("routing");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        add("Groceries");
+        double replicaReads = meterRegistry.counter("db.routing", "route", "replica").count();
+
+        assertThat(listItems()).isEmpty();
+        assertThat(meterRegistry.counter("db.routing", "route", "replica").count()).isGreaterThan(replicaReads);
+
+        // Outside a read-only transaction: primary
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transaction where user_id = ?", Long.class,
+                user.getId())).isEqualTo(1L);
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        authenticateAs(user);
+        add("Rent");
+        assertThat(listItems()).hasSize(1);
+
+        // Stickiness is per user: someone else still reads the replica
+        User other = testData.user("other");
+        authenticateAs(other);
+        assertThat(listItems()).isEmpty();
+    }
+
+    @Test
+    void echoedLastWriteRoutesReadsToThePrimaryOnAnyInstance() {
+        authenticateAs(user);
+        MockHttpServletResponse response = inRequest(null);
+        add("Rent");
+        String lastWrite = response.getHeader("Last-Write");
+        assertThat(lastWrite).isNotNull();
+
+        // A user whose write another instance took: this one has no record of it
+        User other = testData.user("other");
+        jdbcTemplate.update("insert into transaction (amount, currency, date, title, user_id, change_seq)"
+                + " values (10, 'INR', '2024-08-01', 'Elsewhere', ?, 1)", other.getId());
+        authenticateAs(other);
+        inRequest(null);
+        assertThat(listItems(other)).isEmpty();
+
+        inRequest(Long.toString(System.currentTimeMillis()));
+        assertThat(listItems(other)).hasSize(1);
+        // Outside the window the replica is fine again
+        inRequest(Long.toString(System.currentTimeMillis() - 120_000));
+        assertThat(listItems(other)).isEmpty();
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() throws Exception {
+        add("Fuel");
+        replicaLag(60);
+        routingDataSource.probeReplicas();
+
+        assertThat(routingDataSource.isHealthy(0)).isFalse();
+        assertThat(listItems()).hasSize(1);
+
+        replicaLag(0);
+        routingDataSource.probeReplicas();
+        assertThat(listItems()).isEmpty();
+    }
+
+    private void add(String title) {
+        testData.add(user, title, "10", food, LocalDate.of(2024, 8, 1));
+    }
+
+    private List<?> listItems() {
+        return listItems(user);
+    }
+
+    private List<?> listItems(User owner) {
+        return transactionService.listTransactions(owner.getId(), null, null, null, null, null, null).getItems();
+    }
+
+    private static MockHttpServletResponse inRequest(String lastWrite) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (lastWrite != null) {
+            request.addHeader("Last-Write", lastWrite);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static void authenticateAs(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), "hash", new ArrayList<>());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // Stands in for the replication status a MySQL replica would report
+    private static void replicaLag(int seconds) throws Exception {
+        try (Connection c = DriverManager.getConnection(REPLICA_URL, "sa", ""); Statement st = c.createStatement()) {
+            st.execute("create table if not exists replica_status (lag_seconds int)");
+            st.execute("delete from replica_status");
+            st.execute("insert into replica_status values (" + seconds + ")");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.expense.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.expense.entity.User;
+import com.example.expense.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void authOutcomesAreCountedAndScrapeable() throws Exception {
+        // The context (and registry) is shared with other tests, so compare deltas
+        double successes = count("success");
+        double failures = count("failure");
+        String register = "{\"email\":\"metrics@example.com\",\"username\":\"metrics\",\"password\":\"secret123\"}";
+        perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(register))
+                .andExpect(status().isOk());
+        perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"metrics@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"metrics@example.com\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(count("success")).isEqualTo(successes + 1);
+        assertThat(count("failure")).isEqualTo(failures + 1);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("auth_attempts_total{")
+                .contains("http_server_requests_seconds_count{")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_query_executions_total")
+                .contains("cache_gets_total{cache=\"jwt\"")
+                .contains("cache_gets_total{cache=\"categories\"");
+    }
+
+    @Test
+    void loginUpgradesAWeakerStoredHash() throws Exception {
+        userRepository.save(new User(null, "legacy@example.com", "legacy", new BCryptPasswordEncoder(4).encode("secret123"), null, null));
+
+        perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"legacy@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+
+        // Test properties configure cost 5
+        String stored = userRepository.findByEmail("legacy@example.com").get().getPassword();
+        assertThat(stored).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder().matches("secret123", stored)).isTrue();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("auth.attempts", "action", "login", "outcome", outcome).count();
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(request).andReturn()));
+    }
+}
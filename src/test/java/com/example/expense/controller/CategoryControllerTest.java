@@ -0,0 +1,100 @@
+package com.example.expense.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.User;
+import com.example.expense.repository.CategoryRepository;
+import com.example.expense.repository.TransactionRepository;
+import com.example.expense.security.JwtUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CategoryControllerTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = testData.user("catalog");
+        token = jwtUtil.generateToken(user.getEmail());
+    }
+
+    @Test
+    void catalogRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unchangedCatalogIsAnswered304AndCreateChangesTheEtag() throws Exception {
+        String etag = mockMvc.perform(authed(get("/api/categories")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(authed(get("/api/categories")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(authed(post("/api/categories"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Books\",\"type\":\"EXPENSE\"}"))
+                .andExpect(status().isOk());
+
+        String newEtag = mockMvc.perform(authed(get("/api/categories")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void categoryInUseCannotBeDeleted() throws Exception {
+        Category used = categoryRepository.save(new Category(null, "Used-" + UUID.randomUUID(), "EXPENSE"));
+        Category unused = categoryRepository.save(new Category(null, "Unused-" + UUID.randomUUID(), "EXPENSE"));
+        transactionRepository.save(TestData.transaction(user, "Snack", "10", "INR", used, LocalDate.of(2024, 3, 1)));
+
+        mockMvc.perform(authed(delete("/api/categories/" + used.getId()))).andExpect(status().isConflict());
+        mockMvc.perform(authed(delete("/api/categories/" + unused.getId()))).andExpect(status().isOk());
+
+        assertThat(categoryRepository.existsById(used.getId())).isTrue();
+        assertThat(categoryRepository.existsById(unused.getId())).isFalse();
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
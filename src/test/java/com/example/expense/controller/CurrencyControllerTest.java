@@ -0,0 +1,61 @@
+package com.example.expense.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.User;
+import com.example.expense.repository.UserRepository;
+import com.example.expense.security.JwtUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CurrencyControllerTest {
+
+    // Listed in app.security.admin-emails in the test properties
+    private static final String ADMIN_EMAIL = "fx-admin@example.com";
+    private static final String RATES = "date,currency,rate\n2024-01-01,INR,83\n";
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void regularUserCannotImportRates() throws Exception {
+        User user = testData.user("fx-user");
+
+        mockMvc.perform(post("/api/currencies/rates")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user.getEmail()))
+                        .contentType("text/csv").content(RATES))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminCanImportRates() throws Exception {
+        if (userRepository.findByEmail(ADMIN_EMAIL).isEmpty()) {
+            userRepository.save(TestData.newUser(ADMIN_EMAIL, "admin"));
+        }
+
+        mockMvc.perform(post("/api/currencies/rates")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(ADMIN_EMAIL))
+                        .contentType("text/csv").content(RATES))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.expense.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.User;
+import com.example.expense.security.JwtUtil;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SyncControllerTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = testData.user("sync");
+        token = jwtUtil.generateToken(user.getEmail());
+    }
+
+    @Test
+    void pushedChangesComeBackInTheNextPullOnce() throws Exception {
+        String version = JsonPath.read(mockMvc.perform(get("/api/sync").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(0))
+                .andReturn().getResponse().getContentAsString(), "$.version");
+
+        String upload = "{\"upserts\":[{\"title\":\"Taxi\",\"amount\":18,\"date\":\"2024-07-01\"}]}";
+        for (int attempt = 0; attempt < 2; attempt++) {
+            // A retry with the same key replays the first result instead of creating a second row
+            mockMvc.perform(post("/api/sync").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .header("Idempotency-Key", "batch-1")
+                            .contentType(MediaType.APPLICATION_JSON).content(upload))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.saved[0].title").value("Taxi"));
+        }
+
+        mockMvc.perform(get("/api/sync").param("since", version).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].title").value("Taxi"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void malformedTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/sync").param("since", "not a token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.expense.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.example.expense.security.JwtUtil;
+import com.example.expense.services.CategoryService;
+import com.example.expense.services.TransactionService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionControllerTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)\\s+event:transaction");
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private Category food;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("feed");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+        token = jwtUtil.generateToken(user.getEmail());
+    }
+
+    @Test
+    void committedChangesArePushedWithTotalsAndCanBeResumed() throws Exception {
+        MockHttpServletResponse live = open(null);
+
+        Transaction lunch = add("Lunch", "12.50");
+        String afterLunch = awaitContent(live, s -> s.contains("\"expenseByCategory\""));
+        assertThat(afterLunch).contains("event:transaction", "\"op\":\"CREATED\"", "\"title\":\"Lunch\"",
+                "event:totals");
+        String lunchEventId = lastEventId(afterLunch);
+
+        transactionService.deleteTransaction(user.getId(), lunch.getId());
+        add("Dinner", "30");
+        awaitContent(live, s -> s.contains("\"title\":\"Dinner\""));
+
+        // A client that saw only the first event gets the two it missed, in order
+        String resumed = awaitContent(open(lunchEventId), s -> s.contains("\"title\":\"Dinner\""));
+        assertThat(resumed).doesNotContain("\"title\":\"Lunch\"");
+        assertThat(resumed.indexOf("\"op\":\"DELETED\"")).isLessThan(resumed.indexOf("\"op\":\"CREATED\""));
+    }
+
+    @Test
+    void unknownLastEventIdGetsAReset() throws Exception {
+        String body = awaitContent(open("stale-epoch:42"), s -> s.contains("event:reset"));
+        assertThat(body).doesNotContain("event:transaction");
+    }
+
+    @Test
+    void unchangedListIsNotModifiedUntilTheNextWrite() throws Exception {
+        add("Coffee", "3");
+        String etag = mockMvc.perform(list())
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(list().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // Another filter is another representation
+        mockMvc.perform(list().param("limit", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        add("Tea", "2");
+        String changed = mockMvc.perform(list().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void columnarViewAndCborAreOffered() throws Exception {
+        add("Bus", "1.80");
+        add("Train", "4.20");
+
+        mockMvc.perform(list().param("view", "columnar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title[0]").value("Train"))
+                .andExpect(jsonPath("$.title[1]").value("Bus"))
+                .andExpect(jsonPath("$.categoryId[0]").value(food.getId()))
+                .andExpect(jsonPath("$.categories.length()").value(1))
+                .andExpect(jsonPath("$.items").doesNotExist());
+
+        mockMvc.perform(list().accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    void otherUsersRowsAreInvisibleAndUntouchable() throws Exception {
+        Transaction rent = add("Rent", "800");
+        User intruder = testData.user("intruder");
+        String intruderToken = "Bearer " + jwtUtil.generateToken(intruder.getEmail());
+        String path = "/api/transactions/" + rent.getId();
+
+        mockMvc.perform(get("/api/transactions").header(HttpHeaders.AUTHORIZATION, intruderToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, intruderToken))
+                .andExpect(content().string("null"));
+        mockMvc.perform(patch(path).header(HttpHeaders.AUTHORIZATION, intruderToken)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Mine now\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete(path).header(HttpHeaders.AUTHORIZATION, intruderToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(jsonPath("$.title").value("Rent"));
+        mockMvc.perform(get("/api/transactions")).andExpect(status().isUnauthorized());
+    }
+
+    private MockHttpServletRequestBuilder list() {
+        return get("/api/transactions").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private MockHttpServletResponse open(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/transactions/changes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private Transaction add(String title, String amount) {
+        return testData.add(user, title, amount, food, LocalDate.of(2024, 7, 1));
+    }
+
+    // Events are written by the feed's dispatcher threads, so poll the response body
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = response.getContentAsString();
+        while (!condition.test(body) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        assertThat(condition).accepts(body);
+        return body;
+    }
+
+    private static String lastEventId(String body) {
+        Matcher m = EVENT_ID.matcher(body);
+        String id = null;
+        while (m.find()) {
+            id = m.group(1);
+        }
+        return id;
+    }
+}
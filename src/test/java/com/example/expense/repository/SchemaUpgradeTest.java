@@ -0,0 +1,50 @@
+package com.example.expense.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Upgrades a database shaped like the one Hibernate generated before migrations existed,
+ * the way production is upgraded: baselined at V1, then migrated.
+ */
+class SchemaUpgradeTest {
+
+    @Test
+    void legacySchemaIsBaselinedAndUpgraded() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table user (id bigint generated by default as identity primary key,"
+                + " email varchar(255) not null unique, username varchar(255), password varchar(255))");
+        jdbc.execute("create table category (id bigint generated by default as identity primary key,"
+                + " name varchar(255), type varchar(255))");
+        jdbc.execute("create table transaction (id bigint generated by default as identity primary key,"
+                + " amount double precision, date date, title varchar(255),"
+                + " user_id bigint references user (id), category_id bigint references category (id))");
+        jdbc.update("insert into user (id, email) values (1, 'legacy@example.com')");
+        jdbc.update("insert into category (id, name, type) values (1, 'Salary', 'income')");
+        jdbc.update("insert into transaction (amount, date, title, user_id, category_id) values"
+                + " (100, '2024-03-05', 'March', 1, 1), (50, '2024-03-20', 'Bonus', 1, 1), (7.5, '2024-03-21', 'Lunch', 1, null)");
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("1")
+                .load().migrate();
+
+        // Seeded from the existing rows, then carried through the later migrations
+        Map<String, Object> income = jdbc.queryForMap("select total, txn_count, currency from monthly_summary"
+                + " where user_id = 1 and category_id = 1 and type = 'INCOME' and month_start = '2024-03-01'");
+        assertThat((BigDecimal) income.get("total")).isEqualByComparingTo("150");
+        assertThat(income.get("txn_count")).isEqualTo(2L);
+        assertThat(income.get("currency")).isEqualTo("INR");
+        assertThat(jdbc.queryForObject("select total from monthly_summary where category_id = 0 and type = 'EXPENSE'",
+                BigDecimal.class)).isEqualByComparingTo("7.5");
+        assertThat(jdbc.queryForObject("select count(*) from transaction", Integer.class)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.expense.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.example.expense.security.AuthenticatedUser;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.expense.repository.TransactionRepositoryTest$SqlCapture")
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(TestData.newUser("owner@example.com", "owner"));
+        other = em.persist(TestData.newUser("other@example.com", "other"));
+        Category food = em.persist(new Category(null, "Food", "EXPENSE"));
+        Category salary = em.persist(new Category(null, "Salary", "INCOME"));
+
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 30; i++) {
+            // Two rows per day so the id tie-breaker is exercised
+            em.persist(TestData.transaction(owner, "txn " + i, Integer.toString(10 + i), "INR",
+                    i % 3 == 0 ? salary : food, start.plusDays(i / 2)));
+        }
+        for (int i = 0; i < 5; i++) {
+            em.persist(TestData.transaction(other, "other " + i, "99", "INR", food, start.plusDays(i)));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        SqlCapture.statements = null;
+    }
+
+    @Test
+    void pageIsLoadedWithASingleStatement() {
+        List<TransactionView> page = transactionRepository.findPage(owner.getId(), null, null, null, null,
+                null, null, PageRequest.of(0, 25));
+
+        assertThat(page).hasSize(25);
+        page.forEach(v -> assertThat(v.getCategory().getName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetPagesCoverTheUsersRowsOnceInOrder() {
+        List<TransactionView> all = new ArrayList<>();
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        List<TransactionView> page;
+        do {
+            page = transactionRepository.findPage(owner.getId(), null, null, null, null,
+                    cursorDate, cursorId, PageRequest.of(0, 7));
+            all.addAll(page);
+            if (!page.isEmpty()) {
+                TransactionView last = page.get(page.size() - 1);
+                cursorDate = last.getDate();
+                cursorId = last.getId();
+            }
+        } while (page.size() == 7);
+
+        assertThat(all).hasSize(30);
+        assertThat(all).extracting(TransactionView::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < all.size(); i++) {
+            TransactionView prev = all.get(i - 1);
+            TransactionView cur = all.get(i);
+            assertThat(prev.getDate().isAfter(cur.getDate())
+                    || (prev.getDate().equals(cur.getDate()) && prev.getId() > cur.getId())).isTrue();
+        }
+    }
+
+    @Test
+    void filtersNarrowThePage() {
+        List<TransactionView> income = transactionRepository.findPage(owner.getId(), null, null, null, "INCOME",
+                null, null, PageRequest.of(0, 50));
+        assertThat(income).hasSize(10).allMatch(v -> "INCOME".equals(v.getCategory().getType()));
+
+        List<TransactionView> firstWeek = transactionRepository.findPage(owner.getId(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7), null, null, null, null, PageRequest.of(0, 50));
+        assertThat(firstWeek).hasSize(14);
+    }
+
+    @Test
+    void singleReadFetchesCategoryInTheSameSelect() {
+        Long id = transactionRepository.findPage(owner.getId(), null, null, null, null,
+                null, null, PageRequest.of(0, 1)).get(0).getId();
+        em.clear();
+        statistics.clear();
+
+        Transaction txn = transactionRepository.findWithCategoryByIdAndUserId(id, owner.getId()).orElseThrow(IllegalStateException::new);
+
+        assertThat(txn.getCategory().getName()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void signedInUserSeesOnlyTheirOwnRowsWhateverOwnerIsAskedFor() {
+        Long ownersRow = transactionRepository.findPage(owner.getId(), null, null, null, null, null, null, PageRequest.of(0, 50)).get(0).getId();
+        em.clear();
+
+        signIn(other);
+        assertThat(transactionRepository.findWithCategoryByIdAndUserId(ownersRow, owner.getId())).isEmpty();
+        assertThat(transactionRepository.findPage(owner.getId(), null, null, null, null, null, null,
+                PageRequest.of(0, 50))).isEmpty();
+        assertThat(transactionRepository.findChangedSince(owner.getId(), 0, 0L, PageRequest.of(0, 50))).isEmpty();
+        assertThat(transactionRepository.aggregateMonthly(owner.getId())).isEmpty();
+        assertThat(transactionRepository.findPage(other.getId(), null, null, null, null, null, null, PageRequest.of(0, 50))).hasSize(5);
+    }
+
+    @Test
+    void offersNoUnscopedReads() {
+        for (Method m : TransactionRepository.class.getMethods()) {
+            assertThat(m.getName()).isNotIn("findAll", "findById", "findAllById", "count", "existsById", "getReferenceById");
+        }
+    }
+
+    @Test
+    void everyQueryIsAnIndexLookupByOwnerOrKey() {
+        Long id = transactionRepository.findPage(owner.getId(), null, null, null, null, null, null,
+                PageRequest.of(0, 1)).get(0).getId();
+        signIn(owner);
+        SqlCapture.statements = Collections.synchronizedList(new ArrayList<>());
+
+        transactionRepository.findWithCategoryByIdAndUserId(id, owner.getId());
+        transactionRepository.findPage(owner.getId(), null, null, null, null, null, null, PageRequest.of(0, 10));
+        transactionRepository.findPage(owner.getId(), LocalDate.of(2024, 1, 1), null, null, "INCOME",
+                LocalDate.of(2024, 1, 10), 5L, PageRequest.of(0, 10));
+        transactionRepository.findChangedSince(owner.getId(), 0, 0L, PageRequest.of(0, 10));
+        transactionRepository.aggregateMonthly(owner.getId());
+
+        List<String> statements = new ArrayList<>(SqlCapture.statements);
+        assertThat(statements).hasSize(5);
+        for (String sql : statements) {
+            // H2 names the index and its condition, e.g. /* public.idx_transaction_user_date_id: user_id = ?1 */;
+            // a scan shows the index name alone
+            assertThat(explain(sql)).as(sql)
+                    .containsPattern("\"transaction\" \"?\\w*\"?\\s*/\\* public\\.\\w+: (user_id|id) = ");
+        }
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager().unwrap(Session.class).doReturningWork(c -> {
+            try (PreparedStatement ps = c.prepareStatement("explain " + sql)) {
+                for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                    ps.setNull(i, Types.BIGINT);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void signIn(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), "hash", new ArrayList<>());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    /**
+     * Records the SQL Hibernate sends while a test has statements set.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static volatile List<String> statements;
+
+        @Override
+        public String inspect(String sql) {
+            List<String> sink = statements;
+            if (sink != null && sql.contains("transaction")) {
+                sink.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.expense.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000, 600, now::get);
+
+    @Test
+    void burstUpToCapacityThenOneTokenPerInterval() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            RateLimitStore.Decision d = store.tryAcquire("k", 3, SECOND);
+            assertThat(d.allowed()).isTrue();
+            assertThat(d.remaining()).isEqualTo(remaining);
+        }
+        RateLimitStore.Decision rejected = store.tryAcquire("k", 3, SECOND);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND);
+
+        now.addAndGet(SECOND);
+        assertThat(store.tryAcquire("k", 3, SECOND).allowed()).isTrue();
+        assertThat(store.tryAcquire("k", 3, SECOND).allowed()).isFalse();
+
+        // Idle time refills up to capacity, not beyond
+        now.addAndGet(60 * SECOND);
+        assertThat(store.tryAcquire("k", 3, SECOND).remaining()).isEqualTo(2);
+        assertThat(store.tryAcquire("other", 3, SECOND).remaining()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.expense.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtFilterTest {
+
+    private static final String SECRET = "4N8KgfBtFi3KDQ2XMiY5u7z9xX6c2Avp73BZAFxUz9U=";
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetailsService userDetailsService;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        // A fresh principal per call, as the real service returns
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(inv ->
+                new AuthenticatedUser(42L, inv.getArgument(0), "hash", new ArrayList<>()));
+        token = jwtUtil.generateToken("user@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedTokenIsServedFromCache() throws Exception {
+        JwtFilter filter = new JwtFilter(jwtUtil, userDetailsService, new TokenCache(100, 300));
+
+        Authentication first = authenticate(filter, token);
+        Authentication second = authenticate(filter, token);
+
+        assertThat(first.getName()).isEqualTo("user@example.com");
+        assertThat(((AuthenticatedUser) second.getPrincipal()).getId()).isEqualTo(42L);
+        assertThat(((AuthenticatedUser) second.getPrincipal()).getPassword()).isNull();
+        verify(userDetailsService, times(1)).loadUserByUsername("user@example.com");
+    }
+
+    @Test
+    void invalidTokenIsNotAuthenticatedOrCached() throws Exception {
+        TokenCache cache = new TokenCache(100, 300);
+        JwtFilter filter = new JwtFilter(jwtUtil, userDetailsService, cache);
+
+        assertThat(authenticate(filter, token + "x")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictingUserForcesReload() throws Exception {
+        TokenCache cache = new TokenCache(100, 300);
+        JwtFilter filter = new JwtFilter(jwtUtil, userDetailsService, cache);
+
+        authenticate(filter, token);
+        cache.evictUser(42L);
+        authenticate(filter, token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@example.com");
+    }
+
+    // Timings for both paths are in JwtFilterBenchmark (jmh profile)
+    @Test
+    void lookupRunsOncePerCachedToken() throws Exception {
+        int requests = 100;
+        JwtFilter uncached = new JwtFilter(jwtUtil, userDetailsService, new TokenCache(0, 300));
+        JwtFilter cached = new JwtFilter(jwtUtil, userDetailsService, new TokenCache(100, 300));
+
+        for (int i = 0; i < requests; i++) {
+            authenticate(uncached, token);
+            authenticate(cached, token);
+        }
+
+        // One lookup per request without the cache, a single one with it
+        verify(userDetailsService, times(requests + 1)).loadUserByUsername("user@example.com");
+    }
+
+    private static Authentication authenticate(JwtFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
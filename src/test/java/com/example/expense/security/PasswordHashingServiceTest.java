@@ -0,0 +1,53 @@
+package com.example.expense.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void saturatedPoolRejectsInsteadOfQueueingUnbounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AuthenticationManager authManager = mock(AuthenticationManager.class);
+        when(authManager.authenticate(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return inv.getArgument(0);
+        });
+        // One worker, one queue slot
+        PasswordHashingService service = new PasswordHashingService(authManager, new BCryptPasswordEncoder(4),
+                new SimpleMeterRegistry(), 1, 1);
+        try {
+            CompletableFuture<Authentication> running = service.authenticate("a@example.com", "pw");
+            CompletableFuture<Authentication> queued = service.authenticate("b@example.com", "pw");
+
+            assertThatThrownBy(() -> service.authenticate("c@example.com", "pw"))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS).getName()).isEqualTo("a@example.com");
+            assertThat(queued.get(5, TimeUnit.SECONDS).getName()).isEqualTo("b@example.com");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertThat(BCryptCalibration.strengthFor(1)).isEqualTo(BCryptCalibration.MIN_STRENGTH);
+    }
+}
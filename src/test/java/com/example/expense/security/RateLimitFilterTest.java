@@ -0,0 +1,91 @@
+package com.example.expense.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "app.ratelimit.enabled=true",
+        "app.ratelimit.auth.capacity=2",
+        "app.ratelimit.auth.per-minute=1",
+        "app.ratelimit.list.capacity=2",
+        "app.ratelimit.list.per-minute=1"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void listBudgetIsPerUserAndLeavesOtherBudgetsAlone() throws Exception {
+        String alice = token();
+        String bob = token();
+        double rejected = meterRegistry.counter("ratelimit.requests", "budget", "list", "outcome", "rejected").count();
+
+        mockMvc.perform(list(alice)).andExpect(status().isOk()).andExpect(header().string("X-RateLimit-Remaining", "1"));
+        mockMvc.perform(list(alice)).andExpect(status().isOk());
+        mockMvc.perform(list(alice))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+
+        mockMvc.perform(list(bob)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.AUTHORIZATION, "Bearer " + alice))
+                .andExpect(status().isOk());
+        assertThat(meterRegistry.counter("ratelimit.requests", "budget", "list", "outcome", "rejected").count())
+                .isEqualTo(rejected + 1);
+    }
+
+    @Test
+    void loginAttemptsAreLimitedPerAddress() throws Exception {
+        String body = "{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}";
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(login(body, "10.1.1.1")).andExpect(header().exists("X-RateLimit-Remaining"));
+        }
+        mockMvc.perform(login(body, "10.1.1.1")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(login(body, "10.1.1.2")).andExpect(status().is(not(429)));
+    }
+
+    private String token() {
+        User user = testData.user("limit");
+        return jwtUtil.generateToken(user.getEmail());
+    }
+
+    private static MockHttpServletRequestBuilder list(String token) {
+        return get("/api/transactions").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static MockHttpServletRequestBuilder login(String body, String address) {
+        return post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body)
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AnalyticsColumnsTest {
+
+    @Test
+    void parallelScanMatchesSequentialSums() {
+        AnalyticsColumns columns = new AnalyticsColumns("INR", null, 0, 16);
+        int rows = AnalyticsColumns.PARALLEL_THRESHOLD * 3;
+        long[] expected = new long[12];
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            int day = i * 360 / rows;
+            long amount = 1 + random.nextInt(100_000);
+            long category = 1 + (i % 4);
+            boolean income = category == 4;
+            columns.append(i, day, amount, category, income);
+            if (!income) {
+                expected[day / 30] += amount;
+            }
+        }
+        int[] starts = new int[12];
+        for (int b = 0; b < starts.length; b++) {
+            starts[b] = b * 30;
+        }
+
+        AnalyticsColumns.Grid all = columns.aggregate(0, 359, starts, false, null, false);
+        assertThat(all.sums).containsExactly(expected);
+
+        // Below the threshold the same query runs on the calling thread
+        AnalyticsColumns.Grid firstMonth = columns.aggregate(0, 29, new int[] {0}, false, null, false);
+        assertThat(firstMonth.sums[0]).isEqualTo(expected[0]);
+    }
+
+    @Test
+    void putKeepsRowsOrderedByDayAndReplacesById() {
+        AnalyticsColumns columns = new AnalyticsColumns("INR", null, 0, 16);
+        columns.put(1, 10, 100, 7, false);
+        columns.put(2, 5, 50, 7, false);
+        columns.put(3, 20, 200, 0, false);
+        // Moved to another day
+        columns.put(1, 30, 120, 7, false);
+        columns.remove(3);
+
+        AnalyticsColumns.Grid grid = columns.aggregate(0, 40, new int[] {0, 10, 20, 30}, false, null, true);
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(grid.rowCategory).containsExactly(7, 0);
+        assertThat(grid.sums).containsExactly(50, 0, 0, 120, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.CategoryForecast;
+import com.example.expense.dto.CategoryMonthChanges;
+import com.example.expense.dto.RollingPoint;
+import com.example.expense.dto.TrendPoint;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+
+@SpringBootTest
+class AnalyticsServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 1);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Category food;
+    private Category salary;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("analytics");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+        salary = categoryService.create(new Category(null, "Salary " + suffix, "INCOME"));
+    }
+
+    @Test
+    void monthlyTrendAndChangesPerCategory() {
+        add(MARCH, "10", food);
+        add(MARCH.plusDays(9), "20", food);
+        add(APRIL, "50", food);
+        add(APRIL.plusDays(1), "5", null);
+        add(APRIL.plusDays(2), "1000", salary);
+
+        List<TrendPoint> spending = analyticsService.trend(user.getId(), MARCH, LocalDate.of(2024, 4, 30),
+                AnalyticsService.Interval.MONTH, null, null).getPoints();
+        assertThat(spending).extracting(TrendPoint::getPeriod).containsExactly("2024-03", "2024-04");
+        assertThat(spending).extracting(p -> p.getTotal().stripTrailingZeros().toPlainString())
+                .containsExactly("30", "55");
+        assertThat(spending).extracting(TrendPoint::getCount).containsExactly(2L, 2L);
+
+        List<TrendPoint> income = analyticsService.trend(user.getId(), MARCH, LocalDate.of(2024, 4, 30),
+                AnalyticsService.Interval.MONTH, null, "INCOME").getPoints();
+        assertThat(income.get(1).getTotal()).isEqualByComparingTo("1000");
+
+        List<CategoryMonthChanges> changes = analyticsService.monthOverMonth(user.getId(),
+                YearMonth.of(2024, 3), YearMonth.of(2024, 4), "EXPENSE");
+        assertThat(changes).extracting(CategoryMonthChanges::getCategoryName)
+                .containsExactly(food.getName(), "Uncategorized");
+        CategoryMonthChanges.MonthChange april = changes.get(0).getMonths().get(1);
+        assertThat(april.getTotal()).isEqualByComparingTo("50");
+        assertThat(april.getChange()).isEqualByComparingTo("20");
+        assertThat(april.getChangePercent()).isEqualByComparingTo("66.7");
+        assertThat(changes.get(0).getMonths().get(0).getChangePercent()).isNull();
+    }
+
+    @Test
+    void columnsFollowWritesAfterTheyAreLoaded() {
+        Transaction lunch = add(MARCH, "10", food);
+        Transaction dinner = add(MARCH, "30", food);
+        assertThat(marchTotal()).isEqualByComparingTo("40");
+
+        Transaction changes = new Transaction();
+        changes.setAmount(new BigDecimal("15"));
+        transactionService.patchTransaction(user.getId(), lunch.getId(), changes);
+        transactionService.deleteTransaction(user.getId(), dinner.getId());
+        add(MARCH.plusDays(5), "2.5", food);
+        BigDecimal maintained = marchTotal();
+        assertThat(maintained).isEqualByComparingTo("17.5");
+
+        // Same answer as a fresh load
+        analyticsService.invalidateAfterCommit(user.getId());
+        assertThat(marchTotal()).isEqualByComparingTo(maintained);
+    }
+
+    @Test
+    void writesThisInstanceDidNotSeeReloadTheColumns() {
+        add(MARCH, "10", food);
+        assertThat(marchTotal()).isEqualByComparingTo("10");
+
+        // As another instance writes: bump and insert, with no after-commit hook here
+        transactionTemplate.executeWithoutResult(s -> {
+            long changeSeq = dataVersionService.bump(user.getId());
+            jdbcTemplate.update("insert into transaction (amount, currency, date, title, user_id, category_id, change_seq)"
+                    + " values (7, 'INR', ?, 'Elsewhere', ?, ?, ?)", MARCH.plusDays(3), user.getId(), food.getId(), changeSeq);
+        });
+
+        assertThat(marchTotal()).isEqualByComparingTo("17");
+    }
+
+    @Test
+    void rollingAverageCountsDaysWithoutTransactionsAsZero() {
+        add(MARCH, "30", food);
+        add(MARCH.plusDays(2), "60", food);
+
+        List<RollingPoint> points = analyticsService.rolling(user.getId(), MARCH, MARCH.plusDays(3), 3, food.getId(), null)
+                .getPoints();
+        assertThat(points).extracting(RollingPoint::getDate).containsExactly(MARCH, MARCH.plusDays(1),
+                MARCH.plusDays(2), MARCH.plusDays(3));
+        assertThat(points).extracting(p -> p.getAverage().stripTrailingZeros().toPlainString())
+                .containsExactly("10", "10", "30", "20");
+    }
+
+    @Test
+    void forecastExtendsTheMonthlyTrend() {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        add(lastMonth.minusMonths(2).atDay(10), "100", food);
+        add(lastMonth.minusMonths(1).atDay(10), "200", food);
+        add(lastMonth.atDay(10), "300", food);
+
+        List<CategoryForecast> forecasts = analyticsService.forecast(user.getId(), 6, 2, null);
+        assertThat(forecasts).hasSize(1);
+        CategoryForecast f = forecasts.get(0);
+        assertThat(f.getCategoryId()).isEqualTo(food.getId());
+        assertThat(f.getMonthlyTrend()).isEqualByComparingTo("100");
+        assertThat(f.getForecast()).extracting(CategoryForecast.Month::getMonth)
+                .containsExactly(lastMonth.plusMonths(1).toString(), lastMonth.plusMonths(2).toString());
+        assertThat(f.getForecast()).extracting(m -> m.getAmount().stripTrailingZeros().toPlainString())
+                .containsExactly("400", "500");
+    }
+
+    private BigDecimal marchTotal() {
+        return analyticsService.trend(user.getId(), MARCH, LocalDate.of(2024, 3, 31), AnalyticsService.Interval.MONTH,
+                null, null).getPoints().get(0).getTotal();
+    }
+
+    private Transaction add(LocalDate date, String amount, Category category) {
+        return testData.add(user, "Item", amount, category, date);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.BudgetAlert;
+import com.example.expense.dto.BudgetStatus;
+import com.example.expense.entity.Budget;
+import com.example.expense.entity.BudgetPeriod;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+
+// Not @Transactional: alerts are dispatched after commit
+@SpringBootTest
+class BudgetServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private InMemoryBudgetAlertSink alertSink;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private User user;
+    private Category food;
+    private Category travel;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("budget");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+        travel = categoryService.create(new Category(null, "Travel " + suffix, "EXPENSE"));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void spendIsTrackedIncrementallyAndThresholdsAlertOnce() {
+        budgetService.create(user.getId(), new Budget(null, null, food.getId(), BudgetPeriod.MONTHLY, new BigDecimal("100")), today);
+
+        add("50", food, today);
+        add("40", travel, today);
+        assertThat(alertSink.drain(user.getId())).isEmpty();
+
+        add("35", food, today);
+        List<BudgetAlert> alerts = alertSink.drain(user.getId());
+        assertThat(alerts).extracting(BudgetAlert::getThresholdPercent).containsExactly(80);
+
+        // Still between 80 and 100: no repeat
+        add("5", food, today);
+        assertThat(alertSink.drain(user.getId())).isEmpty();
+
+        add("20", food, today);
+        assertThat(alertSink.drain(user.getId())).extracting(BudgetAlert::getThresholdPercent).containsExactly(100);
+
+        BudgetStatus status = budgetService.getStatuses(user.getId(), today).get(0);
+        assertThat(status.getSpent()).isEqualByComparingTo("110");
+        assertThat(status.getRemaining()).isEqualByComparingTo("-10");
+        assertThat(status.getPercentUsed()).isCloseTo(110.0, within(1e-9));
+    }
+
+    @Test
+    void existingSpendSeedsTheCounterWithoutAlerting() {
+        add("90", food, today);
+        add("30", travel, today);
+        // Outside the current month
+        add("500", food, today.minusMonths(1).withDayOfMonth(1));
+
+        BudgetStatus created = budgetService.create(user.getId(), new Budget(null, null, null, BudgetPeriod.MONTHLY, new BigDecimal("200")), today);
+
+        assertThat(created.getSpent()).isEqualByComparingTo("120");
+        assertThat(alertSink.drain(user.getId())).isEmpty();
+
+        add("50", travel, today);
+        assertThat(alertSink.drain(user.getId())).extracting(BudgetAlert::getThresholdPercent).containsExactly(80);
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getSpent()).isEqualByComparingTo("170");
+    }
+
+    @Test
+    void deletingBelowAThresholdReArmsIt() {
+        budgetService.create(user.getId(), new Budget(null, null, food.getId(), BudgetPeriod.YEARLY, new BigDecimal("100")), today);
+        Transaction big = add("85", food, today);
+        assertThat(alertSink.drain(user.getId())).hasSize(1);
+
+        transactionService.deleteTransaction(user.getId(), big.getId());
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getSpent()).isEqualByComparingTo("0");
+
+        add("90", food, today);
+        assertThat(alertSink.drain(user.getId())).extracting(BudgetAlert::getThresholdPercent).containsExactly(80);
+    }
+
+    @Test
+    void limitsTheColumnCannotHoldAndUnknownCategoriesAreRejected() {
+        assertThatThrownBy(() -> budgetService.create(user.getId(),
+                new Budget(null, null, food.getId(), BudgetPeriod.MONTHLY, new BigDecimal("100.00005")), today))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("decimal places");
+        assertThatThrownBy(() -> budgetService.create(user.getId(),
+                new Budget(null, null, Long.MAX_VALUE, BudgetPeriod.MONTHLY, new BigDecimal("100")), today))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        BudgetStatus created = budgetService.create(user.getId(),
+                new Budget(null, null, food.getId(), BudgetPeriod.MONTHLY, new BigDecimal("100")), today);
+        assertThatThrownBy(() -> budgetService.updateLimit(user.getId(), created.getId(), new BigDecimal("1e15"), today))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("out of range");
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getLimit()).isEqualByComparingTo("100");
+    }
+
+    private Transaction add(String amount, Category category, LocalDate date) {
+        return testData.add(user, "txn", amount, category, date);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.BudgetStatus;
+import com.example.expense.dto.ImportResult;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.entity.Budget;
+import com.example.expense.entity.BudgetPeriod;
+import com.example.expense.entity.User;
+import com.example.expense.repository.UserRepository;
+
+@SpringBootTest
+class CurrencyServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Units per US dollar
+        String csv = "date,currency,rate\n"
+                + "2024-01-01,INR,83\n"
+                + "2024-01-01,EUR,0.9\n"
+                + "2024-02-01,EUR,0.8\n"
+                + "2024-02-01,XXQ,1\n";
+        ImportResult result = currencyService.importRates(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+
+        user = testData.user("fx");
+    }
+
+    @Test
+    void ratesApplyFromTheFirstDayOfTheMonth() {
+        // January rate 83 / 0.9; February 83 / 0.8
+        assertThat(currencyService.convert(new BigDecimal("90"), "EUR", "INR", LocalDate.of(2024, 1, 20)))
+                .isEqualByComparingTo("8300");
+        assertThat(currencyService.convert(new BigDecimal("80"), "EUR", "INR", LocalDate.of(2024, 2, 29)))
+                .isEqualByComparingTo("8300");
+        // Before the first rate the earliest one is used
+        assertThat(currencyService.convert(new BigDecimal("9"), "EUR", "USD", LocalDate.of(2020, 5, 1)))
+                .isEqualByComparingTo("10");
+    }
+
+    @Test
+    void summariesAreExactAndConvertedToTheBaseCurrency() {
+        add("0.10", "INR", LocalDate.of(2024, 1, 3));
+        add("0.20", null, LocalDate.of(2024, 1, 4));
+        add("90", "eur", LocalDate.of(2024, 1, 5));
+        add("80", "EUR", LocalDate.of(2024, 2, 5));
+
+        SummaryTotals inr = summaryService.getTotals(user.getId(), YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+        assertThat(inr.getCurrency()).isEqualTo("INR");
+        assertThat(inr.getExpense()).isEqualByComparingTo("16600.30");
+        assertThat(inr.getCount()).isEqualTo(4);
+
+        userService.changeBaseCurrency(user.getId(), "EUR");
+        SummaryTotals eur = summaryService.getTotals(user.getId(), YearMonth.of(2024, 1), YearMonth.of(2024, 1));
+        assertThat(eur.getCurrency()).isEqualTo("EUR");
+        // 90 EUR plus 0.30 INR at 0.9 / 83
+        assertThat(eur.getExpense()).isEqualByComparingTo("90.0033");
+    }
+
+    @Test
+    void writesUseABaseChangedOnAnotherInstance() {
+        LocalDate today = LocalDate.now();
+        budgetService.create(user.getId(), new Budget(null, null, null, BudgetPeriod.MONTHLY, new BigDecimal("100")), today);
+        assertThat(currencyService.baseCurrency(user.getId())).isEqualTo("INR");
+
+        // Another instance switches the base; this one still has INR cached
+        transactionTemplate.executeWithoutResult(s -> {
+            userRepository.updateBaseCurrency(user.getId(), "EUR");
+            jdbcTemplate.update("delete from budget_spend where budget_id in (select id from budget where user_id = ?)",
+                    user.getId());
+        });
+
+        // Latest rates: 83 INR and 0.8 EUR per dollar
+        add("830", "INR", today);
+        add("2", null, today);
+
+        BudgetStatus status = budgetService.getStatuses(user.getId(), today).get(0);
+        assertThat(status.getCurrency()).isEqualTo("EUR");
+        assertThat(status.getSpent()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void unknownCurrenciesAreRejected() {
+        assertThatThrownBy(() -> add("1", "ABC", LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("Unknown currency");
+        assertThatThrownBy(() -> add("1", "JPY", LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("No exchange rate for JPY");
+    }
+
+    @Test
+    void baseCannotLeaveADefaultCurrencyWithoutRates() {
+        // CHF has no rates; as the default currency it is accepted while it is also the base
+        CurrencyService chfDefault = new CurrencyService(jdbcTemplate, transactionTemplate, userRepository, "USD", "CHF");
+        assertThat(chfDefault.resolve(user.getId(), "CHF")).isEqualTo("CHF");
+        summaryService.addDelta(user.getId(), LocalDate.of(2024, 1, 5), null, null, "CHF", BigDecimal.TEN, 1);
+
+        // Its buckets could never be converted to USD
+        assertThatThrownBy(() -> chfDefault.setBaseCurrency(user.getId(), "USD"))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("No exchange rate for CHF");
+        assertThat(chfDefault.baseCurrency(user.getId())).isEqualTo("CHF");
+
+        // Nor can new CHF amounts be entered once the base is something else
+        transactionTemplate.executeWithoutResult(s -> userRepository.updateBaseCurrency(user.getId(), "EUR"));
+        CurrencyService eurBase = new CurrencyService(jdbcTemplate, transactionTemplate, userRepository, "USD", "CHF");
+        assertThatThrownBy(() -> eurBase.resolve(user.getId(), "CHF"))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("No exchange rate for CHF");
+    }
+
+    private void add(String amount, String currency, LocalDate date) {
+        testData.add(user, "fx", amount, currency, null, date);
+    }
+}
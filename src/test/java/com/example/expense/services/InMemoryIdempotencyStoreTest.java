@@ -0,0 +1,67 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final IdempotencyStore store = new InMemoryIdempotencyStore(100, 60);
+
+    @Test
+    void concurrentRetriesWriteOnceAndShareTheResult() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = pool.submit(() -> store.execute(1L, "k1", "body", Integer.class, () -> {
+                inFlight.countDown();
+                await(release);
+                return writes.incrementAndGet();
+            }));
+            inFlight.await();
+            Future<Integer> retry = pool.submit(() -> store.execute(1L, "k1", "body", Integer.class, writes::incrementAndGet));
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo(1);
+            assertThat(retry.get()).isEqualTo(1);
+            assertThat(writes.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Keys are scoped per user
+        assertThat(store.execute(2L, "k1", "body", Integer.class, writes::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejectedAndFailuresAreForgotten() {
+        store.execute(1L, "k2", "a", String.class, () -> "ok");
+        assertThatThrownBy(() -> store.execute(1L, "k2", "b", String.class, () -> "other"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+
+        assertThatThrownBy(() -> store.execute(1L, "k3", "a", String.class, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(store.execute(1L, "k3", "a", String.class, () -> "retried")).isEqualTo("retried");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
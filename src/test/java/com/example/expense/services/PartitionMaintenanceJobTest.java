@@ -0,0 +1,27 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class PartitionMaintenanceJobTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedRunDoesNotPropagate() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // As when another instance added the same partition first
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate partition name p2027"));
+
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(jdbcTemplate);
+
+        assertThatCode(job::ensureFuturePartitions).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.RecurrenceFrequency;
+import com.example.expense.entity.RecurringRule;
+import com.example.expense.repository.RecurringRuleRepository;
+import com.example.expense.repository.TransactionRepository;
+
+// Not @Transactional: materialization commits per chunk
+@SpringBootTest
+class RecurringTransactionServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private RecurringTransactionService recurringService;
+
+    @Autowired
+    private RecurringRuleRepository ruleRepository;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Long userId;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        userId = testData.user("recurring").getId();
+        rent = categoryService.create(new Category(null, "Rent " + suffix, "EXPENSE"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(recurringService, "batchSize", 500);
+        ReflectionTestUtils.setField(recurringService, "createCatchUp", 100);
+    }
+
+    @Test
+    void monthlyRuleBackfillsMissedMonthsOnce() {
+        RecurringRule rule = recurringService.create(userId,
+                rule("Rent", 900.0, RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 31), null));
+
+        recurringService.materializeDue(LocalDate.of(2024, 5, 15));
+        recurringService.materializeDue(LocalDate.of(2024, 5, 15));
+
+        assertThat(transactions()).extracting(TransactionView::getDate)
+                .containsExactlyInAnyOrder(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                        LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30));
+        assertThat(ruleRepository.findById(rule.getId()).orElseThrow().getNextRun()).isEqualTo(LocalDate.of(2024, 5, 31));
+        assertThat(summaryService.getTotals(userId, YearMonth.of(2024, 1), YearMonth.of(2024, 4)).getExpense())
+                .isEqualByComparingTo("3600");
+    }
+
+    @Test
+    void catchUpRunsInChunksAndStopsAtEndDate() {
+        ReflectionTestUtils.setField(recurringService, "batchSize", 3);
+        RecurringRule rule = recurringService.create(userId,
+                rule("Coffee", 3.0, RecurrenceFrequency.DAILY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10)));
+
+        int posted = recurringService.materialize(rule.getId(), LocalDate.of(2024, 2, 1));
+
+        assertThat(posted).isEqualTo(10);
+        assertThat(transactions()).hasSize(10);
+        RecurringRule ended = ruleRepository.findById(rule.getId()).orElseThrow();
+        assertThat(ended.getNextRun()).isNull();
+        assertThat(ended.getClaimedBy()).isNull();
+    }
+
+    @Test
+    void catchUpOnCreateIsCappedAndTheJobPostsTheRest() {
+        ReflectionTestUtils.setField(recurringService, "batchSize", 4);
+        ReflectionTestUtils.setField(recurringService, "createCatchUp", 10);
+        RecurringRule rule = recurringService.create(userId,
+                rule("Gym", 1.0, RecurrenceFrequency.DAILY, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+
+        assertThat(recurringService.materialize(rule.getId(), LocalDate.of(2024, 1, 1))).isEqualTo(10);
+        assertThat(ruleRepository.findById(rule.getId()).orElseThrow().getNextRun()).isEqualTo(LocalDate.of(2023, 1, 11));
+
+        recurringService.materializeDue(LocalDate.of(2024, 1, 1));
+        assertThat(ruleRepository.findById(rule.getId()).orElseThrow().getNextRun()).isNull();
+        assertThat(summaryService.getTotals(userId, null, null).getCount()).isEqualTo(365);
+    }
+
+    @Test
+    void ruleLeasedElsewhereIsSkipped() {
+        RecurringRule rule = recurringService.create(userId,
+                rule("Salary", 100.0, RecurrenceFrequency.WEEKLY, LocalDate.of(2024, 1, 1), null));
+        rule.setClaimedBy("other-instance");
+        rule.setClaimedUntil(System.currentTimeMillis() + 60_000);
+        ruleRepository.save(rule);
+
+        assertThat(recurringService.materialize(rule.getId(), LocalDate.of(2024, 3, 1))).isZero();
+        assertThat(transactions()).isEmpty();
+    }
+
+    @Test
+    void concurrentRunsDoNotDoublePost() throws Exception {
+        ReflectionTestUtils.setField(recurringService, "batchSize", 7);
+        recurringService.create(userId,
+                rule("Gym", 1.0, RecurrenceFrequency.DAILY, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> runs = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                runs.add(() -> recurringService.materializeDue(LocalDate.of(2024, 1, 1)));
+            }
+            for (Future<Integer> f : pool.invokeAll(runs)) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        // Another run after all workers finished picks up anything left behind by lost claims
+        recurringService.materializeDue(LocalDate.of(2024, 1, 1));
+
+        assertThat(transactions()).hasSize(365)
+                .extracting(TransactionView::getDate).doesNotHaveDuplicates();
+        assertThat(summaryService.getTotals(userId, null, null).getCount()).isEqualTo(365);
+    }
+
+    private List<TransactionView> transactions() {
+        return transactionRepository.findPage(userId, null, null, null, null, null, null, PageRequest.of(0, 1000));
+    }
+
+    private RecurringRule rule(String title, double amount, RecurrenceFrequency frequency, LocalDate start, LocalDate end) {
+        RecurringRule rule = new RecurringRule();
+        rule.setTitle(title);
+        rule.setAmount(BigDecimal.valueOf(amount));
+        rule.setCategoryId(rent.getId());
+        rule.setFrequency(frequency);
+        rule.setStartDate(start);
+        rule.setEndDate(end);
+        return rule;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.CategoryTotal;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.entity.Budget;
+import com.example.expense.entity.BudgetPeriod;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+
+// Not @Transactional: every write commits its bucket deltas on its own, as in production
+@SpringBootTest
+class SummaryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 14);
+    private static final YearMonth MONTH = YearMonth.from(DAY);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category food;
+    private Category salary;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("summary");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+        salary = categoryService.create(new Category(null, "Salary " + suffix, "income"));
+    }
+
+    @Test
+    void addUpdateAndDeleteMoveTheBuckets() {
+        Transaction lunch = add("Lunch", "12.50", food, DAY);
+        add("Pay", "1000", salary, DAY);
+
+        SummaryTotals totals = summaryService.getTotals(user.getId(), MONTH, MONTH);
+        assertThat(totals.getExpense()).isEqualByComparingTo("12.50");
+        assertThat(totals.getIncome()).isEqualByComparingTo("1000");
+        assertThat(totals.getCount()).isEqualTo(2);
+
+        // Moved to another month, uncategorized and a new amount: out of one bucket, into another
+        Transaction changed = TestData.transaction(null, "Lunch", "20", null, null, DAY.plusMonths(1));
+        changed.setVersion(lunch.getVersion());
+        transactionService.updateTransaction(user.getId(), lunch.getId(), changed);
+
+        assertThat(summaryService.getTotals(user.getId(), MONTH, MONTH).getExpense()).isEqualByComparingTo("0");
+        assertThat(summaryService.getByCategory(user.getId(), MONTH.plusMonths(1), MONTH.plusMonths(1), "expense"))
+                .singleElement()
+                .satisfies(c -> {
+                    assertThat(c.getCategoryName()).isEqualTo("Uncategorized");
+                    assertThat(c.getTotal()).isEqualByComparingTo("20");
+                    assertThat(c.getCount()).isEqualTo(1);
+                });
+
+        transactionService.deleteTransaction(user.getId(), lunch.getId());
+
+        totals = summaryService.getTotals(user.getId(), null, null);
+        assertThat(totals.getExpense()).isEqualByComparingTo("0");
+        assertThat(totals.getBalance()).isEqualByComparingTo("1000");
+        assertThat(totals.getCount()).isEqualTo(1);
+        assertThat(summaryService.rebuild(user.getId())).isZero();
+    }
+
+    @Test
+    void rebuildCorrectsDriftedBucketsAndTheBudgetsSeededFromThem() {
+        LocalDate today = LocalDate.now();
+        add("Groceries", "50", food, today);
+        add("Pay", "1000", salary, DAY);
+        // Drift: a wrong total, and a bucket no transaction backs
+        jdbcTemplate.update("update monthly_summary set total = total + 100 where user_id = ? and category_id = ?",
+                user.getId(), food.getId());
+        jdbcTemplate.update("insert into monthly_summary (user_id, month_start, category_id, type, currency, total, txn_count)"
+                + " values (?, ?, ?, 'EXPENSE', 'INR', 9, 1)", user.getId(), DAY.withDayOfMonth(1), food.getId());
+        // Seeded from the drifted bucket
+        budgetService.create(user.getId(), new Budget(null, null, food.getId(), BudgetPeriod.MONTHLY, new BigDecimal("500")), today);
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getSpent()).isEqualByComparingTo("150");
+
+        assertThat(summaryService.rebuild(user.getId())).isEqualTo(2);
+
+        YearMonth current = YearMonth.from(today);
+        assertThat(summaryService.getByCategory(user.getId(), current, current, "EXPENSE"))
+                .extracting(CategoryTotal::getTotal)
+                .singleElement().satisfies(total -> assertThat(total).isEqualByComparingTo("50"));
+        assertThat(summaryService.getTotals(user.getId(), MONTH, MONTH).getExpense()).isEqualByComparingTo("0");
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getSpent()).isEqualByComparingTo("50");
+
+        // The corrected counter keeps moving with new writes
+        add("Dinner", "25", food, today);
+        assertThat(budgetService.getStatuses(user.getId(), today).get(0).getSpent()).isEqualByComparingTo("75");
+        assertThat(summaryService.rebuild(user.getId())).isZero();
+    }
+
+    private Transaction add(String title, String amount, Category category, LocalDate date) {
+        return testData.add(user, title, amount, category, date);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.SyncPage;
+import com.example.expense.dto.SyncUpload;
+import com.example.expense.dto.SyncUploadResult;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.example.expense.repository.TransactionRepository;
+
+// Not @Transactional: uploads must commit or roll back on their own
+@SpringBootTest
+class SyncServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = testData.user("sync");
+    }
+
+    @Test
+    void deltaContainsOnlyRowsWrittenAndDeletedSinceTheToken() {
+        Transaction rent = add("Rent", "800");
+        Transaction fuel = add("Fuel", "40");
+
+        SyncPage initial = syncService.pull(user.getId(), null, null);
+        assertThat(initial.getChanged()).extracting(TransactionView::getTitle).containsExactly("Rent", "Fuel");
+        assertThat(initial.getDeleted()).isEmpty();
+        assertThat(initial.isHasMore()).isFalse();
+
+        Transaction changes = new Transaction();
+        changes.setTitle("Rent, May");
+        transactionService.patchTransaction(user.getId(), rent.getId(), changes);
+        transactionService.deleteTransaction(user.getId(), fuel.getId());
+        add("Cinema", "12");
+
+        SyncPage delta = syncService.pull(user.getId(), initial.getVersion(), null);
+        assertThat(delta.getChanged()).extracting(TransactionView::getTitle).containsExactly("Rent, May", "Cinema");
+        assertThat(delta.getDeleted()).containsExactly(fuel.getId());
+        assertThat(delta.isReset()).isFalse();
+
+        SyncPage idle = syncService.pull(user.getId(), delta.getVersion(), null);
+        assertThat(idle.getChanged()).isEmpty();
+        assertThat(idle.getDeleted()).isEmpty();
+        assertThat(idle.getVersion()).isEqualTo(delta.getVersion());
+    }
+
+    @Test
+    void pagesSplitRowsWrittenByTheSameVersion() throws Exception {
+        // One import chunk is a single write, so all three rows share a version
+        String csv = "date,title,amount,category\n2024-06-01,A,1,\n2024-06-02,B,2,\n2024-06-03,C,3,\n";
+        importService.importTransactions(user.getId(),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransactionImportService.Format.CSV);
+
+        List<String> titles = new ArrayList<>();
+        String token = null;
+        SyncPage page;
+        do {
+            page = syncService.pull(user.getId(), token, 2);
+            page.getChanged().forEach(t -> titles.add(t.getTitle()));
+            token = page.getVersion();
+        } while (page.isHasMore());
+
+        assertThat(titles).containsExactlyInAnyOrder("A", "B", "C");
+    }
+
+    @Test
+    void tokenOlderThanPrunedTombstonesResets() {
+        Transaction kept = add("Kept", "1");
+        Transaction gone = add("Gone", "2");
+        String token = syncService.pull(user.getId(), null, null).getVersion();
+
+        transactionService.deleteTransaction(user.getId(), gone.getId());
+        syncService.pruneTombstones(Instant.now().plusSeconds(60));
+
+        SyncPage page = syncService.pull(user.getId(), token, null);
+        assertThat(page.isReset()).isTrue();
+        assertThat(page.getChanged()).extracting(TransactionView::getId).containsExactly(kept.getId());
+
+        // The fresh token is past the pruned range
+        assertThat(syncService.pull(user.getId(), page.getVersion(), null).isReset()).isFalse();
+    }
+
+    @Test
+    void uploadIsAllOrNothing() {
+        Transaction rent = add("Rent", "800");
+
+        Transaction created = TestData.transaction(null, "Coffee", "5", null, null, LocalDate.of(2024, 6, 1));
+        Transaction stale = new Transaction();
+        stale.setId(rent.getId());
+        stale.setTitle("Rent (offline edit)");
+        stale.setVersion(rent.getVersion() - 1);
+        SyncUpload upload = new SyncUpload();
+        upload.getUpserts().addAll(List.of(created, stale));
+
+        assertThatThrownBy(() -> transactionService.applySyncUpload(user.getId(), user, upload))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getReason()).startsWith("upserts[1]");
+                });
+        assertThat(transactionRepository.findPage(user.getId(), null, null, null, null, null, null, PageRequest.of(0, 50))).extracting(TransactionView::getTitle)
+                .containsExactly("Rent");
+
+        stale.setVersion(rent.getVersion());
+        created.setId(null);
+        SyncUpload retry = new SyncUpload();
+        retry.getUpserts().addAll(List.of(created, stale));
+        retry.getDeletes().add(rent.getId() + 1_000_000);
+        SyncUploadResult result = transactionService.applySyncUpload(user.getId(), user, retry);
+
+        assertThat(result.getSaved()).extracting(TransactionView::getTitle).containsExactly("Coffee", "Rent (offline edit)");
+        assertThat(result.getSaved().get(0).getId()).isNotNull();
+    }
+
+    private Transaction add(String title, String amount) {
+        return testData.add(user, title, amount, null, LocalDate.of(2024, 5, 1));
+    }
+}
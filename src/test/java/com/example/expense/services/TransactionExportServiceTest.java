@@ -0,0 +1,76 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.User;
+import com.example.expense.repository.CategoryRepository;
+import com.example.expense.repository.TransactionRepository;
+import com.example.expense.repository.UserRepository;
+
+@SpringBootTest
+@Transactional
+class TransactionExportServiceTest {
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(TestData.newUser("export@example.com", "export"));
+        userId = user.getId();
+        Category rent = categoryRepository.save(new Category(null, "Rent", "EXPENSE"));
+        Category salary = categoryRepository.save(new Category(null, "Salary", "INCOME"));
+        transactionRepository.save(TestData.transaction(user, "Rent, January", "900", "INR", rent, LocalDate.of(2024, 1, 1)));
+        transactionRepository.save(TestData.transaction(user, "=HYPERLINK()", "3000", "INR", salary, LocalDate.of(2024, 1, 31)));
+        transactionRepository.save(TestData.transaction(user, "Rent", "950", "INR", rent, LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void csvStreamsRowsInDateOrderWithTotals() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SummaryTotals totals = exportService.writeCsv(userId, null, LocalDate.of(2024, 1, 31), out);
+
+        String csv = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("Date,Title,Amount,Currency,Category,Type\n"
+                + "2024-01-01,\"Rent, January\",900.00,INR,Rent,EXPENSE\n"
+                + "2024-01-31,'=HYPERLINK(),3000.00,INR,Salary,INCOME\n");
+        assertThat(csv).contains(",Balance,2100.00,INR,,");
+        assertThat(totals.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pdfIncludesAllRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SummaryTotals totals = exportService.writePdf(userId, null, null, out);
+
+        assertThat(new String(out.toByteArray(), 0, 4, StandardCharsets.US_ASCII)).isEqualTo("%PDF");
+        assertThat(totals.getExpense()).isEqualByComparingTo("1850");
+        assertThat(totals.getIncome()).isEqualByComparingTo("3000");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.ImportResult;
+import com.example.expense.dto.SummaryTotals;
+import com.example.expense.entity.Category;
+import com.example.expense.repository.TransactionRepository;
+import com.example.expense.repository.UserRepository;
+
+@SpringBootTest
+@Transactional
+class TransactionImportServiceTest {
+
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(TestData.newUser("import@example.com", "import")).getId();
+        // Through the service so the cached catalog is refreshed
+        categoryService.create(new Category(null, "Groceries", "EXPENSE"));
+        categoryService.create(new Category(null, "Payroll", "INCOME"));
+        // Small chunks so several batches are written
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @Test
+    void importsCsvAndReportsBadRows() throws Exception {
+        String csv = "Date,Title,Amount,Category\n"
+                + "2024-03-01,Market,12.50,groceries\n"
+                + "2024-03-02,Bakery,7.50,Groceries\n"
+                + "2024-03-03,Unknown,1.00,Nope\n"
+                + "2024-03-31,Salary,1000,Payroll\n"
+                + "03/04/2024,Bad date,5,Groceries\n"
+                + "2024-04-01,Corner shop,20,\n";
+
+        ImportResult result = importService.importTransactions(userId, stream(csv), TransactionImportService.Format.CSV);
+
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportResult.RowError::getRow).containsExactly(3L, 5L);
+        assertThat(transactionRepository.findPage(userId, null, null, null, null, null, null, PageRequest.of(0, 50))).hasSize(4);
+
+        SummaryTotals march = summaryService.getTotals(userId, YearMonth.of(2024, 3), YearMonth.of(2024, 3));
+        assertThat(march.getExpense()).isEqualByComparingTo("20");
+        assertThat(march.getIncome()).isEqualByComparingTo("1000");
+        assertThat(summaryService.getTotals(userId, null, null).getCount()).isEqualTo(4);
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = "{\"date\":\"2024-05-01\",\"title\":\"Rent\",\"amount\":800}\n"
+                + "{\"date\":\"2024-05-02\",\"title\":\"Lunch\",\"amount\":\"9.5\",\"category\":\"Groceries\"}\n"
+                + "{\"date\":\"2024-05-03\",\"title\":\"No amount\"}\n";
+
+        ImportResult result = importService.importTransactions(userId, stream(ndjson), TransactionImportService.Format.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(summaryService.getTotals(userId, null, null).getExpense()).isEqualByComparingTo("809.5");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expense.TestData;
+import com.example.expense.dto.TransactionView;
+import com.example.expense.entity.User;
+
+// Not @Transactional: the index is updated after commit
+@SpringBootTest
+class TransactionSearchServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionSearchService searchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = testData.user("search");
+        add("Grocery store", "40", LocalDate.of(2024, 3, 1));
+        add("Weekly groceries", "55", LocalDate.of(2024, 3, 8));
+        add("Gas station", "30", LocalDate.of(2024, 3, 9));
+        add("Café Crème", "4.5", LocalDate.of(2024, 3, 10));
+    }
+
+    @Test
+    void prefixAndTyposMatchWithExactTermsRankedFirst() {
+        assertThat(titles(search("groc"))).containsExactlyInAnyOrder("Grocery store", "Weekly groceries");
+        assertThat(titles(search("grocery"))).first().isEqualTo("Grocery store");
+        assertThat(titles(search("grocey store"))).containsExactly("Grocery store");
+        assertThat(titles(search("cafe creme"))).containsExactly("Café Crème");
+        assertThat(search("groceries gas")).isEmpty();
+    }
+
+    @Test
+    void amountAndDateRangesNarrowTheResults() {
+        assertThat(titles(searchService.search(user.getId(), "groc", new BigDecimal("50"), null, null, null, 20)))
+                .containsExactly("Weekly groceries");
+        assertThat(titles(searchService.search(user.getId(), null, null, null,
+                LocalDate.of(2024, 3, 9), null, 20))).containsExactly("Café Crème", "Gas station");
+    }
+
+    @Test
+    void indexFollowsUpdatesDeletesAndImports() throws Exception {
+        Long gas = search("gas").get(0).getId();
+        transactionService.deleteTransaction(user.getId(), gas);
+        assertThat(search("gas")).isEmpty();
+
+        String csv = "Date,Title,Amount\n2024-04-01,Gasoline refill,60\n";
+        importService.importTransactions(user.getId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                TransactionImportService.Format.CSV);
+        assertThat(titles(search("gasol"))).containsExactly("Gasoline refill");
+    }
+
+    @Test
+    void writesThisInstanceDidNotSeeRebuildTheIndex() {
+        assertThat(search("rent")).isEmpty();
+
+        // As another instance writes: bump and insert, with no after-commit hook here
+        transactionTemplate.executeWithoutResult(s -> {
+            long changeSeq = dataVersionService.bump(user.getId());
+            jdbcTemplate.update("insert into transaction (amount, currency, date, title, user_id, change_seq)"
+                    + " values (900, 'INR', '2024-04-01', 'April rent', ?, ?)", user.getId(), changeSeq);
+        });
+
+        assertThat(titles(search("rent"))).containsExactly("April rent");
+    }
+
+    @Test
+    void distanceStopsAtTheBound() {
+        assertThat(TransactionSearchService.distance("grocey", "grocery", 1)).isEqualTo(1);
+        assertThat(TransactionSearchService.distance("rent", "tent", 1)).isEqualTo(1);
+        assertThat(TransactionSearchService.distance("rent", "gas", 1)).isEqualTo(2);
+    }
+
+    private List<TransactionView> search(String q) {
+        return searchService.search(user.getId(), q, null, null, null, null, 20);
+    }
+
+    private void add(String title, String amount, LocalDate date) {
+        testData.add(user, title, amount, null, date);
+    }
+
+    private static List<String> titles(List<TransactionView> views) {
+        return views.stream().map(TransactionView::getTitle).toList();
+    }
+}
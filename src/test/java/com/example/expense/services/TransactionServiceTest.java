@@ -0,0 +1,126 @@
+package com.example.expense.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.expense.TestData;
+import com.example.expense.entity.Category;
+import com.example.expense.entity.Transaction;
+import com.example.expense.entity.User;
+import com.example.expense.repository.TransactionRepository;
+
+// Not @Transactional: versions are assigned at flush and each edit must commit on its own
+@SpringBootTest
+class TransactionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 10);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private User user;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = testData.user("txn");
+        food = categoryService.create(new Category(null, "Food " + suffix, "EXPENSE"));
+    }
+
+    @Test
+    void staleVersionIsRejectedAndNothingIsOverwritten() {
+        Transaction created = add("Lunch", "12.50");
+        assertThat(created.getVersion()).isZero();
+
+        Transaction first = edit(created.getId(), "Lunch with team", "15", 0L);
+        assertThat(first.getVersion()).isEqualTo(1L);
+
+        // A second client still holding version 0
+        assertThatThrownBy(() -> edit(created.getId(), "Brunch", "99", 0L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        Transaction stored = transactionRepository.findWithCategoryByIdAndUserId(created.getId(), user.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(stored.getTitle()).isEqualTo("Lunch with team");
+        assertThat(stored.getAmount()).isEqualByComparingTo("15");
+        assertThat(summaryService.getTotals(user.getId(), YearMonth.from(DAY), YearMonth.from(DAY)).getExpense())
+                .isEqualByComparingTo("15");
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() {
+        Transaction created = add("Taxi", "30");
+
+        Transaction changes = new Transaction();
+        changes.setTitle("Airport taxi");
+        changes.setVersion(created.getVersion());
+        Transaction patched = transactionService.patchTransaction(user.getId(), created.getId(), changes);
+
+        Transaction stored = transactionRepository.findWithCategoryByIdAndUserId(created.getId(), user.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(stored.getTitle()).isEqualTo("Airport taxi");
+        assertThat(stored.getAmount()).isEqualByComparingTo("30");
+        assertThat(stored.getDate()).isEqualTo(DAY);
+        assertThat(stored.getCategory().getId()).isEqualTo(food.getId());
+        assertThat(patched.getVersion()).isEqualTo(created.getVersion() + 1);
+
+        Transaction amountOnly = new Transaction();
+        amountOnly.setAmount(new BigDecimal("45"));
+        transactionService.patchTransaction(user.getId(), created.getId(), amountOnly);
+        assertThat(summaryService.getTotals(user.getId(), YearMonth.from(DAY), YearMonth.from(DAY)).getExpense())
+                .isEqualByComparingTo("45");
+    }
+
+    @Test
+    void amountsTheColumnCannotHoldExactlyAreRejected() {
+        Transaction created = add("Coffee", "3.5000");
+
+        // The database would round these, while the summaries took the amount as posted
+        assertThatThrownBy(() -> add("Tea", "1.00005"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        Transaction tooPrecise = new Transaction();
+        tooPrecise.setAmount(new BigDecimal("3.14159"));
+        assertThatThrownBy(() -> transactionService.patchTransaction(user.getId(), created.getId(), tooPrecise))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("decimal places");
+        assertThatThrownBy(() -> edit(created.getId(), "Coffee", "1e15", created.getVersion()))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("out of range");
+
+        assertThat(summaryService.getTotals(user.getId(), YearMonth.from(DAY), YearMonth.from(DAY)).getExpense())
+                .isEqualByComparingTo("3.5");
+    }
+
+    private Transaction add(String title, String amount) {
+        return testData.add(user, title, amount, food, DAY);
+    }
+
+    private Transaction edit(Long id, String title, String amount, Long version) {
+        Transaction updated = TestData.transaction(null, title, amount, null, new Category(food.getId(), null, null), DAY);
+        updated.setVersion(version);
+        return transactionService.updateTransaction(user.getId(), id, updated);
+    }
+}